@@ -0,0 +1,90 @@
+package com.serkowski.orderservice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.serkowski.orderservice.config.OrderCacheProperties;
+import com.serkowski.orderservice.dto.response.OrderResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Cache of order responses by order number and version, bounded by size and time since caching. A version of an order
+ * never changes, so entries are not refreshed, only the previous version is dropped when a new one is cached, as the
+ * database doesn't serve it anymore. Hit, miss and eviction counts are published as {@code cache.*} metrics with the
+ * {@code cache=order} tag.
+ */
+@Component
+public class OrderResponseCache {
+
+    private static final String CACHE_NAME = "order";
+
+    private final boolean enabled;
+    private final AsyncCache<Key, OrderResponse> cache;
+
+    public OrderResponseCache(OrderCacheProperties orderCacheProperties, MeterRegistry meterRegistry) {
+        this.enabled = orderCacheProperties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(orderCacheProperties.getMaximumSize())
+                .expireAfterWrite(orderCacheProperties.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    }
+
+    /**
+     * Get order version from the cache or load it when it's missing. Every caller gets its own copy, so links added to
+     * the response don't leak into the cache.
+     *
+     * @param orderNumber   order number
+     * @param versionNumber version of the order
+     * @param loader        loads the order version
+     * @return {@link OrderResponse}
+     */
+    public Mono<OrderResponse> get(String orderNumber, Integer versionNumber, Supplier<Mono<OrderResponse>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return Mono.fromFuture(() -> cache.get(new Key(orderNumber, versionNumber), (key, executor) -> loader.get().toFuture()), true)
+                .map(this::copy);
+    }
+
+    /**
+     * Cache version of an order just written and drop its previous version.
+     *
+     * @param orderResponse order version
+     */
+    public void put(OrderResponse orderResponse) {
+        if (!enabled) {
+            return;
+        }
+        cache.put(new Key(orderResponse.getOrderNumber(), orderResponse.getVersion()), CompletableFuture.completedFuture(copy(orderResponse)));
+        cache.synchronous().invalidate(new Key(orderResponse.getOrderNumber(), orderResponse.getVersion() - 1));
+    }
+
+    /**
+     * Remove all versions of an order from the cache of this node.
+     *
+     * @param orderNumber order number
+     */
+    public void invalidate(String orderNumber) {
+        cache.asMap().keySet().removeIf(key -> key.orderNumber().equals(orderNumber));
+    }
+
+    private OrderResponse copy(OrderResponse orderResponse) {
+        return OrderResponse.builder()
+                .orderNumber(orderResponse.getOrderNumber())
+                .state(orderResponse.getState())
+                .orderItems(orderResponse.getOrderItems())
+                .address(orderResponse.getAddress())
+                .version(orderResponse.getVersion())
+                .build();
+    }
+
+    private record Key(String orderNumber, Integer version) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.serkowski.orderservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "order.cache")
+@Getter
+@Setter
+public class OrderCacheProperties {
+
+    /**
+     * Whether order versions are served from the local cache, turned off every read goes to the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper limit of cached order versions.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long an order version is served from the cache after it was cached. Bounds how long a node serves a version
+     * already replaced or deleted through another node.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,19 @@
+package com.serkowski.orderservice.config;
+
+import com.serkowski.orderservice.util.TimeOrderedIdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.IdGenerator;
+
+@Configuration
+@EnableConfigurationProperties(OrderCacheProperties.class)
+public class OrderConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(IdGenerator.class)
+    public IdGenerator idGenerator() {
+        return new TimeOrderedIdGenerator();
+    }
+}
@@ -18,8 +18,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.support.WebExchangeBindException;
 import reactor.core.publisher.Mono;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
 @RestController
 @RequestMapping("/api/order")
 @RequiredArgsConstructor
@@ -27,6 +25,7 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderLinkFactory orderLinkFactory;
 
     @PostMapping("/draft")
     @ResponseStatus(HttpStatus.CREATED)
@@ -34,7 +33,7 @@ public class OrderController {
     public Mono<OrderResponse> placeOrderDraft(@Valid @RequestBody OrderRequest orderRequest) {
         return orderService.placeOrderDraft(orderRequest)
                 .map(orderResponse -> {
-                    orderResponse.add(linkTo(OrderController.class).slash(orderResponse.getOrderNumber()).slash(orderResponse.getVersion()).withSelfRel());
+                    orderResponse.add(orderLinkFactory.orderSelf(orderResponse.getOrderNumber(), orderResponse.getVersion()));
                     return orderResponse;
                 });
     }
@@ -44,7 +43,7 @@ public class OrderController {
     public Mono<OrderResponse> acceptOrder(@PathVariable String orderNumber, @PathVariable Integer versionNumber) {
         return orderService.acceptOrder(orderNumber, versionNumber)
                 .map(orderResponse -> {
-                    orderResponse.add(linkTo(OrderController.class).slash(orderResponse.getOrderNumber()).slash(orderResponse.getVersion()).withSelfRel());
+                    orderResponse.add(orderLinkFactory.orderSelf(orderResponse.getOrderNumber(), orderResponse.getVersion()));
                     return orderResponse;
                 });
     }
@@ -52,23 +51,27 @@ public class OrderController {
     @PutMapping("/draft/{orderNumber}/{versionNumber}")
     @ResponseStatus(HttpStatus.OK)
     public Mono<OrderResponse> updateOrderDraft(@RequestBody OrderRequest orderRequest, @PathVariable String orderNumber, @PathVariable Integer versionNumber) {
-        OrderResponse response = orderService.updateOrder(orderRequest, orderNumber, versionNumber);
-        response.add(linkTo(OrderController.class).slash(response.getOrderNumber()).slash(response.getVersion()).withSelfRel());
-        return Mono.just(response);
+        return orderService.updateOrder(orderRequest, orderNumber, versionNumber)
+                .map(orderResponse -> {
+                    orderResponse.add(orderLinkFactory.orderSelf(orderResponse.getOrderNumber(), orderResponse.getVersion()));
+                    return orderResponse;
+                });
     }
 
     @GetMapping("/{orderNumber}/{versionNumber}")
     @ResponseStatus(HttpStatus.OK)
     public Mono<OrderResponse> getOrder(@PathVariable String orderNumber, @PathVariable Integer versionNumber) {
-        OrderResponse response = orderService.getOrderByOrderNumber(orderNumber, versionNumber);
-        response.add(linkTo(OrderController.class).slash(response.getOrderNumber()).slash(response.getVersion()).withSelfRel());
-        return Mono.just(response);
+        return orderService.getOrderByOrderNumber(orderNumber, versionNumber)
+                .map(orderResponse -> {
+                    orderResponse.add(orderLinkFactory.orderSelf(orderResponse.getOrderNumber(), orderResponse.getVersion()));
+                    return orderResponse;
+                });
     }
 
     @DeleteMapping("/{orderNumber}")
     @ResponseStatus(HttpStatus.OK)
-    public void deleteOrder(@PathVariable String orderNumber) {
-        orderService.deleteOrderByOrderNumber(orderNumber);
+    public Mono<Void> deleteOrder(@PathVariable String orderNumber) {
+        return orderService.deleteOrderByOrderNumber(orderNumber);
     }
 
     @ExceptionHandler(WebExchangeBindException.class)
@@ -0,0 +1,32 @@
+package com.serkowski.orderservice.controller;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Builds links to order resources. Path of the controller is resolved once at startup, so a link of a response is a
+ * string concatenation instead of controller introspection and URI building.
+ */
+@Component
+public class OrderLinkFactory {
+
+    private final String orderPathPrefix;
+
+    public OrderLinkFactory() {
+        this.orderPathPrefix = linkTo(OrderController.class).toUri().toString() + "/";
+    }
+
+    /**
+     * Self link of the order version.
+     *
+     * @param orderNumber   order number
+     * @param versionNumber order version
+     * @return {@link Link}
+     */
+    public Link orderSelf(String orderNumber, Integer versionNumber) {
+        return Link.of(orderPathPrefix + orderNumber + "/" + versionNumber, IanaLinkRelations.SELF);
+    }
+}
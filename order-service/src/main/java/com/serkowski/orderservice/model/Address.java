@@ -13,7 +13,8 @@ import lombok.*;
 public class Address {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_address_seq")
+    @SequenceGenerator(name = "order_address_seq", allocationSize = 50)
     private Long id;
     private String addressLine1;
     private String addressLine2;
@@ -7,6 +7,10 @@ import java.util.List;
 
 @Entity
 @Table(name = "order_summary")
+@NamedEntityGraph(name = OrderSummary.WITH_ITEMS_AND_ADDRESS, attributeNodes = {
+        @NamedAttributeNode("orderLineItemsList"),
+        @NamedAttributeNode("address")
+})
 @Getter
 @Setter
 @Builder
@@ -14,11 +18,18 @@ import java.util.List;
 @AllArgsConstructor
 public class OrderSummary {
 
+    /**
+     * Fetch plan loading the order with its items and address in one statement.
+     */
+    public static final String WITH_ITEMS_AND_ADDRESS = "OrderSummary.withItemsAndAddress";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_summary_seq")
+    @SequenceGenerator(name = "order_summary_seq", allocationSize = 50)
     private Long id;
     private String orderNumber;
-    @OneToMany(cascade = CascadeType.ALL)
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "order_summary_id", nullable = false, updatable = false)
     private List<OrderItem> orderLineItemsList;
     @OneToOne(cascade = CascadeType.ALL)
     private Address address;
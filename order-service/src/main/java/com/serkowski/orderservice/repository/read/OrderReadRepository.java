@@ -1,6 +1,7 @@
 package com.serkowski.orderservice.repository.read;
 
 import com.serkowski.orderservice.model.OrderSummary;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,6 +10,8 @@ import java.util.Optional;
 @Repository
 public interface OrderReadRepository extends JpaRepository<OrderSummary, Long> {
 
+    @EntityGraph(OrderSummary.WITH_ITEMS_AND_ADDRESS)
     Optional<OrderSummary> findByOrderNumberAndVersion(String orderNumber, Integer version);
+    @EntityGraph(OrderSummary.WITH_ITEMS_AND_ADDRESS)
     Optional<OrderSummary> findByOrderNumber(String orderNumber);
 }
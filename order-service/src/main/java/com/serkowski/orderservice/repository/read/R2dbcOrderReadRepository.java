@@ -0,0 +1,99 @@
+package com.serkowski.orderservice.repository.read;
+
+import com.serkowski.orderservice.model.Address;
+import com.serkowski.orderservice.model.OrderItem;
+import com.serkowski.orderservice.model.OrderSummary;
+import com.serkowski.orderservice.model.State;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads orders from the tables mapped by the {@link OrderSummary} entity, so both persistence implementations work on
+ * the same data. The address is optional in the schema, so like the entity mapping an order without one is still
+ * found and read with a null address.
+ */
+@Repository
+@RequiredArgsConstructor
+public class R2dbcOrderReadRepository implements ReactiveOrderReadRepository {
+
+    private static final String SELECT_ORDER = """
+            SELECT s.id, s.order_number, s.state, s.version,
+                   a.id AS address_id, a.address_line1, a.address_line2, a.city, a.country
+            FROM order_summary s
+            LEFT JOIN order_address a ON a.id = s.address_id
+            """;
+    private static final String SELECT_ITEMS = """
+            SELECT id, count, item_ref
+            FROM order_item
+            WHERE order_summary_id = :orderId
+            ORDER BY id
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<OrderSummary> findByOrderNumberAndVersion(String orderNumber, Integer version) {
+        return databaseClient.sql(SELECT_ORDER + "WHERE s.order_number = :orderNumber AND s.version = :version")
+                .bind("orderNumber", orderNumber)
+                .bind("version", version)
+                .map(this::mapOrder)
+                .one()
+                .flatMap(this::withItems);
+    }
+
+    @Override
+    public Mono<OrderSummary> findByOrderNumber(String orderNumber) {
+        return databaseClient.sql(SELECT_ORDER + "WHERE s.order_number = :orderNumber")
+                .bind("orderNumber", orderNumber)
+                .map(this::mapOrder)
+                .one()
+                .flatMap(this::withItems);
+    }
+
+    private Mono<OrderSummary> withItems(OrderSummary orderSummary) {
+        return databaseClient.sql(SELECT_ITEMS)
+                .bind("orderId", orderSummary.getId())
+                .map(this::mapItem)
+                .all()
+                .collectList()
+                .map(items -> {
+                    orderSummary.setOrderLineItemsList(items);
+                    return orderSummary;
+                });
+    }
+
+    private OrderSummary mapOrder(Readable row) {
+        return OrderSummary.builder()
+                .id(row.get("id", Long.class))
+                .orderNumber(row.get("order_number", String.class))
+                .state(State.values()[row.get("state", Integer.class)])
+                .version(row.get("version", Integer.class))
+                .address(mapAddress(row))
+                .build();
+    }
+
+    private Address mapAddress(Readable row) {
+        Long addressId = row.get("address_id", Long.class);
+        if (addressId == null) {
+            return null;
+        }
+        return Address.builder()
+                .id(addressId)
+                .addressLine1(row.get("address_line1", String.class))
+                .addressLine2(row.get("address_line2", String.class))
+                .city(row.get("city", String.class))
+                .country(row.get("country", String.class))
+                .build();
+    }
+
+    private OrderItem mapItem(Readable row) {
+        return OrderItem.builder()
+                .id(row.get("id", Long.class))
+                .count(row.get("count", Integer.class))
+                .itemRef(row.get("item_ref", String.class))
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.serkowski.orderservice.repository.read;
+
+import com.serkowski.orderservice.model.OrderSummary;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveOrderReadRepository {
+
+    /**
+     * Find order with its items and address.
+     *
+     * @param orderNumber order number
+     * @param version     version number
+     * @return {@link OrderSummary} or empty when order in this version not exist
+     */
+    Mono<OrderSummary> findByOrderNumberAndVersion(String orderNumber, Integer version);
+
+    /**
+     * Find order with its items and address.
+     *
+     * @param orderNumber order number
+     * @return {@link OrderSummary} or empty when order not exist
+     */
+    Mono<OrderSummary> findByOrderNumber(String orderNumber);
+}
@@ -0,0 +1,157 @@
+package com.serkowski.orderservice.repository.write;
+
+import com.serkowski.orderservice.model.Address;
+import com.serkowski.orderservice.model.OrderItem;
+import com.serkowski.orderservice.model.OrderSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes orders to the tables mapped by the {@link OrderSummary} entity. Every statement is a single round trip, items
+ * are inserted with the id of their order. Callers are expected to run a save or delete in one transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class R2dbcOrderWriteRepository implements ReactiveOrderWriteRepository {
+
+    private static final String INSERT_ORDER = """
+            INSERT INTO order_summary (id, order_number, address_id, state, version)
+            VALUES (nextval('order_summary_seq'), :orderNumber, :addressId, :state, 0)
+            RETURNING id
+            """;
+    private static final String UPDATE_ORDER = """
+            UPDATE order_summary SET address_id = :addressId, state = :state, version = version + 1
+            WHERE id = :id AND version = :version
+            """;
+    private static final String INSERT_ADDRESS = """
+            INSERT INTO order_address (id, address_line1, address_line2, city, country)
+            VALUES (nextval('order_address_seq'), :addressLine1, :addressLine2, :city, :country)
+            RETURNING id
+            """;
+    private static final String UPDATE_ADDRESS = """
+            UPDATE order_address SET address_line1 = :addressLine1, address_line2 = :addressLine2, city = :city, country = :country
+            WHERE id = :id
+            """;
+    private static final String INSERT_ITEM = """
+            INSERT INTO order_item (id, order_summary_id, count, item_ref)
+            VALUES (nextval('order_item_seq'), :orderId, :count, :itemRef)
+            RETURNING id
+            """;
+    private static final String DELETE_ITEMS = "DELETE FROM order_item WHERE order_summary_id = :orderId";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<OrderSummary> save(OrderSummary orderSummary) {
+        return orderSummary.getId() == null ? insert(orderSummary) : update(orderSummary);
+    }
+
+    @Override
+    public Mono<Void> delete(OrderSummary orderSummary) {
+        return deleteItems(orderSummary.getId())
+                .then(databaseClient.sql("DELETE FROM order_summary WHERE id = :id")
+                        .bind("id", orderSummary.getId())
+                        .then())
+                .then(databaseClient.sql("DELETE FROM order_address WHERE id = :id")
+                        .bind("id", orderSummary.getAddress().getId())
+                        .then());
+    }
+
+    private Mono<OrderSummary> insert(OrderSummary orderSummary) {
+        return saveAddress(orderSummary.getAddress())
+                .flatMap(addressId -> databaseClient.sql(INSERT_ORDER)
+                        .bind("orderNumber", orderSummary.getOrderNumber())
+                        .bind("addressId", addressId)
+                        .bind("state", (short) orderSummary.getState().ordinal())
+                        .map(row -> row.get("id", Long.class))
+                        .one())
+                .flatMap(id -> {
+                    orderSummary.setId(id);
+                    orderSummary.setVersion(0);
+                    return insertItems(orderSummary);
+                })
+                .thenReturn(orderSummary);
+    }
+
+    private Mono<OrderSummary> update(OrderSummary orderSummary) {
+        return saveAddress(orderSummary.getAddress())
+                .flatMap(addressId -> databaseClient.sql(UPDATE_ORDER)
+                        .bind("addressId", addressId)
+                        .bind("state", (short) orderSummary.getState().ordinal())
+                        .bind("id", orderSummary.getId())
+                        .bind("version", orderSummary.getVersion())
+                        .fetch()
+                        .rowsUpdated())
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(new OptimisticLockingFailureException(String.format("Order: %s was changed by another transaction",
+                        orderSummary.getOrderNumber())))
+                        : replaceItems(orderSummary))
+                .then(Mono.fromSupplier(() -> {
+                    orderSummary.setVersion(orderSummary.getVersion() + 1);
+                    return orderSummary;
+                }));
+    }
+
+    private Mono<Long> saveAddress(Address address) {
+        if (address.getId() == null) {
+            return bindAddress(databaseClient.sql(INSERT_ADDRESS), address)
+                    .map(row -> row.get("id", Long.class))
+                    .one()
+                    .doOnNext(address::setId);
+        }
+        return bindAddress(databaseClient.sql(UPDATE_ADDRESS), address)
+                .bind("id", address.getId())
+                .then()
+                .thenReturn(address.getId());
+    }
+
+    /**
+     * Items are replaced like by the entity mapping: a new list, recognized by items without id, removes the previous
+     * items, while a loaded list is kept as it is.
+     */
+    private Mono<Void> replaceItems(OrderSummary orderSummary) {
+        if (orderSummary.getOrderLineItemsList().stream().allMatch(item -> item.getId() != null)) {
+            return Mono.empty();
+        }
+        return deleteItems(orderSummary.getId())
+                .then(insertItems(orderSummary));
+    }
+
+    private Mono<Void> insertItems(OrderSummary orderSummary) {
+        return Flux.fromIterable(orderSummary.getOrderLineItemsList())
+                .concatMap(item -> insertItem(orderSummary.getId(), item))
+                .then();
+    }
+
+    private Mono<OrderItem> insertItem(Long orderId, OrderItem item) {
+        return databaseClient.sql(INSERT_ITEM)
+                .bind("count", item.getCount())
+                .bind("itemRef", Parameter.fromOrEmpty(item.getItemRef(), String.class))
+                .bind("orderId", orderId)
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    item.setId(id);
+                    return item;
+                });
+    }
+
+    private Mono<Void> deleteItems(Long orderId) {
+        return databaseClient.sql(DELETE_ITEMS)
+                .bind("orderId", orderId)
+                .then();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindAddress(DatabaseClient.GenericExecuteSpec spec, Address address) {
+        return spec
+                .bind("addressLine1", Parameter.fromOrEmpty(address.getAddressLine1(), String.class))
+                .bind("addressLine2", Parameter.fromOrEmpty(address.getAddressLine2(), String.class))
+                .bind("city", Parameter.fromOrEmpty(address.getCity(), String.class))
+                .bind("country", Parameter.fromOrEmpty(address.getCountry(), String.class));
+    }
+}
@@ -0,0 +1,23 @@
+package com.serkowski.orderservice.repository.write;
+
+import com.serkowski.orderservice.model.OrderSummary;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveOrderWriteRepository {
+
+    /**
+     * Insert a new order, or update an existing one when its version was not changed in the meantime. The version of
+     * an updated order is incremented, like the version of an updated entity.
+     *
+     * @param orderSummary order
+     * @return saved order with generated ids and current version
+     */
+    Mono<OrderSummary> save(OrderSummary orderSummary);
+
+    /**
+     * Delete order together with its items and address.
+     *
+     * @param orderSummary order
+     */
+    Mono<Void> delete(OrderSummary orderSummary);
+}
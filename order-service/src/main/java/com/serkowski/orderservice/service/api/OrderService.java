@@ -32,7 +32,7 @@ public interface OrderService {
      * @param versionNumber version number
      * @return {@link OrderResponse}
      */
-    OrderResponse updateOrder(OrderRequest orderRequest, String orderNumber, Integer versionNumber);
+    Mono<OrderResponse> updateOrder(OrderRequest orderRequest, String orderNumber, Integer versionNumber);
 
     /**
      * Get order by order number
@@ -41,13 +41,13 @@ public interface OrderService {
      * @param versionNumber version number
      * @return {@link OrderResponse}
      */
-    OrderResponse getOrderByOrderNumber(String orderNumber, Integer versionNumber);
+    Mono<OrderResponse> getOrderByOrderNumber(String orderNumber, Integer versionNumber);
 
     /**
      * Delete order by order number.
      *
      * @param orderNumber order number
      */
-    void deleteOrderByOrderNumber(String orderNumber);
+    Mono<Void> deleteOrderByOrderNumber(String orderNumber);
 
 }
@@ -11,19 +11,23 @@ import com.serkowski.orderservice.model.OrderItem;
 import com.serkowski.orderservice.model.OrderSummary;
 import com.serkowski.orderservice.model.State;
 import com.serkowski.orderservice.service.api.OrderMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.util.IdGenerator;
 
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class OrderMapperImpl implements OrderMapper {
 
+    private final IdGenerator idGenerator;
+
     @Override
     public OrderSummary map(OrderRequest orderRequest, State state) {
         return OrderSummary.builder()
-                .orderNumber(String.valueOf(UUID.randomUUID()))
+                .orderNumber(idGenerator.generateId().toString())
                 .orderLineItemsList(mapItems(orderRequest.getOrderItems()))
                 .state(state)
                 .address(mapAddress(orderRequest.getAddress()))
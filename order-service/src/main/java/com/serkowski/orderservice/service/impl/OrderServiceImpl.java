@@ -1,5 +1,6 @@
 package com.serkowski.orderservice.service.impl;
 
+import com.serkowski.orderservice.cache.OrderResponseCache;
 import com.serkowski.orderservice.dto.request.OrderRequest;
 import com.serkowski.orderservice.dto.response.OrderResponse;
 import com.serkowski.orderservice.model.OrderSummary;
@@ -13,13 +14,22 @@ import com.serkowski.orderservice.service.api.OrderService;
 import com.serkowski.orderservice.service.api.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.function.Supplier;
+
+/**
+ * Order service on JPA. Every blocking repository call runs in its own transaction on the bounded elastic scheduler,
+ * so event loop threads never wait for the database. Written order versions are cached, so polling of an order is
+ * served without the database.
+ */
 @Service
+@ConditionalOnProperty(name = "order.persistence", havingValue = "jpa", matchIfMissing = true)
 @RequiredArgsConstructor
-@Transactional
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
@@ -27,63 +37,88 @@ public class OrderServiceImpl implements OrderService {
     private final OrderReadRepository orderReadRepository;
     private final OrderMapper orderMapper;
     private final ProductService productService;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderResponseCache orderResponseCache;
 
     @Override
     public Mono<OrderResponse> placeOrderDraft(OrderRequest orderRequest) {
-        OrderSummary orderSummary = orderWriteRepository.save(orderMapper.map(orderRequest, State.DRAFT));
-        return Mono.just(orderMapper.map(orderSummary));
+        return inTransaction(() -> orderMapper.map(orderWriteRepository.save(orderMapper.map(orderRequest, State.DRAFT))))
+                .doOnNext(orderResponseCache::put);
     }
 
     @Override
     public Mono<OrderResponse> acceptOrder(String orderNumber, Integer versionNumber) {
-        return orderReadRepository.findByOrderNumberAndVersion(orderNumber, versionNumber)
-                .map(orderSummary -> {
-                    if (orderSummary.getState() != State.DRAFT) {
-                        throw new ValidationException(String.format("Incorrect state: %s of order: %s version: %d", orderSummary.getState(), orderNumber, versionNumber));
-                    }
-                    return orderSummary;
-                })
-                .map(orderSummary ->
-                        productService.reserveItems(orderSummary.getOrderNumber(), orderSummary.getOrderLineItemsList())
-                                .doOnError(exception -> {
-                                    log.error("Reserve items fail", exception);
-                                    orderSummary.setState(State.INVALID);
-                                    orderWriteRepository.save(orderSummary);
-                                })
-                                .map(result -> {
-                                    log.info("Response of reserve items: " + result);
-                                    orderSummary.setState(State.ACCEPTED);
-                                    orderWriteRepository.save(orderSummary);
-                                    return orderMapper.map(orderSummary);
-                                })
-                )
-                .orElseThrow(() -> new OrderNotFound(String.format("Can't update order which is not exist for number: %s and version %d", orderNumber, versionNumber)));
+        return inTransaction(() -> orderReadRepository.findByOrderNumberAndVersion(orderNumber, versionNumber)
+                        .map(orderSummary -> {
+                            if (orderSummary.getState() != State.DRAFT) {
+                                throw new ValidationException(String.format("Incorrect state: %s of order: %s version: %d", orderSummary.getState(), orderNumber, versionNumber));
+                            }
+                            return orderSummary;
+                        })
+                        .orElseThrow(() -> new OrderNotFound(String.format("Can't update order which is not exist for number: %s and version %d", orderNumber, versionNumber))))
+                .flatMap(orderSummary -> productService.reserveItems(orderSummary.getOrderNumber(), orderSummary.getOrderLineItemsList())
+                        .onErrorResume(exception -> {
+                            log.error("Reserve items fail", exception);
+                            return saveState(orderSummary, State.INVALID)
+                                    .then(Mono.error(exception));
+                        })
+                        .flatMap(result -> {
+                            log.info("Response of reserve items: " + result);
+                            return saveState(orderSummary, State.ACCEPTED);
+                        }));
     }
 
     @Override
-    public OrderResponse updateOrder(OrderRequest orderRequest, String orderNumber, Integer versionNumber) {
-        return orderReadRepository.findByOrderNumberAndVersion(orderNumber, versionNumber)
+    public Mono<OrderResponse> updateOrder(OrderRequest orderRequest, String orderNumber, Integer versionNumber) {
+        return inTransaction(() -> orderReadRepository.findByOrderNumberAndVersion(orderNumber, versionNumber)
                 .map(orderSummary -> {
-                    orderSummary.setOrderLineItemsList(orderMapper.mapItems(orderRequest.getOrderItems()));
+                    orderSummary.getOrderLineItemsList().clear();
+                    orderSummary.getOrderLineItemsList().addAll(orderMapper.mapItems(orderRequest.getOrderItems()));
                     orderSummary.setAddress(orderMapper.mapAddress(orderRequest.getAddress()));
                     return orderMapper.map(orderWriteRepository.save(orderSummary));
                 })
-                .orElseThrow(() -> new OrderNotFound(String.format("Can't update order which is not exist for number: %s and version %d", orderNumber, versionNumber)));
+                .orElseThrow(() -> new OrderNotFound(String.format("Can't update order which is not exist for number: %s and version %d", orderNumber, versionNumber))))
+                .doOnNext(orderResponseCache::put);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public OrderResponse getOrderByOrderNumber(String orderNumber, Integer versionNumber) {
-        return orderReadRepository.findByOrderNumberAndVersion(orderNumber, versionNumber)
-                .map(orderMapper::map)
-                .orElseThrow(() -> new OrderNotFound(String.format("Order which number: %s and version %d not exist", orderNumber, versionNumber)));
+    public Mono<OrderResponse> getOrderByOrderNumber(String orderNumber, Integer versionNumber) {
+        return orderResponseCache.get(orderNumber, versionNumber, () -> inReadOnlyTransaction(() ->
+                orderReadRepository.findByOrderNumberAndVersion(orderNumber, versionNumber)
+                        .map(orderMapper::map)
+                        .orElseThrow(() -> new OrderNotFound(String.format("Order which number: %s and version %d not exist", orderNumber, versionNumber)))));
     }
 
     @Override
-    public void deleteOrderByOrderNumber(String orderNumber) {
-        orderReadRepository.findByOrderNumber(orderNumber)
-                .ifPresentOrElse(orderWriteRepository::delete, () -> {
-                    throw new OrderNotFound("Order which number: " + orderNumber + " not exist, so can't be deleted");
-                });
+    public Mono<Void> deleteOrderByOrderNumber(String orderNumber) {
+        return inTransaction(() -> {
+            orderReadRepository.findByOrderNumber(orderNumber)
+                    .ifPresentOrElse(orderWriteRepository::delete, () -> {
+                        throw new OrderNotFound("Order which number: " + orderNumber + " not exist, so can't be deleted");
+                    });
+            return null;
+        }).then(Mono.fromRunnable(() -> orderResponseCache.invalidate(orderNumber)));
+    }
+
+    private Mono<OrderResponse> saveState(OrderSummary orderSummary, State state) {
+        return inTransaction(() -> {
+            orderSummary.setState(state);
+            return orderMapper.map(orderWriteRepository.save(orderSummary));
+        }).doOnNext(orderResponseCache::put);
+    }
+
+    private <T> Mono<T> inTransaction(Supplier<T> work) {
+        return execute(transactionTemplate, work);
+    }
+
+    private <T> Mono<T> inReadOnlyTransaction(Supplier<T> work) {
+        TransactionTemplate readOnlyTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager(), transactionTemplate);
+        readOnlyTemplate.setReadOnly(true);
+        return execute(readOnlyTemplate, work);
+    }
+
+    private <T> Mono<T> execute(TransactionTemplate template, Supplier<T> work) {
+        return Mono.fromCallable(() -> template.execute(status -> work.get()))
+                .subscribeOn(Schedulers.boundedElastic());
     }
 }
@@ -0,0 +1,109 @@
+package com.serkowski.orderservice.service.impl;
+
+import com.serkowski.orderservice.cache.OrderResponseCache;
+import com.serkowski.orderservice.dto.request.OrderRequest;
+import com.serkowski.orderservice.dto.response.OrderResponse;
+import com.serkowski.orderservice.model.Address;
+import com.serkowski.orderservice.model.OrderSummary;
+import com.serkowski.orderservice.model.State;
+import com.serkowski.orderservice.model.error.OrderNotFound;
+import com.serkowski.orderservice.model.error.ValidationException;
+import com.serkowski.orderservice.repository.read.ReactiveOrderReadRepository;
+import com.serkowski.orderservice.repository.write.ReactiveOrderWriteRepository;
+import com.serkowski.orderservice.service.api.OrderMapper;
+import com.serkowski.orderservice.service.api.OrderService;
+import com.serkowski.orderservice.service.api.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Order service on R2DBC. Nothing blocks, so the amount of orders in flight is not limited by threads but by the
+ * connection pool. Order versions are cached the same way as by {@link OrderServiceImpl}.
+ */
+@Service
+@ConditionalOnProperty(name = "order.persistence", havingValue = "r2dbc")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveOrderServiceImpl implements OrderService {
+
+    private final ReactiveOrderWriteRepository orderWriteRepository;
+    private final ReactiveOrderReadRepository orderReadRepository;
+    private final OrderMapper orderMapper;
+    private final ProductService productService;
+    private final TransactionalOperator transactionalOperator;
+    private final OrderResponseCache orderResponseCache;
+
+    @Override
+    public Mono<OrderResponse> placeOrderDraft(OrderRequest orderRequest) {
+        return Mono.fromSupplier(() -> orderMapper.map(orderRequest, State.DRAFT))
+                .flatMap(orderWriteRepository::save)
+                .as(transactionalOperator::transactional)
+                .map(orderMapper::map)
+                .doOnNext(orderResponseCache::put);
+    }
+
+    @Override
+    public Mono<OrderResponse> acceptOrder(String orderNumber, Integer versionNumber) {
+        return orderReadRepository.findByOrderNumberAndVersion(orderNumber, versionNumber)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFound(String.format("Can't update order which is not exist for number: %s and version %d", orderNumber, versionNumber))))
+                .flatMap(orderSummary -> {
+                    if (orderSummary.getState() != State.DRAFT) {
+                        return Mono.error(new ValidationException(String.format("Incorrect state: %s of order: %s version: %d", orderSummary.getState(), orderNumber, versionNumber)));
+                    }
+                    return productService.reserveItems(orderSummary.getOrderNumber(), orderSummary.getOrderLineItemsList())
+                            .onErrorResume(exception -> {
+                                log.error("Reserve items fail", exception);
+                                return saveState(orderSummary, State.INVALID)
+                                        .then(Mono.error(exception));
+                            })
+                            .flatMap(result -> {
+                                log.info("Response of reserve items: " + result);
+                                return saveState(orderSummary, State.ACCEPTED);
+                            });
+                });
+    }
+
+    @Override
+    public Mono<OrderResponse> updateOrder(OrderRequest orderRequest, String orderNumber, Integer versionNumber) {
+        return orderReadRepository.findByOrderNumberAndVersion(orderNumber, versionNumber)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFound(String.format("Can't update order which is not exist for number: %s and version %d", orderNumber, versionNumber))))
+                .flatMap(orderSummary -> {
+                    orderSummary.setOrderLineItemsList(orderMapper.mapItems(orderRequest.getOrderItems()));
+                    Address address = orderMapper.mapAddress(orderRequest.getAddress());
+                    address.setId(orderSummary.getAddress().getId());
+                    orderSummary.setAddress(address);
+                    return orderWriteRepository.save(orderSummary);
+                })
+                .as(transactionalOperator::transactional)
+                .map(orderMapper::map)
+                .doOnNext(orderResponseCache::put);
+    }
+
+    @Override
+    public Mono<OrderResponse> getOrderByOrderNumber(String orderNumber, Integer versionNumber) {
+        return orderResponseCache.get(orderNumber, versionNumber, () -> orderReadRepository.findByOrderNumberAndVersion(orderNumber, versionNumber)
+                .map(orderMapper::map)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFound(String.format("Order which number: %s and version %d not exist", orderNumber, versionNumber)))));
+    }
+
+    @Override
+    public Mono<Void> deleteOrderByOrderNumber(String orderNumber) {
+        return orderReadRepository.findByOrderNumber(orderNumber)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFound("Order which number: " + orderNumber + " not exist, so can't be deleted")))
+                .flatMap(orderWriteRepository::delete)
+                .as(transactionalOperator::transactional)
+                .then(Mono.fromRunnable(() -> orderResponseCache.invalidate(orderNumber)));
+    }
+
+    private Mono<OrderResponse> saveState(OrderSummary orderSummary, State state) {
+        orderSummary.setState(state);
+        return orderWriteRepository.save(orderSummary)
+                .as(transactionalOperator::transactional)
+                .map(orderMapper::map)
+                .doOnNext(orderResponseCache::put);
+    }
+}
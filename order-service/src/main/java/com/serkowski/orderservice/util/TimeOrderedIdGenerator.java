@@ -0,0 +1,28 @@
+package com.serkowski.orderservice.util;
+
+import org.springframework.util.IdGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates version 7 UUIDs: 48 bits of the unix time in milliseconds followed by random bits. Numbers of new orders
+ * grow with time, also in their string form, so inserts land at the right edge of the order number index instead of
+ * random pages. Random bits come from a per thread generator, so concurrent callers don't wait for each other like on
+ * the shared {@code SecureRandom} of {@link UUID#randomUUID()}. Numbers are unique, not unguessable. Another
+ * {@link IdGenerator} bean can be provided to replace it, as it's only registered when there is none.
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_B_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    @Override
+    public UUID generateId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (System.currentTimeMillis() << 16) | VERSION | (random.nextInt() & 0x0FFF);
+        long leastSigBits = VARIANT | (random.nextLong() & RANDOM_B_MASK);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,33 @@
+-- Schema as generated by Hibernate with identity ids, before it was managed by migrations. Existing databases are
+-- baselined at this version, new ones are created by it and migrated further like the existing ones.
+
+create table order_address
+(
+    id            bigint generated by default as identity primary key,
+    address_line1 varchar(255),
+    address_line2 varchar(255),
+    city          varchar(255),
+    country       varchar(255)
+);
+
+create table order_item
+(
+    id       bigint generated by default as identity primary key,
+    count    integer not null,
+    item_ref varchar(255)
+);
+
+create table order_summary
+(
+    id           bigint generated by default as identity primary key,
+    order_number varchar(255),
+    address_id   bigint unique references order_address (id),
+    state        smallint check (state between 0 and 3),
+    version      integer
+);
+
+create table order_summary_order_line_items_list
+(
+    order_summary_id         bigint not null references order_summary (id),
+    order_line_items_list_id bigint not null unique references order_item (id)
+);
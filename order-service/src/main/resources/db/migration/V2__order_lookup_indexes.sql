@@ -0,0 +1,34 @@
+-- Ids come from the sequences only, which start after the ids given by the identity columns. The sequences exist
+-- already in databases where Hibernate created them next to the identity columns.
+create sequence if not exists order_address_seq start with 1 increment by 50;
+create sequence if not exists order_item_seq start with 1 increment by 50;
+create sequence if not exists order_summary_seq start with 1 increment by 50;
+
+alter table order_address alter column id drop identity if exists;
+alter table order_item alter column id drop identity if exists;
+alter table order_summary alter column id drop identity if exists;
+
+select setval('order_address_seq', coalesce(max(id), 0) + 1, false) from order_address;
+select setval('order_item_seq', coalesce(max(id), 0) + 1, false) from order_item;
+select setval('order_summary_seq', coalesce(max(id), 0) + 1, false) from order_summary;
+
+-- Orders are looked up by number and version, or by number alone through the leading column.
+alter table order_summary
+    alter column order_number set not null,
+    alter column version set not null;
+create unique index order_summary_order_number_version on order_summary (order_number, version);
+
+-- Items reference their order directly instead of through a join table. Items not joined to any order were left
+-- behind by replaced item lists.
+alter table order_item add column order_summary_id bigint;
+update order_item i
+set order_summary_id = l.order_summary_id
+from order_summary_order_line_items_list l
+where l.order_line_items_list_id = i.id;
+delete from order_item where order_summary_id is null;
+alter table order_item
+    alter column order_summary_id set not null,
+    add constraint order_item_order_summary_fk foreign key (order_summary_id) references order_summary (id);
+create index order_item_order_summary_id on order_item (order_summary_id);
+
+drop table order_summary_order_line_items_list;
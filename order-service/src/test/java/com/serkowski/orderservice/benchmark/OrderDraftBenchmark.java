@@ -0,0 +1,110 @@
+package com.serkowski.orderservice.benchmark;
+
+import com.serkowski.orderservice.OrderServiceApplication;
+import com.serkowski.orderservice.dto.request.AddressRequestDto;
+import com.serkowski.orderservice.dto.request.OrderItemRequestDto;
+import com.serkowski.orderservice.dto.request.OrderRequest;
+import com.serkowski.orderservice.dto.response.OrderResponse;
+import com.serkowski.orderservice.service.api.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of placing an order draft through JPA by its number of lines. A batch size of 1 sends every insert on its
+ * own, as before ids came from sequences; for the numbers of the identity ids build this benchmark on the previous
+ * revision. Statements prepared for a single draft are printed once per trial. Run with
+ * {@code mvn -P benchmark verify}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderDraftBenchmark {
+
+    @Param({"1", "10", "100"})
+    int lines;
+
+    @Param({"1", "50"})
+    String batchSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRequest orderRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "server.port=0",
+                        "eureka.client.enabled=false",
+                        "spring.cloud.discovery.enabled=false",
+                        "management.tracing.enabled=false")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        orderRequest = orderRequest();
+
+        Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        placeOrderDraft();
+        statistics.clear();
+        placeOrderDraft();
+        System.out.printf("%nStatements prepared for a draft with %d lines and batch size %s: %d%n", lines, batchSize,
+                statistics.getPrepareStatementCount());
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Benchmark
+    public OrderResponse placeOrderDraft() {
+        return orderService.placeOrderDraft(orderRequest).block();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    private OrderRequest orderRequest() {
+        List<OrderItemRequestDto> orderItems = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            OrderItemRequestDto orderItemRequestDto = new OrderItemRequestDto();
+            orderItemRequestDto.setCount(1);
+            orderItemRequestDto.setItemRef("ref" + i);
+            orderItems.add(orderItemRequestDto);
+        }
+        AddressRequestDto addressRequestDto = new AddressRequestDto();
+        addressRequestDto.setAddressLine1("line1");
+        addressRequestDto.setAddressLine2("line2");
+        addressRequestDto.setCity("city");
+        addressRequestDto.setCountry("country");
+
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setOrderItems(orderItems);
+        orderRequest.setAddress(addressRequestDto);
+        return orderRequest;
+    }
+}
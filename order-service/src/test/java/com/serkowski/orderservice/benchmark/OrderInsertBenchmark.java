@@ -0,0 +1,87 @@
+package com.serkowski.orderservice.benchmark;
+
+import com.serkowski.orderservice.util.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.util.IdGenerator;
+import org.springframework.util.JdkIdGenerator;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput of orders numbered by random and by time-ordered ids into a table with a unique order number
+ * index. The table is filled first, so random numbers hit pages all over an index bigger than the shared buffers. The
+ * size of the index is printed at the end of a trial. Run with {@code mvn -P benchmark verify}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderInsertBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"random", "time-ordered"})
+    String generator;
+
+    @Param({"1000000"})
+    int preloaded;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private PreparedStatement insert;
+    private IdGenerator idGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table order_summary (id bigserial primary key, order_number varchar(255) not null, state smallint)");
+            statement.execute("create unique index order_summary_order_number on order_summary (order_number)");
+        }
+        idGenerator = "random".equals(generator) ? new JdkIdGenerator() : new TimeOrderedIdGenerator();
+        insert = connection.prepareStatement("insert into order_summary (order_number, state) values (?, 0)");
+        for (int i = 0; i < preloaded / BATCH; i++) {
+            insertOrders();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertOrders() throws SQLException {
+        for (int i = 0; i < BATCH; i++) {
+            insert.setString(1, idGenerator.generateId().toString());
+            insert.addBatch();
+        }
+        insert.executeBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet size = statement.executeQuery("select pg_relation_size('order_summary_order_number')")) {
+            if (size.next()) {
+                System.out.printf("%nOrder number index size with %s ids: %d bytes%n", generator, size.getLong(1));
+            }
+        }
+        connection.close();
+        postgres.stop();
+    }
+}
@@ -0,0 +1,40 @@
+package com.serkowski.orderservice.benchmark;
+
+import com.serkowski.orderservice.controller.OrderController;
+import com.serkowski.orderservice.controller.OrderLinkFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.hateoas.Link;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Cost of an order self link built by the link builder against the precomputed link factory. Run with
+ * {@code mvn -P benchmark verify}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderLinkBenchmark {
+
+    private final OrderLinkFactory orderLinkFactory = new OrderLinkFactory();
+    private final String orderNumber = UUID.randomUUID().toString();
+    private final Integer versionNumber = 3;
+
+    @Benchmark
+    public Link linkBuilder() {
+        return linkTo(OrderController.class).slash(orderNumber).slash(versionNumber).withSelfRel();
+    }
+
+    @Benchmark
+    public Link linkFactory() {
+        return orderLinkFactory.orderSelf(orderNumber, versionNumber);
+    }
+}
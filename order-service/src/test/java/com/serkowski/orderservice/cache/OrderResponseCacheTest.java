@@ -0,0 +1,102 @@
+package com.serkowski.orderservice.cache;
+
+import com.serkowski.orderservice.config.OrderCacheProperties;
+import com.serkowski.orderservice.dto.response.OrderResponse;
+import com.serkowski.orderservice.model.error.OrderNotFound;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderResponseCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void shouldLoadOrderVersionOnlyOnceUntilInvalidated() {
+        OrderResponseCache orderResponseCache = new OrderResponseCache(new OrderCacheProperties(), meterRegistry);
+
+        orderResponseCache.get("123", 0, () -> load("123", 0)).block();
+        orderResponseCache.get("123", 0, () -> load("123", 0)).block();
+        orderResponseCache.invalidate("123");
+        orderResponseCache.get("123", 0, () -> load("123", 0)).block();
+
+        assertAll(
+                "Assert cache usage",
+                () -> assertEquals(2, loads.get()),
+                () -> assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "order").tag("result", "hit").functionCounter().count()),
+                () -> assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "order").tag("result", "miss").functionCounter().count())
+        );
+    }
+
+    @Test
+    void shouldServeWrittenVersionAndDropPreviousOne() {
+        OrderResponseCache orderResponseCache = new OrderResponseCache(new OrderCacheProperties(), meterRegistry);
+        orderResponseCache.put(OrderResponse.builder().orderNumber("123").version(0).build());
+
+        orderResponseCache.put(OrderResponse.builder().orderNumber("123").version(1).state("ACCEPTED").build());
+
+        StepVerifier.create(orderResponseCache.get("123", 1, () -> load("123", 1)))
+                .assertNext(order -> assertEquals("ACCEPTED", order.getState()))
+                .verifyComplete();
+        StepVerifier.create(orderResponseCache.get("123", 0, () -> load("123", 0)))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldReturnCopyOfCachedOrder() {
+        OrderResponseCache orderResponseCache = new OrderResponseCache(new OrderCacheProperties(), meterRegistry);
+
+        OrderResponse first = orderResponseCache.get("123", 0, () -> load("123", 0)).block();
+        assertNotNull(first);
+        first.add(Link.of("/api/order/123/0"));
+
+        StepVerifier.create(orderResponseCache.get("123", 0, () -> load("123", 0)))
+                .assertNext(second -> assertTrue(second.getLinks().isEmpty()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotCacheMissingOrder() {
+        OrderResponseCache orderResponseCache = new OrderResponseCache(new OrderCacheProperties(), meterRegistry);
+
+        StepVerifier.create(orderResponseCache.get("123", 0, () -> Mono.error(new OrderNotFound("Order not found"))))
+                .expectError(OrderNotFound.class)
+                .verify();
+        StepVerifier.create(orderResponseCache.get("123", 0, () -> load("123", 0)))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldLoadEveryTimeWhenDisabled() {
+        OrderCacheProperties orderCacheProperties = new OrderCacheProperties();
+        orderCacheProperties.setEnabled(false);
+        OrderResponseCache orderResponseCache = new OrderResponseCache(orderCacheProperties, meterRegistry);
+
+        orderResponseCache.put(OrderResponse.builder().orderNumber("123").version(0).build());
+        orderResponseCache.get("123", 0, () -> load("123", 0)).block();
+        orderResponseCache.get("123", 0, () -> load("123", 0)).block();
+
+        assertEquals(2, loads.get());
+    }
+
+    private Mono<OrderResponse> load(String orderNumber, Integer version) {
+        return Mono.fromCallable(() -> {
+            loads.incrementAndGet();
+            return OrderResponse.builder()
+                    .orderNumber(orderNumber)
+                    .version(version)
+                    .state("DRAFT")
+                    .build();
+        });
+    }
+}
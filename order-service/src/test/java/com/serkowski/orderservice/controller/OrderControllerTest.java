@@ -23,11 +23,10 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(OrderController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, OrderLinkFactory.class})
 class OrderControllerTest {
 
     @Autowired
@@ -128,7 +127,7 @@ class OrderControllerTest {
         orderRequest.setOrderItems(mapOrderItems());
         orderRequest.setAddress(mapAddress());
 
-        when(orderService.updateOrder(eq(orderRequest), eq("123"), eq(1))).thenReturn(OrderResponse.builder().build());
+        when(orderService.updateOrder(eq(orderRequest), eq("123"), eq(1))).thenReturn(Mono.just(OrderResponse.builder().build()));
 
         webTestClient.put().uri("/api/order/draft/123/1")
                 .body(BodyInserters.fromValue(orderRequest))
@@ -145,7 +144,7 @@ class OrderControllerTest {
         orderRequest.setOrderItems(mapOrderItems());
         orderRequest.setAddress(mapAddress());
 
-        when(orderService.updateOrder(eq(orderRequest), eq("123"), eq(1))).thenThrow(OrderNotFound.class);
+        when(orderService.updateOrder(eq(orderRequest), eq("123"), eq(1))).thenReturn(Mono.error(new OrderNotFound("Order not found")));
 
         webTestClient.put().uri("/api/order/draft/123/1")
                 .body(BodyInserters.fromValue(orderRequest))
@@ -158,7 +157,7 @@ class OrderControllerTest {
 
     @Test
     void shouldGetOrder() {
-        when(orderService.getOrderByOrderNumber(eq("123"), eq(1))).thenReturn(OrderResponse.builder().build());
+        when(orderService.getOrderByOrderNumber(eq("123"), eq(1))).thenReturn(Mono.just(OrderResponse.builder().build()));
 
         webTestClient.get().uri("/api/order/123/1")
                 .headers(headers -> headers.setBasicAuth("user", "password"))
@@ -170,7 +169,7 @@ class OrderControllerTest {
 
     @Test
     void shouldNotGetOrderBecauseOfWrongOrderNumber() {
-        when(orderService.getOrderByOrderNumber(eq("123"), eq(1))).thenThrow(OrderNotFound.class);
+        when(orderService.getOrderByOrderNumber(eq("123"), eq(1))).thenReturn(Mono.error(new OrderNotFound("Order not found")));
 
         webTestClient.get().uri("/api/order/123/1")
                 .headers(headers -> headers.setBasicAuth("user", "password"))
@@ -182,6 +181,8 @@ class OrderControllerTest {
 
     @Test
     void shouldDeleteOrder() {
+        when(orderService.deleteOrderByOrderNumber(eq("123"))).thenReturn(Mono.empty());
+
         webTestClient.delete().uri("/api/order/123")
                 .headers(headers -> headers.setBasicAuth("user", "password"))
                 .accept(MediaType.APPLICATION_JSON)
@@ -191,7 +192,7 @@ class OrderControllerTest {
 
     @Test
     void shouldNotDeleteOrderBecauseOfWrongOrderNumber() {
-        doThrow(OrderNotFound.class).when(orderService).deleteOrderByOrderNumber(eq("123"));
+        when(orderService.deleteOrderByOrderNumber(eq("123"))).thenReturn(Mono.error(new OrderNotFound("Order not found")));
 
         webTestClient.delete().uri("/api/order/123")
                 .headers(headers -> headers.setBasicAuth("user", "password"))
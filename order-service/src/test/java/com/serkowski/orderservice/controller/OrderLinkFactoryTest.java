@@ -0,0 +1,24 @@
+package com.serkowski.orderservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+class OrderLinkFactoryTest {
+
+    private final OrderLinkFactory orderLinkFactory = new OrderLinkFactory();
+
+    @Test
+    void shouldRenderSameOrderLinkAsLinkBuilder() {
+        Link link = orderLinkFactory.orderSelf("order1", 2);
+
+        assertAll(
+                "Assert order link",
+                () -> assertEquals(linkTo(OrderController.class).slash("order1").slash(2).withSelfRel(), link),
+                () -> assertEquals("/api/order/order1/2", link.getHref())
+        );
+    }
+}
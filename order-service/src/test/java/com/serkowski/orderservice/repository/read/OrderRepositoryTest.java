@@ -1,5 +1,7 @@
 package com.serkowski.orderservice.repository.read;
 
+import com.serkowski.orderservice.cache.OrderResponseCache;
+import com.serkowski.orderservice.config.OrderCacheProperties;
 import com.serkowski.orderservice.dto.request.AddressRequestDto;
 import com.serkowski.orderservice.dto.request.OrderItemRequestDto;
 import com.serkowski.orderservice.dto.request.OrderRequest;
@@ -11,7 +13,11 @@ import com.serkowski.orderservice.service.api.OrderMapper;
 import com.serkowski.orderservice.service.api.OrderService;
 import com.serkowski.orderservice.service.api.ProductService;
 import com.serkowski.orderservice.service.impl.OrderServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.validation.ValidationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -21,7 +27,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -29,13 +35,14 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ExtendWith(SpringExtension.class)
 @ImportAutoConfiguration
 @Testcontainers
@@ -55,12 +62,17 @@ class OrderRepositoryTest {
     private OrderReadRepository orderReadRepository;
     @Autowired
     private OrderMapper orderMapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
     @Mock
     private ProductService productService;
 
     @DynamicPropertySource
     static void mongoDbProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgres.getHost() + ":" + postgres.getFirstMappedPort() + "/order-service");
     }
 
     @BeforeAll
@@ -75,7 +87,8 @@ class OrderRepositoryTest {
 
     @BeforeEach
     void init() {
-        orderService = new OrderServiceImpl(orderWriteRepository, orderReadRepository, orderMapper, productService);
+        orderService = new OrderServiceImpl(orderWriteRepository, orderReadRepository, orderMapper, productService, transactionTemplate,
+                new OrderResponseCache(new OrderCacheProperties(), new SimpleMeterRegistry()));
         orderWriteRepository.deleteAll();
     }
 
@@ -95,7 +108,6 @@ class OrderRepositoryTest {
     }
 
     @Test
-    @Transactional
     void shouldAcceptOrder() {
         OrderRequest orderRequest = new OrderRequest();
         orderRequest.setOrderItems(orderItems());
@@ -136,7 +148,9 @@ class OrderRepositoryTest {
         OrderSummary save = orderWriteRepository.save(orderMapper.map(orderRequest, State.DRAFT));
         orderRequest.getAddress().setCity("city2");
 
-        orderService.updateOrder(orderRequest, save.getOrderNumber(), 0);
+        StepVerifier.create(orderService.updateOrder(orderRequest, save.getOrderNumber(), 0))
+                .expectNextCount(1)
+                .verifyComplete();
 
         orderReadRepository.findByOrderNumber(save.getOrderNumber()).ifPresent(orderSummary -> assertEquals("city2", orderSummary.getAddress().getCity()));
     }
@@ -147,10 +161,34 @@ class OrderRepositoryTest {
         orderRequest.setOrderItems(orderItems());
         orderRequest.setAddress(address());
 
-        OrderNotFound exception = assertThrows(OrderNotFound.class, () ->
-                orderService.updateOrder(orderRequest, "testNumber123", 0)
-        );
-        assertEquals("Can't update order which is not exist for number: testNumber123 and version 0", exception.getMessage());
+        StepVerifier.create(orderService.updateOrder(orderRequest, "testNumber123", 0))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(OrderNotFound.class, exception.getClass());
+                    assertEquals("Can't update order which is not exist for number: testNumber123 and version 0", exception.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    void shouldGetOrderInOneStatementRegardlessOfItems() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int items : List.of(1, 20)) {
+            OrderRequest orderRequest = new OrderRequest();
+            orderRequest.setOrderItems(orderItems(items));
+            orderRequest.setAddress(address());
+            OrderSummary save = orderWriteRepository.save(orderMapper.map(orderRequest, State.DRAFT));
+            statistics.clear();
+
+            StepVerifier.create(orderService.getOrderByOrderNumber(save.getOrderNumber(), save.getVersion()))
+                    .assertNext(order -> assertEquals(items, order.getOrderItems().size()))
+                    .verifyComplete();
+
+            assertAll(
+                    "Assert statements of order with " + items + " items",
+                    () -> assertEquals(1, statistics.getPrepareStatementCount()),
+                    () -> assertEquals(0, statistics.getCollectionFetchCount())
+            );
+        }
     }
 
     @Test
@@ -160,7 +198,8 @@ class OrderRepositoryTest {
         orderRequest.setAddress(address());
         OrderSummary save = orderWriteRepository.save(orderMapper.map(orderRequest, State.DRAFT));
 
-        orderService.deleteOrderByOrderNumber(save.getOrderNumber());
+        StepVerifier.create(orderService.deleteOrderByOrderNumber(save.getOrderNumber()))
+                .verifyComplete();
 
         assertEquals(0, orderReadRepository.findAll().size());
     }
@@ -172,6 +211,15 @@ class OrderRepositoryTest {
         return List.of(orderItemRequestDto);
     }
 
+    private List<OrderItemRequestDto> orderItems(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            OrderItemRequestDto orderItemRequestDto = new OrderItemRequestDto();
+            orderItemRequestDto.setCount(1);
+            orderItemRequestDto.setItemRef("ref" + i);
+            return orderItemRequestDto;
+        }).toList();
+    }
+
     private AddressRequestDto address() {
         AddressRequestDto addressRequestDto = new AddressRequestDto();
         addressRequestDto.setAddressLine1("test");
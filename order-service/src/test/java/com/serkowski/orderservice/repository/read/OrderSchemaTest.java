@@ -0,0 +1,150 @@
+package com.serkowski.orderservice.repository.read;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+class OrderSchemaTest {
+
+    private static final int ORDERS = 10_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("order-service")
+            .withUsername("serkowski")
+            .withPassword("password");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgres.getHost() + ":" + postgres.getFirstMappedPort() + "/order-service");
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @BeforeEach
+    void init() {
+        jdbcTemplate.execute("TRUNCATE order_item, order_summary, order_address");
+        jdbcTemplate.update("INSERT INTO order_summary (id, order_number, state, version) " +
+                "SELECT n, 'number' || n, 0, n % 3 FROM generate_series(1, ?) n", ORDERS);
+        jdbcTemplate.update("INSERT INTO order_item (id, order_summary_id, count, item_ref) " +
+                "SELECT n, n % ? + 1, 1, 'ref' || n FROM generate_series(1, ?) n", ORDERS, ORDERS * 5);
+        jdbcTemplate.execute("ANALYZE order_summary, order_item");
+    }
+
+    @Test
+    void shouldFindOrderByNumberAndVersionThroughIndex() {
+        assertIndexScan("order_summary_order_number_version",
+                "SELECT * FROM order_summary WHERE order_number = 'number42' AND version = 0");
+    }
+
+    @Test
+    void shouldFindOrderByNumberThroughIndex() {
+        assertIndexScan("order_summary_order_number_version",
+                "SELECT * FROM order_summary WHERE order_number = 'number42'");
+    }
+
+    @Test
+    void shouldFindItemsOfOrderThroughIndex() {
+        assertIndexScan("order_item_order_summary_id",
+                "SELECT * FROM order_item WHERE order_summary_id = 42");
+    }
+
+    @Test
+    void shouldRejectDuplicatedVersionOfOrder() {
+        assertThrows(Exception.class, () -> jdbcTemplate.update(
+                "INSERT INTO order_summary (id, order_number, state, version) VALUES (?, 'number42', 0, 0)", ORDERS + 1));
+    }
+
+    @Test
+    void shouldMigrateItemsOfBaselineSchema() {
+        Flyway.configure().dataSource(dataSource).schemas("legacy").target("1").load().migrate();
+        jdbcTemplate.execute("INSERT INTO legacy.order_summary (order_number, state, version) VALUES ('number1', 0, 0)");
+        jdbcTemplate.execute("INSERT INTO legacy.order_item (count, item_ref) VALUES (1, 'ref1'), (1, 'replaced')");
+        jdbcTemplate.execute("INSERT INTO legacy.order_summary_order_line_items_list (order_summary_id, order_line_items_list_id) " +
+                "SELECT s.id, i.id FROM legacy.order_summary s, legacy.order_item i WHERE i.item_ref = 'ref1'");
+
+        Flyway.configure().dataSource(dataSource).schemas("legacy").load().migrate();
+
+        Long orderId = jdbcTemplate.queryForObject("SELECT id FROM legacy.order_summary", Long.class);
+        assertAll(
+                "Assert migrated items",
+                () -> assertEquals(orderId, jdbcTemplate.queryForObject("SELECT order_summary_id FROM legacy.order_item WHERE item_ref = 'ref1'", Long.class)),
+                () -> assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM legacy.order_item", Integer.class)),
+                () -> assertTrue(jdbcTemplate.queryForObject("SELECT nextval('legacy.order_summary_seq')", Long.class) > orderId)
+        );
+    }
+
+    @Test
+    void shouldBaselineAndMigrateSchemaWithIdentityIds() {
+        jdbcTemplate.execute("""
+                CREATE SCHEMA identity_ids;
+                CREATE TABLE identity_ids.order_address (id bigint GENERATED BY DEFAULT AS IDENTITY, address_line1 varchar(255),
+                    address_line2 varchar(255), city varchar(255), country varchar(255), PRIMARY KEY (id));
+                CREATE TABLE identity_ids.order_item (count integer NOT NULL, id bigint GENERATED BY DEFAULT AS IDENTITY,
+                    item_ref varchar(255), PRIMARY KEY (id));
+                CREATE TABLE identity_ids.order_summary (state smallint CHECK (state BETWEEN 0 AND 3), version integer,
+                    address_id bigint UNIQUE REFERENCES identity_ids.order_address, id bigint GENERATED BY DEFAULT AS IDENTITY,
+                    order_number varchar(255), PRIMARY KEY (id));
+                CREATE TABLE identity_ids.order_summary_order_line_items_list (order_line_items_list_id bigint NOT NULL UNIQUE
+                    REFERENCES identity_ids.order_item, order_summary_id bigint NOT NULL REFERENCES identity_ids.order_summary);
+                INSERT INTO identity_ids.order_address (city) VALUES ('city');
+                INSERT INTO identity_ids.order_summary (order_number, address_id, state, version)
+                    SELECT 'number1', id, 0, 0 FROM identity_ids.order_address;
+                INSERT INTO identity_ids.order_item (count, item_ref) VALUES (1, 'ref1'), (1, 'ref2');
+                INSERT INTO identity_ids.order_summary_order_line_items_list (order_summary_id, order_line_items_list_id)
+                    SELECT s.id, i.id FROM identity_ids.order_summary s, identity_ids.order_item i;
+                """);
+
+        Flyway.configure().dataSource(dataSource).schemas("identity_ids").baselineOnMigrate(true).load().migrate();
+
+        Long orderId = jdbcTemplate.queryForObject("SELECT id FROM identity_ids.order_summary", Long.class);
+        assertAll(
+                "Assert migrated schema",
+                () -> assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM identity_ids.order_item WHERE order_summary_id = ?", Integer.class, orderId)),
+                () -> assertEquals(3L, jdbcTemplate.queryForObject("SELECT nextval('identity_ids.order_item_seq')", Long.class)),
+                () -> assertEquals(2L, jdbcTemplate.queryForObject("SELECT nextval('identity_ids.order_address_seq')", Long.class)),
+                () -> assertEquals(orderId + 1, jdbcTemplate.queryForObject("SELECT nextval('identity_ids.order_summary_seq')", Long.class)),
+                () -> assertEquals("NO", jdbcTemplate.queryForObject("SELECT is_identity FROM information_schema.columns " +
+                        "WHERE table_schema = 'identity_ids' AND table_name = 'order_item' AND column_name = 'id'", String.class))
+        );
+    }
+
+    private void assertIndexScan(String index, String query) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+        assertAll(
+                "Assert query plan:\n" + plan,
+                () -> assertTrue(plan.contains(index)),
+                () -> assertFalse(plan.contains("Seq Scan"))
+        );
+    }
+}
@@ -0,0 +1,233 @@
+package com.serkowski.orderservice.repository.read;
+
+import com.serkowski.orderservice.cache.OrderResponseCache;
+import com.serkowski.orderservice.config.OrderCacheProperties;
+import com.serkowski.orderservice.dto.request.AddressRequestDto;
+import com.serkowski.orderservice.dto.request.OrderItemRequestDto;
+import com.serkowski.orderservice.dto.request.OrderRequest;
+import com.serkowski.orderservice.dto.response.OrderItemResponseDto;
+import com.serkowski.orderservice.dto.response.OrderResponse;
+import com.serkowski.orderservice.model.OrderSummary;
+import com.serkowski.orderservice.model.State;
+import com.serkowski.orderservice.model.error.OrderNotFound;
+import com.serkowski.orderservice.repository.write.OrderWriteRepository;
+import com.serkowski.orderservice.repository.write.ReactiveOrderWriteRepository;
+import com.serkowski.orderservice.service.api.OrderMapper;
+import com.serkowski.orderservice.service.api.OrderService;
+import com.serkowski.orderservice.service.api.ProductService;
+import com.serkowski.orderservice.service.impl.ReactiveOrderServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "order.persistence=r2dbc")
+@Testcontainers
+class ReactiveOrderRepositoryTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("order-service")
+            .withUsername("serkowski")
+            .withPassword("password");
+
+    private OrderService orderService;
+
+    @Autowired
+    private ReactiveOrderReadRepository reactiveOrderReadRepository;
+    @Autowired
+    private ReactiveOrderWriteRepository reactiveOrderWriteRepository;
+    @Autowired
+    private OrderReadRepository orderReadRepository;
+    @Autowired
+    private OrderWriteRepository orderWriteRepository;
+    @Autowired
+    private OrderMapper orderMapper;
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+    @Autowired
+    private DatabaseClient databaseClient;
+    @Mock
+    private ProductService productService;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgres.getHost() + ":" + postgres.getFirstMappedPort() + "/order-service");
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @BeforeEach
+    void init() {
+        orderService = new ReactiveOrderServiceImpl(reactiveOrderWriteRepository, reactiveOrderReadRepository, orderMapper, productService,
+                transactionalOperator, new OrderResponseCache(new OrderCacheProperties(), new SimpleMeterRegistry()));
+        orderWriteRepository.deleteAll();
+    }
+
+    @Test
+    void shouldPlaceOrderReadableByBothImplementations() {
+        OrderResponse placed = orderService.placeOrderDraft(orderRequest("city", "ref1")).block();
+        assertNotNull(placed);
+
+        StepVerifier.create(orderService.getOrderByOrderNumber(placed.getOrderNumber(), 0))
+                .assertNext(order -> assertAll(
+                        () -> assertEquals(State.DRAFT.name(), order.getState()),
+                        () -> assertEquals("city", order.getAddress().getCity()),
+                        () -> assertEquals("ref1", order.getOrderItems().get(0).getItemRef()),
+                        () -> assertNotNull(order.getOrderItems().get(0).getId())
+                ))
+                .verifyComplete();
+        assertTrue(orderReadRepository.findByOrderNumberAndVersion(placed.getOrderNumber(), 0).isPresent());
+    }
+
+    @Test
+    void shouldReadOrderWithoutAddressLikeEntityMapping() {
+        databaseClient.sql("""
+                        INSERT INTO order_summary (id, order_number, address_id, state, version)
+                        VALUES (nextval('order_summary_seq'), 'order1', NULL, 0, 0)
+                        """)
+                .then()
+                .block();
+
+        StepVerifier.create(reactiveOrderReadRepository.findByOrderNumberAndVersion("order1", 0))
+                .assertNext(order -> assertAll(
+                        () -> assertEquals("order1", order.getOrderNumber()),
+                        () -> assertNull(order.getAddress()),
+                        () -> assertTrue(order.getOrderLineItemsList().isEmpty())
+                ))
+                .verifyComplete();
+        assertNull(orderReadRepository.findByOrderNumberAndVersion("order1", 0).orElseThrow().getAddress());
+    }
+
+    @Test
+    void shouldAcceptOrderInNextVersion() {
+        OrderResponse placed = orderService.placeOrderDraft(orderRequest("city", "ref1")).block();
+        assertNotNull(placed);
+        when(productService.reserveItems(any(), any())).thenReturn(Mono.just("success"));
+
+        StepVerifier.create(orderService.acceptOrder(placed.getOrderNumber(), 0))
+                .assertNext(order -> assertAll(
+                        () -> assertEquals(State.ACCEPTED.name(), order.getState()),
+                        () -> assertEquals(1, order.getVersion())
+                ))
+                .verifyComplete();
+        StepVerifier.create(orderService.getOrderByOrderNumber(placed.getOrderNumber(), 0))
+                .expectError(OrderNotFound.class)
+                .verify();
+    }
+
+    @Test
+    void shouldMarkOrderAsInvalidBecauseOfReservationFail() {
+        OrderResponse placed = orderService.placeOrderDraft(orderRequest("city", "ref1")).block();
+        assertNotNull(placed);
+        when(productService.reserveItems(any(), any())).thenReturn(Mono.error(ValidationException::new));
+
+        StepVerifier.create(orderService.acceptOrder(placed.getOrderNumber(), 0))
+                .verifyError(ValidationException.class);
+
+        StepVerifier.create(orderService.getOrderByOrderNumber(placed.getOrderNumber(), 1))
+                .assertNext(order -> assertEquals(State.INVALID.name(), order.getState()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReplaceItemsAndAddressOnUpdate() {
+        OrderResponse placed = orderService.placeOrderDraft(orderRequest("city", "ref1")).block();
+        assertNotNull(placed);
+
+        StepVerifier.create(orderService.updateOrder(orderRequest("city2", "ref2", "ref3"), placed.getOrderNumber(), 0))
+                .assertNext(order -> assertAll(
+                        () -> assertEquals(1, order.getVersion()),
+                        () -> assertEquals("city2", order.getAddress().getCity()),
+                        () -> assertEquals(placed.getAddress().getId(), order.getAddress().getId()),
+                        () -> assertEquals(List.of("ref2", "ref3"), order.getOrderItems().stream().map(OrderItemResponseDto::getItemRef).toList())
+                ))
+                .verifyComplete();
+        StepVerifier.create(databaseClient.sql("SELECT count(*) AS items FROM order_item")
+                        .map(row -> row.get("items", Long.class))
+                        .one())
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectUpdateOfStaleVersion() {
+        OrderResponse placed = orderService.placeOrderDraft(orderRequest("city", "ref1")).block();
+        assertNotNull(placed);
+        OrderSummary first = reactiveOrderReadRepository.findByOrderNumber(placed.getOrderNumber()).block();
+        OrderSummary second = reactiveOrderReadRepository.findByOrderNumber(placed.getOrderNumber()).block();
+        assertNotNull(first);
+        assertNotNull(second);
+        first.setState(State.CANCEL);
+        second.setState(State.ACCEPTED);
+
+        StepVerifier.create(reactiveOrderWriteRepository.save(first))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(reactiveOrderWriteRepository.save(second))
+                .verifyError(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void shouldDeleteOrderByOrderNumber() {
+        OrderResponse placed = orderService.placeOrderDraft(orderRequest("city", "ref1")).block();
+        assertNotNull(placed);
+
+        StepVerifier.create(orderService.deleteOrderByOrderNumber(placed.getOrderNumber()))
+                .verifyComplete();
+
+        assertEquals(0, orderReadRepository.findAll().size());
+        StepVerifier.create(orderService.deleteOrderByOrderNumber(placed.getOrderNumber()))
+                .expectError(OrderNotFound.class)
+                .verify();
+    }
+
+    private OrderRequest orderRequest(String city, String... itemRefs) {
+        AddressRequestDto addressRequestDto = new AddressRequestDto();
+        addressRequestDto.setAddressLine1("test");
+        addressRequestDto.setAddressLine2("test2");
+        addressRequestDto.setCity(city);
+        addressRequestDto.setCountry("country");
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setAddress(addressRequestDto);
+        orderRequest.setOrderItems(List.of(itemRefs).stream()
+                .map(itemRef -> {
+                    OrderItemRequestDto orderItemRequestDto = new OrderItemRequestDto();
+                    orderItemRequestDto.setCount(1);
+                    orderItemRequestDto.setItemRef(itemRef);
+                    return orderItemRequestDto;
+                })
+                .toList());
+        return orderRequest;
+    }
+}
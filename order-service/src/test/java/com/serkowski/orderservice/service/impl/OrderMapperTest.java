@@ -9,6 +9,7 @@ import com.serkowski.orderservice.model.OrderItem;
 import com.serkowski.orderservice.model.OrderSummary;
 import com.serkowski.orderservice.model.State;
 import com.serkowski.orderservice.service.api.OrderMapper;
+import com.serkowski.orderservice.util.TimeOrderedIdGenerator;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -18,7 +19,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class OrderMapperTest {
 
-    private final OrderMapper orderMapper = new OrderMapperImpl();
+    private final OrderMapper orderMapper = new OrderMapperImpl(new TimeOrderedIdGenerator());
 
 
     @Test
@@ -1,5 +1,7 @@
 package com.serkowski.orderservice.service.impl;
 
+import com.serkowski.orderservice.cache.OrderResponseCache;
+import com.serkowski.orderservice.config.OrderCacheProperties;
 import com.serkowski.orderservice.dto.request.AddressRequestDto;
 import com.serkowski.orderservice.dto.request.OrderItemRequestDto;
 import com.serkowski.orderservice.dto.request.OrderRequest;
@@ -15,6 +17,7 @@ import com.serkowski.orderservice.repository.write.OrderWriteRepository;
 import com.serkowski.orderservice.service.api.OrderMapper;
 import com.serkowski.orderservice.service.api.OrderService;
 import com.serkowski.orderservice.service.api.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,16 +26,20 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -49,13 +56,16 @@ public class OrderServiceImplTest {
 
     @Mock
     private ProductService productService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @Captor
     private ArgumentCaptor<OrderSummary> orderSummaryArgumentCaptor;
 
     @BeforeEach
     void init() {
-        orderService = new OrderServiceImpl(orderWriteRepository, orderReadRepository, orderMapper, productService);
+        orderService = new OrderServiceImpl(orderWriteRepository, orderReadRepository, orderMapper, productService,
+                new TransactionTemplate(transactionManager), new OrderResponseCache(new OrderCacheProperties(), new SimpleMeterRegistry()));
     }
 
     @Test
@@ -64,7 +74,7 @@ public class OrderServiceImplTest {
         orderRequest.setOrderItems(orderItems());
         orderRequest.setAddress(address());
         when(orderMapper.map(eq(orderRequest), eq(State.DRAFT))).thenReturn(OrderSummary.builder().build());
-        when(orderMapper.map(any(OrderSummary.class))).thenReturn(OrderResponse.builder().build());
+        when(orderMapper.map(any(OrderSummary.class))).thenReturn(prepareResponse());
         when(orderWriteRepository.save(any())).thenReturn(prepareOrder());
 
         StepVerifier.create(orderService.placeOrderDraft(orderRequest)).assertNext(Assertions::assertNotNull).verifyComplete();
@@ -77,7 +87,7 @@ public class OrderServiceImplTest {
     void shouldAcceptOrder() {
         OrderSummary orderSummary = OrderSummary.builder().state(State.DRAFT).orderLineItemsList(List.of(OrderItem.builder().build())).build();
         when(orderReadRepository.findByOrderNumberAndVersion(eq("123"), eq(1))).thenReturn(Optional.ofNullable(orderSummary));
-        when(orderMapper.map(eq(orderSummary))).thenReturn(OrderResponse.builder().build());
+        when(orderMapper.map(any(OrderSummary.class))).thenReturn(prepareResponse());
         when(productService.reserveItems(any(), any())).thenReturn(Mono.just("success"));
         when(orderWriteRepository.save(any())).thenReturn(prepareOrder());
 
@@ -93,8 +103,13 @@ public class OrderServiceImplTest {
         OrderSummary orderSummary = OrderSummary.builder().state(State.ACCEPTED).orderLineItemsList(List.of(OrderItem.builder().build())).build();
         when(orderReadRepository.findByOrderNumberAndVersion(eq("123"), eq(1))).thenReturn(Optional.ofNullable(orderSummary));
 
-        ValidationException exception = assertThrows(ValidationException.class, () -> orderService.acceptOrder("123", 1));
-        assertEquals("Incorrect state: ACCEPTED of order: 123 version: 1", exception.getMessage());
+        StepVerifier.create(orderService.acceptOrder("123", 1))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ValidationException.class, exception.getClass());
+                    assertEquals("Incorrect state: ACCEPTED of order: 123 version: 1", exception.getMessage());
+                })
+                .verify();
+        verify(productService, never()).reserveItems(any(), any());
     }
 
     @Test
@@ -112,19 +127,20 @@ public class OrderServiceImplTest {
 
     @Test
     void shouldUpdateOrder() {
-        OrderResponse response = OrderResponse.builder().build();
+        OrderResponse response = prepareResponse();
         OrderRequest orderRequest = new OrderRequest();
         orderRequest.setOrderItems(orderItems());
         orderRequest.setAddress(address());
-        when(orderReadRepository.findByOrderNumberAndVersion(eq("testNumber123"), eq(1))).thenReturn(Optional.ofNullable(OrderSummary.builder().build()));
+        when(orderReadRepository.findByOrderNumberAndVersion(eq("testNumber123"), eq(1))).thenReturn(Optional.ofNullable(OrderSummary.builder().orderLineItemsList(new ArrayList<>()).build()));
         when(orderMapper.mapAddress(eq(orderRequest.getAddress()))).thenReturn(Address.builder().build());
         when(orderMapper.mapItems(eq(orderRequest.getOrderItems()))).thenReturn(List.of(OrderItem.builder().build()));
         when(orderMapper.map(any(OrderSummary.class))).thenReturn(response);
         when(orderWriteRepository.save(any())).thenReturn(prepareOrder());
 
-        OrderResponse result = orderService.updateOrder(orderRequest, "testNumber123", 1);
+        StepVerifier.create(orderService.updateOrder(orderRequest, "testNumber123", 1))
+                .expectNext(response)
+                .verifyComplete();
 
-        assertEquals(response, result);
         verify(orderWriteRepository).save(any(OrderSummary.class));
         verify(orderMapper).map(any(OrderSummary.class));
     }
@@ -136,27 +152,50 @@ public class OrderServiceImplTest {
         orderRequest.setAddress(address());
         when(orderReadRepository.findByOrderNumberAndVersion(eq("testNumber123"), eq(1))).thenReturn(Optional.empty());
 
-        OrderNotFound exception = assertThrows(OrderNotFound.class, () -> orderService.updateOrder(orderRequest, "testNumber123", 1));
-        assertEquals("Can't update order which is not exist for number: testNumber123 and version 1", exception.getMessage());
+        StepVerifier.create(orderService.updateOrder(orderRequest, "testNumber123", 1))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(OrderNotFound.class, exception.getClass());
+                    assertEquals("Can't update order which is not exist for number: testNumber123 and version 1", exception.getMessage());
+                })
+                .verify();
     }
 
     @Test
     void shouldThrowExceptionDuringGetOrder() {
         when(orderReadRepository.findByOrderNumberAndVersion(eq("testNumber123"), eq(1))).thenReturn(Optional.empty());
 
-        OrderNotFound exception = assertThrows(OrderNotFound.class, () -> orderService.getOrderByOrderNumber("testNumber123", 1));
-        assertEquals("Order which number: testNumber123 and version 1 not exist", exception.getMessage());
+        StepVerifier.create(orderService.getOrderByOrderNumber("testNumber123", 1))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(OrderNotFound.class, exception.getClass());
+                    assertEquals("Order which number: testNumber123 and version 1 not exist", exception.getMessage());
+                })
+                .verify();
     }
 
     @Test
     void shouldGetOrderByOrderNumber() {
-        OrderResponse response = OrderResponse.builder().build();
+        OrderResponse response = prepareResponse();
         when(orderReadRepository.findByOrderNumberAndVersion(eq("testNumber123"), eq(1))).thenReturn(Optional.ofNullable(OrderSummary.builder().build()));
         when(orderMapper.map(any(OrderSummary.class))).thenReturn(response);
 
-        OrderResponse result = orderService.getOrderByOrderNumber("testNumber123", 1);
+        StepVerifier.create(orderService.getOrderByOrderNumber("testNumber123", 1))
+                .expectNext(response)
+                .verifyComplete();
+    }
 
-        assertEquals(response, result);
+    @Test
+    void shouldGetOrderFromCacheUntilDeleted() {
+        OrderSummary order = OrderSummary.builder().build();
+        when(orderReadRepository.findByOrderNumberAndVersion(eq("testNumber123"), eq(1))).thenReturn(Optional.of(order));
+        when(orderReadRepository.findByOrderNumber(eq("testNumber123"))).thenReturn(Optional.of(order));
+        when(orderMapper.map(any(OrderSummary.class))).thenReturn(prepareResponse());
+
+        orderService.getOrderByOrderNumber("testNumber123", 1).block();
+        orderService.getOrderByOrderNumber("testNumber123", 1).block();
+        orderService.deleteOrderByOrderNumber("testNumber123").block();
+        orderService.getOrderByOrderNumber("testNumber123", 1).block();
+
+        verify(orderReadRepository, times(2)).findByOrderNumberAndVersion(eq("testNumber123"), eq(1));
     }
 
     @Test
@@ -164,7 +203,8 @@ public class OrderServiceImplTest {
         OrderSummary order = OrderSummary.builder().build();
         when(orderReadRepository.findByOrderNumber(eq("testNumber123"))).thenReturn(Optional.ofNullable(order));
 
-        orderService.deleteOrderByOrderNumber("testNumber123");
+        StepVerifier.create(orderService.deleteOrderByOrderNumber("testNumber123"))
+                .verifyComplete();
 
         verify(orderWriteRepository).delete(eq(order));
     }
@@ -173,8 +213,16 @@ public class OrderServiceImplTest {
     void shouldThrowExceptionDuringDeleteOrder() {
         when(orderReadRepository.findByOrderNumber(eq("testNumber123"))).thenReturn(Optional.empty());
 
-        OrderNotFound exception = assertThrows(OrderNotFound.class, () -> orderService.deleteOrderByOrderNumber("testNumber123"));
-        assertEquals("Order which number: testNumber123 not exist, so can't be deleted", exception.getMessage());
+        StepVerifier.create(orderService.deleteOrderByOrderNumber("testNumber123"))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(OrderNotFound.class, exception.getClass());
+                    assertEquals("Order which number: testNumber123 not exist, so can't be deleted", exception.getMessage());
+                })
+                .verify();
+    }
+
+    private OrderResponse prepareResponse() {
+        return OrderResponse.builder().orderNumber("testNumber123").version(1).build();
     }
 
     private OrderSummary prepareOrder() {
@@ -0,0 +1,178 @@
+package com.serkowski.orderservice.service.impl;
+
+import com.serkowski.orderservice.cache.OrderResponseCache;
+import com.serkowski.orderservice.config.OrderCacheProperties;
+import com.serkowski.orderservice.dto.request.AddressRequestDto;
+import com.serkowski.orderservice.dto.request.OrderRequest;
+import com.serkowski.orderservice.dto.response.OrderResponse;
+import com.serkowski.orderservice.model.Address;
+import com.serkowski.orderservice.model.OrderItem;
+import com.serkowski.orderservice.model.OrderSummary;
+import com.serkowski.orderservice.model.State;
+import com.serkowski.orderservice.model.error.OrderNotFound;
+import com.serkowski.orderservice.model.error.ValidationException;
+import com.serkowski.orderservice.repository.read.ReactiveOrderReadRepository;
+import com.serkowski.orderservice.repository.write.ReactiveOrderWriteRepository;
+import com.serkowski.orderservice.service.api.OrderMapper;
+import com.serkowski.orderservice.service.api.OrderService;
+import com.serkowski.orderservice.service.api.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveOrderServiceImplTest {
+
+    private OrderService orderService;
+    @Mock
+    private ReactiveOrderWriteRepository orderWriteRepository;
+    @Mock
+    private ReactiveOrderReadRepository orderReadRepository;
+    @Mock
+    private OrderMapper orderMapper;
+    @Mock
+    private ProductService productService;
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @BeforeEach
+    void init() {
+        orderService = new ReactiveOrderServiceImpl(orderWriteRepository, orderReadRepository, orderMapper, productService,
+                transactionalOperator, new OrderResponseCache(new OrderCacheProperties(), new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void shouldPlaceOrderInTransaction() {
+        OrderRequest orderRequest = new OrderRequest();
+        OrderSummary orderSummary = OrderSummary.builder().state(State.DRAFT).build();
+        OrderResponse response = prepareResponse();
+        when(orderMapper.map(eq(orderRequest), eq(State.DRAFT))).thenReturn(orderSummary);
+        when(orderWriteRepository.save(eq(orderSummary))).thenReturn(Mono.just(orderSummary));
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.map(eq(orderSummary))).thenReturn(response);
+
+        StepVerifier.create(orderService.placeOrderDraft(orderRequest))
+                .expectNext(response)
+                .verifyComplete();
+
+        verify(transactionalOperator).transactional(any(Mono.class));
+    }
+
+    @Test
+    void shouldAcceptOrder() {
+        OrderSummary orderSummary = OrderSummary.builder().state(State.DRAFT).orderLineItemsList(List.of(OrderItem.builder().build())).build();
+        when(orderReadRepository.findByOrderNumberAndVersion(eq("123"), eq(1))).thenReturn(Mono.just(orderSummary));
+        when(productService.reserveItems(any(), any())).thenReturn(Mono.just("success"));
+        when(orderWriteRepository.save(eq(orderSummary))).thenReturn(Mono.just(orderSummary));
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.map(eq(orderSummary))).thenReturn(prepareResponse());
+
+        StepVerifier.create(orderService.acceptOrder("123", 1))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(State.ACCEPTED, orderSummary.getState());
+    }
+
+    @Test
+    void shouldNotAcceptOrderBecauseOfWrongState() {
+        OrderSummary orderSummary = OrderSummary.builder().state(State.ACCEPTED).build();
+        when(orderReadRepository.findByOrderNumberAndVersion(eq("123"), eq(1))).thenReturn(Mono.just(orderSummary));
+
+        StepVerifier.create(orderService.acceptOrder("123", 1))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ValidationException.class, exception.getClass());
+                    assertEquals("Incorrect state: ACCEPTED of order: 123 version: 1", exception.getMessage());
+                })
+                .verify();
+        verify(productService, never()).reserveItems(any(), any());
+    }
+
+    @Test
+    void shouldMarkOrderAsInvalidWhenReservationFailed() {
+        OrderSummary orderSummary = OrderSummary.builder().state(State.DRAFT).orderLineItemsList(List.of(OrderItem.builder().build())).build();
+        when(orderReadRepository.findByOrderNumberAndVersion(eq("123"), eq(1))).thenReturn(Mono.just(orderSummary));
+        when(productService.reserveItems(any(), any())).thenReturn(Mono.error(new IllegalStateException()));
+        when(orderWriteRepository.save(eq(orderSummary))).thenReturn(Mono.just(orderSummary));
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.map(eq(orderSummary))).thenReturn(prepareResponse());
+
+        StepVerifier.create(orderService.acceptOrder("123", 1))
+                .verifyError(IllegalStateException.class);
+
+        assertEquals(State.INVALID, orderSummary.getState());
+    }
+
+    @Test
+    void shouldKeepAddressRowOnUpdate() {
+        OrderRequest orderRequest = new OrderRequest(List.of(), new AddressRequestDto());
+        OrderSummary orderSummary = OrderSummary.builder().address(Address.builder().id(5L).build()).build();
+        when(orderReadRepository.findByOrderNumberAndVersion(eq("123"), eq(1))).thenReturn(Mono.just(orderSummary));
+        when(orderMapper.mapItems(eq(List.of()))).thenReturn(List.of());
+        when(orderMapper.mapAddress(any())).thenReturn(Address.builder().city("city2").build());
+        when(orderWriteRepository.save(eq(orderSummary))).thenReturn(Mono.just(orderSummary));
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.map(eq(orderSummary))).thenReturn(prepareResponse());
+
+        StepVerifier.create(orderService.updateOrder(orderRequest, "123", 1))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(5L, orderSummary.getAddress().getId());
+        assertEquals("city2", orderSummary.getAddress().getCity());
+    }
+
+    @Test
+    void shouldThrowExceptionDuringGetOrder() {
+        when(orderReadRepository.findByOrderNumberAndVersion(eq("testNumber123"), eq(1))).thenReturn(Mono.empty());
+
+        StepVerifier.create(orderService.getOrderByOrderNumber("testNumber123", 1))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(OrderNotFound.class, exception.getClass());
+                    assertEquals("Order which number: testNumber123 and version 1 not exist", exception.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    void shouldGetAcceptedOrderFromCacheUntilDeleted() {
+        OrderSummary orderSummary = OrderSummary.builder().state(State.DRAFT).orderLineItemsList(List.of(OrderItem.builder().build())).build();
+        OrderResponse accepted = OrderResponse.builder().orderNumber("123").version(1).state("ACCEPTED").build();
+        when(orderReadRepository.findByOrderNumberAndVersion(eq("123"), eq(1))).thenReturn(Mono.just(orderSummary));
+        when(orderReadRepository.findByOrderNumber(eq("123"))).thenReturn(Mono.just(orderSummary));
+        when(productService.reserveItems(any(), any())).thenReturn(Mono.just("success"));
+        when(orderWriteRepository.save(eq(orderSummary))).thenReturn(Mono.just(orderSummary));
+        when(orderWriteRepository.delete(eq(orderSummary))).thenReturn(Mono.empty());
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.map(eq(orderSummary))).thenReturn(accepted);
+
+        orderService.acceptOrder("123", 1).block();
+        StepVerifier.create(orderService.getOrderByOrderNumber("123", 1))
+                .assertNext(order -> assertEquals("ACCEPTED", order.getState()))
+                .verifyComplete();
+        orderService.deleteOrderByOrderNumber("123").block();
+        orderService.getOrderByOrderNumber("123", 1).block();
+
+        verify(orderReadRepository, times(2)).findByOrderNumberAndVersion(eq("123"), eq(1));
+    }
+
+    private OrderResponse prepareResponse() {
+        return OrderResponse.builder().orderNumber("123").version(1).build();
+    }
+}
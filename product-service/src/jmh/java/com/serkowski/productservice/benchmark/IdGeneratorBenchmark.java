@@ -0,0 +1,38 @@
+package com.serkowski.productservice.benchmark;
+
+import com.serkowski.productservice.id.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.util.IdGenerator;
+import org.springframework.util.JdkIdGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of id generation by concurrent callers, random ids of {@link UUID#randomUUID()} against time-ordered ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class IdGeneratorBenchmark {
+
+    private final IdGenerator randomIdGenerator = new JdkIdGenerator();
+    private final IdGenerator timeOrderedIdGenerator = new TimeOrderedIdGenerator();
+
+    @Benchmark
+    public UUID randomId() {
+        return randomIdGenerator.generateId();
+    }
+
+    @Benchmark
+    public UUID timeOrderedId() {
+        return timeOrderedIdGenerator.generateId();
+    }
+}
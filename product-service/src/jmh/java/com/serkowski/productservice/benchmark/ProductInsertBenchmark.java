@@ -0,0 +1,91 @@
+package com.serkowski.productservice.benchmark;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.serkowski.productservice.id.TimeOrderedIdGenerator;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.util.IdGenerator;
+import org.springframework.util.JdkIdGenerator;
+import org.testcontainers.containers.MongoDBContainer;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput of product documents keyed by random and by time-ordered ids. The collection is filled first, so
+ * random keys hit pages all over an id index bigger than a few pages. The size of the id index is printed at the end
+ * of a trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class ProductInsertBenchmark {
+
+    private static final String COLLECTION = "product";
+    private static final int BATCH = 100;
+
+    @Param({"random", "time-ordered"})
+    String generator;
+
+    @Param({"1000000"})
+    int preloaded;
+
+    private MongoDBContainer mongoDBContainer;
+    private MongoClient mongoClient;
+    private ReactiveMongoTemplate mongoTemplate;
+    private IdGenerator idGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongoDBContainer = new MongoDBContainer("mongo:4.4.2");
+        mongoDBContainer.start();
+        mongoClient = MongoClients.create(mongoDBContainer.getReplicaSetUrl());
+        mongoTemplate = new ReactiveMongoTemplate(mongoClient, "benchmark");
+        idGenerator = "random".equals(generator) ? new JdkIdGenerator() : new TimeOrderedIdGenerator();
+        Flux.range(0, preloaded / BATCH)
+                .concatMap(batch -> mongoTemplate.insert(products(), COLLECTION).then())
+                .blockLast();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertProducts() {
+        mongoTemplate.insert(products(), COLLECTION).then().block();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Document stats = mongoTemplate.executeCommand(new Document("collStats", COLLECTION)).block();
+        if (stats != null) {
+            System.out.printf("%nId index size with %s ids: %s bytes%n", generator, stats.get("indexSizes", Document.class).get("_id_"));
+        }
+        mongoClient.close();
+        mongoDBContainer.stop();
+    }
+
+    private List<Document> products() {
+        List<Document> products = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            products.add(new Document("_id", idGenerator.generateId().toString())
+                    .append("name", "product")
+                    .append("tags", List.of("tag1")));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,38 @@
+package com.serkowski.productservice.benchmark;
+
+import com.serkowski.productservice.controller.ProductController;
+import com.serkowski.productservice.controller.ProductLinkFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.hateoas.Link;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Cost of a product self link built by the link builder against the precomputed link factory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductLinkBenchmark {
+
+    private final ProductLinkFactory productLinkFactory = new ProductLinkFactory();
+    private final UUID productId = UUID.randomUUID();
+
+    @Benchmark
+    public Link linkBuilder() {
+        return linkTo(ProductController.class).slash(productId).withSelfRel();
+    }
+
+    @Benchmark
+    public Link linkFactory() {
+        return productLinkFactory.productSelf(productId);
+    }
+}
@@ -0,0 +1,114 @@
+package com.serkowski.productservice.benchmark;
+
+import com.serkowski.productservice.ProductServiceApplication;
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.ProductView;
+import com.serkowski.productservice.repository.product.ProductReadRepository;
+import com.serkowski.productservice.repository.product.view.ProductViewWriteRepository;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.types.Decimal128;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.mongodb.client.model.Filters.eq;
+
+/**
+ * Latency of reading a product by the size of the legacy {@code items} array still stored in its document, compared
+ * with reading its denormalized view. Sizes of the product and view documents sent by the database are printed once
+ * per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductReadBenchmark {
+
+    private static final String PRODUCT_ID = "product1";
+
+    @Param({"0", "1000", "10000"})
+    int items;
+
+    private MongoDBContainer mongoDBContainer;
+    private ConfigurableApplicationContext context;
+    private ProductReadRepository productReadRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongoDBContainer = new MongoDBContainer("mongo:4.4.2");
+        mongoDBContainer.start();
+        context = new SpringApplicationBuilder(ProductServiceApplication.class)
+                .properties(
+                        "spring.data.mongodb.uri=" + mongoDBContainer.getReplicaSetUrl(),
+                        "server.port=0",
+                        "eureka.client.enabled=false",
+                        "spring.cloud.discovery.enabled=false",
+                        "management.tracing.enabled=false",
+                        "product.migration.item-ownership.enabled=false",
+                        "product.reservation.sweeper.enabled=false",
+                        "product.search.enabled=false")
+                .run();
+        productReadRepository = context.getBean(ProductReadRepository.class);
+        ReactiveMongoTemplate mongoTemplate = context.getBean(ReactiveMongoTemplate.class);
+        String collection = mongoTemplate.getCollectionName(Product.class);
+
+        mongoTemplate.insert(new Document("_id", PRODUCT_ID)
+                .append("name", "product")
+                .append("description", "description of the product")
+                .append("categories", List.of("category1", "category2"))
+                .append("tags", List.of("tag1", "tag2"))
+                .append("price", new Decimal128(BigDecimal.TEN))
+                .append("specification", Map.of("color", "red", "material", "cotton"))
+                .append("items", Stream.generate(() -> UUID.randomUUID().toString()).limit(items).toList()), collection)
+                .block();
+        context.getBean(ProductViewWriteRepository.class).rebuild().block();
+
+        System.out.printf("%nDocument bytes with %d items: product %d, view %d%n", items,
+                documentBytes(mongoTemplate, collection),
+                documentBytes(mongoTemplate, mongoTemplate.getCollectionName(ProductView.class)));
+    }
+
+    @Benchmark
+    public Product findProduct() {
+        return productReadRepository.findById(PRODUCT_ID).block();
+    }
+
+    @Benchmark
+    public ProductView findProductView() {
+        return productReadRepository.findViewById(PRODUCT_ID).block();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        mongoDBContainer.stop();
+    }
+
+    private int documentBytes(ReactiveMongoTemplate mongoTemplate, String collection) {
+        RawBsonDocument document = mongoTemplate.getCollection(collection)
+                .flatMap(mongoCollection -> Mono.from(mongoCollection.withDocumentClass(RawBsonDocument.class)
+                        .find(eq("_id", PRODUCT_ID))
+                        .first()))
+                .block();
+        return document == null ? 0 : document.getByteBuffer().remaining();
+    }
+}
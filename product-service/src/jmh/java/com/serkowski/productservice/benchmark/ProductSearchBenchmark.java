@@ -0,0 +1,105 @@
+package com.serkowski.productservice.benchmark;
+
+import com.serkowski.productservice.config.ProductSearchProperties;
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.search.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of search queries over a generated catalog. Words are drawn with a skewed distribution, so the catalog has
+ * a few very frequent words with long posting lists and a long tail of rare ones, like real product texts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchBenchmark {
+
+    private static final int VOCABULARY_SIZE = 50_000;
+    private static final int LIMIT = 20;
+
+    @Param({"1000000"})
+    int products;
+
+    private ProductSearchIndex productSearchIndex;
+    private String frequentWord;
+    private String twoWords;
+    private String rareWord;
+    private String prefix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary[i] = randomWord(random);
+        }
+        productSearchIndex = new ProductSearchIndex(new ProductSearchProperties());
+        for (int i = 0; i < products; i++) {
+            productSearchIndex.index(Product.builder()
+                    .id(String.valueOf(i))
+                    .name(words(random, vocabulary, 3))
+                    .tags(List.of(words(random, vocabulary, 1), words(random, vocabulary, 1)))
+                    .description(words(random, vocabulary, 15))
+                    .specification(Map.of("color", words(random, vocabulary, 1), "material", words(random, vocabulary, 1)))
+                    .build());
+        }
+        frequentWord = vocabulary[0];
+        twoWords = vocabulary[0] + " " + vocabulary[10];
+        rareWord = vocabulary[VOCABULARY_SIZE / 2];
+        prefix = vocabulary[5].substring(0, 3);
+    }
+
+    @Benchmark
+    public List<String> frequentTerm() {
+        return productSearchIndex.search(frequentWord, LIMIT);
+    }
+
+    @Benchmark
+    public List<String> rareTerm() {
+        return productSearchIndex.search(rareWord, LIMIT);
+    }
+
+    @Benchmark
+    public List<String> twoTerms() {
+        return productSearchIndex.search(twoWords, LIMIT);
+    }
+
+    @Benchmark
+    public List<String> prefix() {
+        return productSearchIndex.search(prefix, LIMIT);
+    }
+
+    private String words(Random random, String[] vocabulary, int count) {
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double skewed = Math.pow(random.nextDouble(), 3);
+            words.add(vocabulary[(int) (skewed * vocabulary.length)]);
+        }
+        return String.join(" ", words);
+    }
+
+    private String randomWord(Random random) {
+        int length = 4 + random.nextInt(6);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.serkowski.productservice.benchmark;
+
+import com.serkowski.productservice.ProductServiceApplication;
+import com.serkowski.productservice.dto.ProductItemDto;
+import com.serkowski.productservice.dto.request.ReserveItemDto;
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.repository.product.ProductWriteRepository;
+import com.serkowski.productservice.service.api.ProductItemService;
+import com.serkowski.productservice.service.api.ProductStockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MongoDBContainer;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a reservation by the amount of its lines. Every line refers to a different product, so the amount of
+ * queries of a line by line lookup would grow with the order size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReserveItemsBenchmark {
+
+    @Param({"1", "10", "50"})
+    int lines;
+
+    private MongoDBContainer mongoDBContainer;
+    private ConfigurableApplicationContext context;
+    private ProductItemService productItemService;
+    private List<ReserveItemDto> reserveItems;
+    private String reservationId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongoDBContainer = new MongoDBContainer("mongo:4.4.2");
+        mongoDBContainer.start();
+        context = new SpringApplicationBuilder(ProductServiceApplication.class)
+                .properties(
+                        "spring.data.mongodb.uri=" + mongoDBContainer.getReplicaSetUrl(),
+                        "server.port=0",
+                        "eureka.client.enabled=false",
+                        "spring.cloud.discovery.enabled=false",
+                        "management.tracing.enabled=false",
+                        "product.migration.item-ownership.enabled=false",
+                        "product.reservation.sweeper.enabled=false")
+                .run();
+        productItemService = context.getBean(ProductItemService.class);
+        ProductWriteRepository productWriteRepository = context.getBean(ProductWriteRepository.class);
+        ProductStockService productStockService = context.getBean(ProductStockService.class);
+
+        reserveItems = Flux.range(0, lines)
+                .concatMap(line -> productWriteRepository.save(Product.builder()
+                                .id(UUID.randomUUID().toString())
+                                .name("product" + line)
+                                .price(BigDecimal.ONE)
+                                .build())
+                        .flatMap(product -> productStockService.createStock(product.getId())
+                                .then(productItemService.addItem(product.getId(), ProductItemDto.builder()
+                                        .serialNumber(UUID.randomUUID().toString())
+                                        .build()))
+                                .thenReturn(ReserveItemDto.builder()
+                                        .itemRef(product.getId())
+                                        .count(1)
+                                        .build())))
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<String> reserveItems() {
+        reservationId = UUID.randomUUID().toString();
+        return productItemService.reserveItems(reservationId, reserveItems).block();
+    }
+
+    @TearDown(Level.Invocation)
+    public void unlockItems() {
+        productItemService.unlockReservedItems(List.of(reservationId)).block();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        mongoDBContainer.stop();
+    }
+}
@@ -0,0 +1,73 @@
+package com.serkowski.productservice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.serkowski.productservice.config.ProductCacheProperties;
+import com.serkowski.productservice.dto.ProductDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Read-through cache of products, bounded by size and time since load. Concurrent misses of the same product share one
+ * load, and a load still in flight is dropped by invalidation, so an update can't be overwritten by an older read.
+ * Hit, miss and eviction counts are published as {@code cache.*} metrics with the {@code cache=product} tag.
+ */
+@Component
+public class ProductCache {
+
+    private static final String CACHE_NAME = "product";
+
+    private final boolean enabled;
+    private final AsyncCache<String, ProductDto> cache;
+
+    public ProductCache(ProductCacheProperties productCacheProperties, MeterRegistry meterRegistry) {
+        this.enabled = productCacheProperties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(productCacheProperties.getMaximumSize())
+                .expireAfterWrite(productCacheProperties.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    }
+
+    /**
+     * Get product from the cache or load it when it's missing. Every caller gets its own copy, so links added to the
+     * response don't leak into the cache.
+     *
+     * @param productId product id
+     * @param loader    loads the product, empty when the product doesn't exist
+     * @return {@link ProductDto} or empty when product not exist
+     */
+    public Mono<ProductDto> get(String productId, Function<String, Mono<ProductDto>> loader) {
+        if (!enabled) {
+            return loader.apply(productId);
+        }
+        return Mono.fromFuture(() -> cache.get(productId, (id, executor) -> loader.apply(id).toFuture()), true)
+                .map(this::copy);
+    }
+
+    /**
+     * Remove product from the cache of this node.
+     *
+     * @param productId product id
+     */
+    public void invalidate(String productId) {
+        cache.synchronous().invalidate(productId);
+    }
+
+    private ProductDto copy(ProductDto productDto) {
+        return ProductDto.builder()
+                .id(productDto.getId())
+                .name(productDto.getName())
+                .description(productDto.getDescription())
+                .categories(productDto.getCategories())
+                .tags(productDto.getTags())
+                .price(productDto.getPrice())
+                .specification(productDto.getSpecification())
+                .build();
+    }
+}
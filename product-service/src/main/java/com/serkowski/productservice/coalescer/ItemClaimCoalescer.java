@@ -0,0 +1,219 @@
+package com.serkowski.productservice.coalescer;
+
+import com.serkowski.productservice.config.ReservationProperties;
+import com.serkowski.productservice.model.ProductItem;
+import com.serkowski.productservice.repository.product.item.ProductItemReadRepository;
+import com.serkowski.productservice.repository.product.item.ProductItemWriteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Claims items of concurrent reservations of the same product together. Requests are gathered per product until the
+ * window ends or the batch is full, then candidates of the whole batch are found with one query, split between the
+ * reservations in arrival order and claimed with one bulk write. Every caller gets the items claimed for its own
+ * reservation, items taken meanwhile by a reservation outside the batch are left to the caller to make up.
+ * <p>
+ * A request not taken into a batch within the timeout, or left behind by a failed batching pipeline, gets no items, so
+ * the caller reserves all of them one by one. A failed pipeline is started again with a new request sink.
+ */
+@Component
+@Slf4j
+public class ItemClaimCoalescer implements DisposableBean {
+
+    private static final Duration IDLE_PRODUCT_TIMEOUT = Duration.ofMinutes(1);
+    private static final Duration EMIT_TIMEOUT = Duration.ofMillis(100);
+
+    private final ProductItemReadRepository productItemReadRepository;
+    private final ProductItemWriteRepository productItemWriteRepository;
+    private final ReservationProperties.Coalescer properties;
+    private final DistributionSummary batchSize;
+    private final Counter fallbacks;
+    private final Set<ClaimRequest> pending = ConcurrentHashMap.newKeySet();
+    private volatile Sinks.Many<ClaimRequest> requests;
+    private volatile Disposable batches;
+    private volatile boolean stopped;
+
+    public ItemClaimCoalescer(ProductItemReadRepository productItemReadRepository,
+                              ProductItemWriteRepository productItemWriteRepository,
+                              ReservationProperties reservationProperties,
+                              MeterRegistry meterRegistry) {
+        this.productItemReadRepository = productItemReadRepository;
+        this.productItemWriteRepository = productItemWriteRepository;
+        this.properties = reservationProperties.getCoalescer();
+        this.batchSize = DistributionSummary.builder("product.reservation.coalescer.batch.size")
+                .description("Reservations whose items were claimed with a single bulk write")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("product.reservation.coalescer.fallbacks")
+                .description("Reservations left to claim their items one by one, because no batch took them in time")
+                .register(meterRegistry);
+        if (properties.isEnabled()) {
+            startBatching();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Claim up to {@code count} available items of the product for the reservation.
+     *
+     * @param reservationId   reservation id
+     * @param productId       product id
+     * @param count           amount of items to claim
+     * @param reservationTime reservation time
+     * @return ids of claimed items, there can be less of them than requested
+     */
+    public Mono<List<String>> claim(String reservationId, String productId, int count, LocalDateTime reservationTime) {
+        return Mono.defer(() -> {
+            ClaimRequest request = new ClaimRequest(reservationId, productId, count, reservationTime, new AtomicBoolean(), Sinks.one());
+            pending.add(request);
+            Sinks.EmitFailureHandler concurrentEmit = Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT);
+            try {
+                requests.emitNext(request, (signal, result) -> {
+                    if (result == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                        return concurrentEmit.onEmitFailure(signal, result);
+                    }
+                    fallBack(request);
+                    return false;
+                });
+            } catch (Sinks.EmissionException e) {
+                fallBack(request);
+            }
+            return request.result().asMono()
+                    .timeout(properties.getTimeout(), Mono.defer(() -> {
+                        fallBack(request);
+                        return request.result().asMono();
+                    }))
+                    .doFinally(signal -> pending.remove(request));
+        });
+    }
+
+    @Override
+    public void destroy() {
+        stopped = true;
+        if (batches != null) {
+            batches.dispose();
+        }
+        failPending(new IllegalStateException("Item claim coalescer stopped"));
+    }
+
+    /**
+     * Products without requests for a while complete their group, so only recently reserved products hold a batch.
+     * Requests dropped by a group completing meanwhile are discarded and fall back. The pipeline is started again
+     * whenever it terminates, after every request sent to it was answered.
+     */
+    private void startBatching() {
+        Sinks.Many<ClaimRequest> sink = Sinks.many().unicast().onBackpressureBuffer();
+        requests = sink;
+        batches = sink.asFlux()
+                .groupBy(ClaimRequest::productId)
+                .flatMap(product -> product.timeout(IDLE_PRODUCT_TIMEOUT, Flux.empty())
+                        .bufferTimeout(properties.getMaxBatch(), properties.getWindow(), true)
+                        .concatMap(batch -> claimBatch(product.key(), batch)), Integer.MAX_VALUE)
+                .doOnDiscard(ClaimRequest.class, this::fallBack)
+                .subscribe(null, e -> restartBatching(new IllegalStateException("Item claim batching failed", e)),
+                        () -> restartBatching(new IllegalStateException("Item claim batching completed")));
+    }
+
+    private void restartBatching(Exception cause) {
+        log.error("Item claim batching terminated, starting it again", cause);
+        failPending(cause);
+        if (!stopped) {
+            startBatching();
+        }
+    }
+
+    /**
+     * Requests not taken into a batch fall back, requests of a batch cut off by the termination fail, because their
+     * items could already be claimed.
+     */
+    private void failPending(Exception cause) {
+        pending.forEach(request -> {
+            if (!fallBack(request)) {
+                request.result().tryEmitError(cause);
+            }
+        });
+    }
+
+    /**
+     * Answer the request with no items, unless a batch already took it.
+     *
+     * @return whether the request fell back
+     */
+    private boolean fallBack(ClaimRequest request) {
+        if (!request.take()) {
+            return false;
+        }
+        fallbacks.increment();
+        request.result().tryEmitValue(List.of());
+        return true;
+    }
+
+    private Mono<Void> claimBatch(String productId, List<ClaimRequest> gathered) {
+        List<ClaimRequest> batch = gathered.stream().filter(ClaimRequest::take).toList();
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        batchSize.record(batch.size());
+        int requested = batch.stream().mapToInt(ClaimRequest::count).sum();
+        LocalDateTime reservationTime = batch.get(0).reservationTime();
+        return productItemReadRepository.findAvailableItems(Map.of(productId, requested))
+                .map(ProductItem::getId)
+                .collectList()
+                .flatMap(candidates -> productItemWriteRepository.claimItems(assign(batch, candidates), reservationTime))
+                .thenMany(productItemReadRepository.findByReservationIdIn(batch.stream().map(ClaimRequest::reservationId).toList()))
+                .filter(productItem -> productId.equals(productItem.getProductId()))
+                .collectMultimap(ProductItem::getReservationId, ProductItem::getId)
+                .doOnNext(claimed -> batch.forEach(request -> request.result()
+                        .tryEmitValue(new ArrayList<>(claimed.getOrDefault(request.reservationId(), List.of())))))
+                .doOnError(e -> {
+                    log.error("Claiming items of product: {} failed", productId, e);
+                    batch.forEach(request -> request.result().tryEmitError(e));
+                })
+                .then()
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Map<String, List<String>> assign(List<ClaimRequest> batch, List<String> candidates) {
+        Map<String, List<String>> assigned = new LinkedHashMap<>();
+        int next = 0;
+        for (ClaimRequest request : batch) {
+            int end = Math.min(next + request.count(), candidates.size());
+            if (next < end) {
+                assigned.put(request.reservationId(), candidates.subList(next, end));
+            }
+            next = end;
+        }
+        return assigned;
+    }
+
+    private record ClaimRequest(String reservationId, String productId, int count, LocalDateTime reservationTime,
+                                AtomicBoolean taken, Sinks.One<List<String>> result) {
+
+        /**
+         * A request is answered either by a batch or by the fallback, whichever takes it first.
+         */
+        boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.serkowski.productservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "product.cache")
+@Getter
+@Setter
+public class ProductCacheProperties {
+
+    /**
+     * Whether products are served from the local cache, turned off every read goes to the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper limit of cached products.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a product is served from the cache after it was loaded.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,26 @@
+package com.serkowski.productservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "product.catalog")
+@Getter
+@Setter
+public class ProductCatalogProperties {
+
+    /**
+     * Amount of products on a catalog page when the client doesn't ask for a size.
+     */
+    private int defaultPageSize = 20;
+
+    /**
+     * Upper bound of the catalog page size requested by the client.
+     */
+    private int maxPageSize = 100;
+
+    /**
+     * Amount of products fetched from the database cursor at once during the catalog export.
+     */
+    private int exportBatchSize = 1000;
+}
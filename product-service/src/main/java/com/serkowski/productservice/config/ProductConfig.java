@@ -1,18 +1,38 @@
 package com.serkowski.productservice.config;
 
+import com.serkowski.productservice.coalescer.ItemClaimCoalescer;
+import com.serkowski.productservice.id.TimeOrderedIdGenerator;
 import com.serkowski.productservice.repository.product.item.ProductItemReadRepository;
 import com.serkowski.productservice.repository.product.item.ProductItemWriteRepository;
 import com.serkowski.productservice.service.api.ProductInnerService;
 import com.serkowski.productservice.service.api.ProductItemService;
+import com.serkowski.productservice.service.api.ProductStockService;
 import com.serkowski.productservice.service.impl.ProductItemServiceImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.IdGenerator;
 
 @Configuration
+@EnableConfigurationProperties({ReservationProperties.class, ProductItemIngestProperties.class, ProductCacheProperties.class,
+        ProductCatalogProperties.class, ProductSearchProperties.class, ProductViewProperties.class,
+        ReadPreferenceProperties.class})
 public class ProductConfig {
 
+    @Bean
+    @ConditionalOnMissingBean(IdGenerator.class)
+    public IdGenerator idGenerator() {
+        return new TimeOrderedIdGenerator();
+    }
+
     public ProductItemService productItemService(ProductInnerService productInnerService,
+                                                 ProductStockService productStockService,
                                                  ProductItemReadRepository productItemReadRepository,
-                                                 ProductItemWriteRepository productItemWriteRepository) {
-        return new ProductItemServiceImpl(productInnerService, productItemReadRepository, productItemWriteRepository);
+                                                 ProductItemWriteRepository productItemWriteRepository,
+                                                 ItemClaimCoalescer itemClaimCoalescer,
+                                                 IdGenerator idGenerator) {
+        return new ProductItemServiceImpl(productInnerService, productStockService, productItemReadRepository, productItemWriteRepository,
+                itemClaimCoalescer, idGenerator);
     }
 }
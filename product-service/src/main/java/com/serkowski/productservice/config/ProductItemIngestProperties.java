@@ -0,0 +1,16 @@
+package com.serkowski.productservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "product.item.ingest")
+@Getter
+@Setter
+public class ProductItemIngestProperties {
+
+    /**
+     * Amount of uploaded items inserted with one unordered bulk write.
+     */
+    private int batchSize = 500;
+}
@@ -0,0 +1,27 @@
+package com.serkowski.productservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "product.search")
+@Getter
+@Setter
+public class ProductSearchProperties {
+
+    /**
+     * Build the search index from the product collection on application start and keep it updated by product writes.
+     * When disabled, product search is unavailable.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Amount of indexed terms a prefix of the last query word is expanded to.
+     */
+    private int maxPrefixTerms = 64;
+
+    /**
+     * Amount of products fetched from the database cursor at once while the index is built.
+     */
+    private int loadBatchSize = 1000;
+}
@@ -0,0 +1,23 @@
+package com.serkowski.productservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "product.view")
+@Getter
+@Setter
+public class ProductViewProperties {
+
+    /**
+     * When the product views are regenerated from the product and stock collections on application start. Start
+     * once with {@code always} to repair views which went out of sync.
+     */
+    private RebuildMode rebuild = RebuildMode.IF_EMPTY;
+
+    public enum RebuildMode {
+        NEVER,
+        IF_EMPTY,
+        ALWAYS
+    }
+}
@@ -0,0 +1,32 @@
+package com.serkowski.productservice.config;
+
+import com.serkowski.productservice.repository.product.ProductReadRepositoryCustom;
+import com.serkowski.productservice.repository.product.ProductReadRepositoryImpl;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.util.Map;
+
+/**
+ * Routes catalog and product view queries to their own template. The custom product read implementation is declared
+ * here, so the repository scan uses it instead of creating its own. Single product views fill the product cache, so
+ * they keep the default template reading from the primary. Derived queries and all other repositories, including
+ * product item and reservation reads, keep it too, because they read back what the service has just written.
+ */
+@Configuration
+public class ReadPreferenceConfig {
+
+    @Bean
+    public ReadPreferenceTemplates readPreferenceTemplates(ReactiveMongoTemplate mongoTemplate,
+                                                           ReadPreferenceProperties readPreferenceProperties) {
+        return new ReadPreferenceTemplates(mongoTemplate, Map.of(
+                ProductReadRepositoryCustom.class, readPreferenceProperties.getProduct()));
+    }
+
+    @Bean
+    public ProductReadRepositoryImpl productReadRepositoryImpl(ReadPreferenceTemplates readPreferenceTemplates,
+                                                               ReactiveMongoTemplate mongoTemplate) {
+        return new ProductReadRepositoryImpl(readPreferenceTemplates.get(ProductReadRepositoryCustom.class), mongoTemplate);
+    }
+}
@@ -0,0 +1,47 @@
+package com.serkowski.productservice.config;
+
+import com.mongodb.ReadPreference;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@ConfigurationProperties(prefix = "product.read-preference")
+@Getter
+@Setter
+public class ReadPreferenceProperties {
+
+    /**
+     * Catalog pages, exports, search loading and views of searched products. This traffic can be moved to secondaries
+     * with {@code secondaryPreferred}. Lookups following writes, like checking which products exist, and single
+     * product views filling the product cache always read from the primary, as do all reads of product items and
+     * reservations.
+     */
+    private final Route product = new Route();
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        /**
+         * Read preference mode, e.g. {@code primary}, {@code primaryPreferred} or {@code secondaryPreferred}.
+         */
+        private String mode = "primary";
+
+        /**
+         * How far a secondary may lag behind the primary to still serve reads, at least 90 seconds. Not allowed with
+         * the {@code primary} mode.
+         */
+        private Duration maxStaleness;
+
+        public ReadPreference toReadPreference() {
+            if (maxStaleness == null) {
+                return ReadPreference.valueOf(mode);
+            }
+            return ReadPreference.valueOf(mode, List.of(), maxStaleness.toSeconds(), TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.serkowski.productservice.config;
+
+import com.mongodb.ReadPreference;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Templates used by custom read repository implementations, each one reading with the read preference configured for
+ * its repository. Repositories reading from the primary share the default template.
+ */
+public class ReadPreferenceTemplates {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Map<Class<?>, ReactiveMongoTemplate> templates = new HashMap<>();
+
+    public ReadPreferenceTemplates(ReactiveMongoTemplate mongoTemplate, Map<Class<?>, ReadPreferenceProperties.Route> routes) {
+        this.mongoTemplate = mongoTemplate;
+        routes.forEach((repositoryInterface, route) -> templates.put(repositoryInterface, template(route.toReadPreference())));
+    }
+
+    /**
+     * @param repositoryInterface interface of the repository
+     * @return template of the repository, or the default template when no read preference was configured for it
+     */
+    public ReactiveMongoTemplate get(Class<?> repositoryInterface) {
+        return templates.getOrDefault(repositoryInterface, mongoTemplate);
+    }
+
+    private ReactiveMongoTemplate template(ReadPreference readPreference) {
+        if (ReadPreference.primary().equals(readPreference)) {
+            return mongoTemplate;
+        }
+        ReactiveMongoTemplate template = new ReactiveMongoTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter());
+        template.setReadPreference(readPreference);
+        return template;
+    }
+}
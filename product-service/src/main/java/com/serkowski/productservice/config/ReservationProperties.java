@@ -0,0 +1,62 @@
+package com.serkowski.productservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "product.reservation")
+@Getter
+@Setter
+public class ReservationProperties {
+
+    /**
+     * How long reserved items are held before an unconfirmed reservation expires.
+     */
+    private Duration ttl = Duration.ofMinutes(15);
+
+    private final Sweeper sweeper = new Sweeper();
+
+    private final Coalescer coalescer = new Coalescer();
+
+    @Getter
+    @Setter
+    public static class Sweeper {
+
+        /**
+         * Amount of expired reservations released with one bulk unlock.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Upper limit of batches released by a single sweeper run.
+         */
+        private int maxBatches = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class Coalescer {
+
+        /**
+         * Whether concurrent reservations of the same product get their items claimed together.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long the first reservation of a batch waits for other reservations of the same product.
+         */
+        private Duration window = Duration.ofMillis(5);
+
+        /**
+         * Amount of reservations which close the batch before its window ends.
+         */
+        private int maxBatch = 64;
+
+        /**
+         * How long a reservation waits to be taken into a batch before it claims its items one by one.
+         */
+        private Duration timeout = Duration.ofSeconds(1);
+    }
+}
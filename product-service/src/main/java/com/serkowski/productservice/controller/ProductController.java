@@ -1,15 +1,24 @@
 package com.serkowski.productservice.controller;
 
 import com.serkowski.productservice.dto.ProductDto;
+import com.serkowski.productservice.dto.ProductExportDto;
+import com.serkowski.productservice.dto.ProductPageDto;
+import com.serkowski.productservice.dto.request.ProductCatalogRequestDto;
+import com.serkowski.productservice.service.api.ProductCatalogService;
 import com.serkowski.productservice.service.api.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/product")
@@ -18,35 +27,71 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductCatalogService productCatalogService;
+    private final ProductLinkFactory productLinkFactory;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<ProductDto> placeProduct(@Valid @RequestBody ProductDto productRequest) {
-        ProductDto response = productService.placeProduct(productRequest);
-        response.add(linkTo(ProductController.class).slash(response.getId()).withSelfRel());
-        return Mono.just(response);
+        return productService.placeProduct(productRequest)
+                .doOnNext(response -> response.add(productLinkFactory.productSelf(response.getId())));
     }
 
     @PutMapping
     @ResponseStatus(HttpStatus.OK)
     public Mono<ProductDto> updateProduct(@RequestBody ProductDto productRequest) {
-        ProductDto response = productService.updateProduct(productRequest);
-        response.add(linkTo(ProductController.class).slash(response.getId()).withSelfRel());
-        return Mono.just(response);
+        return productService.updateProduct(productRequest)
+                .doOnNext(response -> response.add(productLinkFactory.productSelf(response.getId())));
     }
 
     @GetMapping("/{productId}")
     @ResponseStatus(HttpStatus.OK)
     public Mono<ProductDto> getProduct(@PathVariable String productId) {
-        ProductDto response = productService.getProductById(productId);
-        response.add(linkTo(ProductController.class).slash(response.getId()).withSelfRel());
-        return Mono.just(response);
+        return productService.getProductById(productId)
+                .doOnNext(response -> response.add(productLinkFactory.productSelf(response.getId())));
     }
 
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<ProductPageDto> getCatalogPage(ProductCatalogRequestDto catalogRequest) {
+        return productCatalogService.getCatalogPage(catalogRequest)
+                .doOnNext(response -> {
+                    response.getProducts().forEach(product -> product.add(productLinkFactory.productSelf(product.getId())));
+                    if (response.getNextCursor() != null) {
+                        response.add(nextPageLink(catalogRequest, response.getNextCursor()));
+                    }
+                });
+    }
+
+    @GetMapping("/search")
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<ProductDto> searchProducts(@RequestParam String query, @RequestParam(required = false) Integer limit) {
+        return productCatalogService.searchProducts(query, limit)
+                .doOnNext(response -> response.add(productLinkFactory.productSelf(response.getId())));
+    }
+
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<ProductExportDto> exportProducts(@RequestParam(defaultValue = "false") boolean availability) {
+        return productCatalogService.exportProducts(availability);
+    }
 
     @DeleteMapping("/{productId}")
     @ResponseStatus(HttpStatus.OK)
-    public void deleteProduct(@PathVariable String productId) {
-        productService.deleteProductById(productId);
+    public Mono<Void> deleteProduct(@PathVariable String productId) {
+        return productService.deleteProductById(productId);
+    }
+
+    private Link nextPageLink(ProductCatalogRequestDto catalogRequest, String nextCursor) {
+        return Link.of(UriComponentsBuilder.fromPath(productLinkFactory.productsPath())
+                .queryParamIfPresent("category", Optional.ofNullable(catalogRequest.getCategory()))
+                .queryParamIfPresent("tag", Optional.ofNullable(catalogRequest.getTag()))
+                .queryParamIfPresent("minPrice", Optional.ofNullable(catalogRequest.getMinPrice()))
+                .queryParamIfPresent("maxPrice", Optional.ofNullable(catalogRequest.getMaxPrice()))
+                .queryParamIfPresent("sort", Optional.ofNullable(catalogRequest.getSort()))
+                .queryParamIfPresent("size", Optional.ofNullable(catalogRequest.getSize()))
+                .queryParam("cursor", nextCursor)
+                .build()
+                .toUriString(), IanaLinkRelations.NEXT);
     }
 }
\ No newline at end of file
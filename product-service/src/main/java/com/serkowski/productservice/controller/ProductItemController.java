@@ -1,16 +1,18 @@
 package com.serkowski.productservice.controller;
 
 import com.serkowski.productservice.dto.ProductItemDto;
+import com.serkowski.productservice.dto.ProductItemIngestResultDto;
+import com.serkowski.productservice.service.api.ProductItemIngestService;
 import com.serkowski.productservice.service.api.ProductItemService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
 @RestController
 @RequestMapping("/api/product")
 @RequiredArgsConstructor
@@ -18,20 +20,26 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 public class ProductItemController {
 
     private final ProductItemService productItemService;
+    private final ProductItemIngestService productItemIngestService;
+    private final ProductLinkFactory productLinkFactory;
 
     @PostMapping("/{productId}/add-item")
     @ResponseStatus(HttpStatus.OK)
     public Mono<ProductItemDto> addItem(@PathVariable String productId, @Valid @RequestBody ProductItemDto productRequest) {
-        ProductItemDto response = productItemService.addItem(productId, productRequest);
-        response.add(linkTo(ProductItemController.class).slash(response.getId()).withSelfRel());
-        return Mono.just(response);
+        return productItemService.addItem(productId, productRequest)
+                .doOnNext(response -> response.add(productLinkFactory.itemSelf(response.getId())));
+    }
+
+    @PostMapping(value = "/{productId}/items", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<ProductItemIngestResultDto> addItems(@PathVariable String productId, @RequestBody Flux<ProductItemDto> items) {
+        return productItemIngestService.ingestItems(productId, items);
     }
 
     @GetMapping("/item/{productItemId}")
     @ResponseStatus(HttpStatus.OK)
     public Mono<ProductItemDto> getItem(@PathVariable String productItemId) {
-        ProductItemDto response = productItemService.getItemById(productItemId);
-        response.add(linkTo(ProductItemController.class).slash(response.getId()).withSelfRel());
-        return Mono.just(response);
+        return productItemService.getItemById(productItemId)
+                .doOnNext(response -> response.add(productLinkFactory.itemSelf(response.getId())));
     }
 }
\ No newline at end of file
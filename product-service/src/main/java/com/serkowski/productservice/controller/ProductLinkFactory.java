@@ -0,0 +1,54 @@
+package com.serkowski.productservice.controller;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Builds links to product and item resources. Paths of the controllers are resolved once at startup, so a link of a
+ * response is a string concatenation instead of controller introspection and URI building.
+ */
+@Component
+public class ProductLinkFactory {
+
+    private final String productsPath;
+    private final String productPathPrefix;
+    private final String itemPathPrefix;
+
+    public ProductLinkFactory() {
+        this.productsPath = linkTo(ProductController.class).toUri().toString();
+        this.productPathPrefix = productsPath + "/";
+        this.itemPathPrefix = linkTo(ProductItemController.class).slash("item").toUri().toString() + "/";
+    }
+
+    /**
+     * Path of the product collection, base of the catalog links.
+     *
+     * @return products path
+     */
+    public String productsPath() {
+        return productsPath;
+    }
+
+    /**
+     * Self link of the product.
+     *
+     * @param productId product id
+     * @return {@link Link}
+     */
+    public Link productSelf(Object productId) {
+        return Link.of(productPathPrefix + productId, IanaLinkRelations.SELF);
+    }
+
+    /**
+     * Self link of the product item.
+     *
+     * @param productItemId product item id
+     * @return {@link Link}
+     */
+    public Link itemSelf(Object productItemId) {
+        return Link.of(itemPathPrefix + productItemId, IanaLinkRelations.SELF);
+    }
+}
@@ -21,15 +21,14 @@ public class ReservationController {
     @PostMapping("/reserve")
     @ResponseStatus(HttpStatus.OK)
     public Mono<String> makeReservation(@Valid @RequestBody ReservationRequestDto reservationRequestDto) {
-        reservationService.reserve(reservationRequestDto);
-        return Mono.just("success");
+        return reservationService.reserve(reservationRequestDto)
+                .thenReturn("success");
     }
 
     @PostMapping("/unlock")
     @ResponseStatus(HttpStatus.OK)
-    public Mono<String> unlockReservation(@Valid @RequestBody UnlockReservationRequestDto unlockReservationRequestDto) {
-        reservationService.unlockReservation(unlockReservationRequestDto.getOrderNumber());
-        return Mono.just("success");
+    public Mono<Long> unlockReservation(@Valid @RequestBody UnlockReservationRequestDto unlockReservationRequestDto) {
+        return reservationService.unlockReservation(unlockReservationRequestDto.getOrderNumber());
     }
 
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.serkowski.productservice.controller;
 import com.serkowski.productservice.dto.ErrorHandlerItem;
 import com.serkowski.productservice.dto.ErrorHandlerResponse;
 import com.serkowski.productservice.model.error.ProductNotFound;
+import com.serkowski.productservice.model.error.SearchUnavailableException;
 import com.serkowski.productservice.model.error.ValidationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
@@ -47,4 +48,13 @@ public class RestResponseEntityExceptionHandler {
         response.setErrorMessage(ex.getMessage());
         return Mono.just(response);
     }
+
+    @ExceptionHandler(SearchUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public Mono<ErrorHandlerResponse> handleSearchUnavailable(SearchUnavailableException ex) {
+        ErrorHandlerResponse response = new ErrorHandlerResponse();
+        response.setErrorMessage(ex.getMessage());
+        return Mono.just(response);
+    }
 }
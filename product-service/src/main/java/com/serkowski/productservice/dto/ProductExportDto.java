@@ -0,0 +1,30 @@
+package com.serkowski.productservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductExportDto {
+
+    private UUID id;
+    private String name;
+    private String description;
+    private List<String> categories;
+    private List<String> tags;
+    private BigDecimal price;
+    private Map<String, String> specification;
+    private Long available;
+    private Long reserved;
+}
@@ -0,0 +1,25 @@
+package com.serkowski.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductItemIngestResultDto {
+
+    private long line;
+    private String serialNumber;
+    private UUID id;
+    private Status status;
+    private String message;
+
+    public enum Status {
+        CREATED, DUPLICATE, INVALID
+    }
+}
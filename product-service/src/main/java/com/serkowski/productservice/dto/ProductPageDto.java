@@ -0,0 +1,17 @@
+package com.serkowski.productservice.dto;
+
+import lombok.*;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
+
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPageDto extends RepresentationModel<ProductPageDto> {
+
+    private List<ProductDto> products;
+    private String nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.serkowski.productservice.dto.request;
+
+import com.serkowski.productservice.model.ProductCatalogSort;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductCatalogRequestDto {
+
+    private String category;
+    private String tag;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private ProductCatalogSort sort;
+    private String cursor;
+    private Integer size;
+}
@@ -0,0 +1,46 @@
+package com.serkowski.productservice.migration;
+
+import com.mongodb.client.result.UpdateResult;
+import com.serkowski.productservice.model.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Converts product prices stored as strings to decimals with a single server side update, so prices can be compared
+ * and sorted by the price indexes. Already converted prices don't match the update, so the migration can be safely
+ * run again. The application start waits until the migration is finished.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "product.migration.decimal-price.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductDecimalPriceMigration implements ApplicationRunner {
+
+    private static final String PRICE_FIELD = "price";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long converted = mongoTemplate.updateMulti(
+                        query(where(PRICE_FIELD).type(JsonSchemaObject.Type.stringType())),
+                        AggregationUpdate.update().set(PRICE_FIELD).toValue(ConvertOperators.valueOf(PRICE_FIELD).convertToDecimal()),
+                        Product.class)
+                .map(UpdateResult::getModifiedCount)
+                .block();
+        if (converted != null && converted > 0) {
+            log.info("Converted price of {} products to decimal", converted);
+        }
+    }
+}
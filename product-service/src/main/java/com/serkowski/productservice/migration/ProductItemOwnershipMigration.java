@@ -0,0 +1,87 @@
+package com.serkowski.productservice.migration;
+
+import com.mongodb.client.result.UpdateResult;
+import com.serkowski.productservice.model.Availability;
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.ProductItem;
+import com.serkowski.productservice.model.Reservation;
+import com.serkowski.productservice.model.ReservationStatus;
+import com.serkowski.productservice.service.api.ProductStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Moves ownership of product items from the legacy {@code product.items} reference array to the
+ * {@code product_item.productId} field. Every migrated product gets its items tagged with its id, its stock counted
+ * again and the array removed, so the migration can be safely run again after a partial run. Items of active
+ * reservations made before items carried their reservation id are tagged with it, so they can be unlocked by the
+ * reservation. The application start waits until the migration is finished.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "product.migration.item-ownership.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductItemOwnershipMigration implements ApplicationRunner {
+
+    private static final String ITEMS_FIELD = "items";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ProductStockService productStockService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String productCollection = mongoTemplate.getCollectionName(Product.class);
+        Query legacyProducts = query(where(ITEMS_FIELD).exists(true));
+        legacyProducts.fields().include(ITEMS_FIELD);
+        Long migrated = mongoTemplate.find(legacyProducts, Document.class, productCollection)
+                .concatMap(product -> migrateProduct(product, productCollection))
+                .count()
+                .block();
+        if (migrated != null && migrated > 0) {
+            log.info("Moved item ownership of {} products to product items", migrated);
+        }
+        Long tagged = mongoTemplate.find(query(where("reservationStatus").is(ReservationStatus.ACTIVE)), Reservation.class)
+                .filter(reservation -> reservation.getProductItems() != null && !reservation.getProductItems().isEmpty())
+                .concatMap(this::tagReservedItems)
+                .map(UpdateResult::getModifiedCount)
+                .reduce(0L, Long::sum)
+                .block();
+        if (tagged != null && tagged > 0) {
+            log.info("Tagged {} reserved items with their reservation", tagged);
+        }
+    }
+
+    private Mono<UpdateResult> tagReservedItems(Reservation reservation) {
+        return mongoTemplate.updateMulti(
+                query(where("_id").in(reservation.getProductItems())
+                        .and("availability").is(Availability.RESERVED)
+                        .and("reservationId").exists(false)),
+                new Update().set("reservationId", reservation.getId()),
+                ProductItem.class);
+    }
+
+    private Mono<UpdateResult> migrateProduct(Document product, String productCollection) {
+        Object productId = product.get("_id");
+        List<Object> itemIds = product.getList(ITEMS_FIELD, Object.class, List.of());
+        Mono<UpdateResult> tagItems = itemIds.isEmpty()
+                ? Mono.empty()
+                : mongoTemplate.updateMulti(query(where("_id").in(itemIds)), new Update().set("productId", productId), ProductItem.class);
+        return tagItems
+                .then(productStockService.rebuildStock(productId.toString()))
+                .then(mongoTemplate.updateFirst(query(where("_id").is(productId)), new Update().unset(ITEMS_FIELD), productCollection));
+    }
+}
@@ -0,0 +1,41 @@
+package com.serkowski.productservice.migration;
+
+import com.serkowski.productservice.config.ProductViewProperties;
+import com.serkowski.productservice.repository.product.ProductReadRepository;
+import com.serkowski.productservice.repository.product.view.ProductViewWriteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regenerates product views from the product and stock collections. By default it only fills the views when there
+ * are none yet, like on the first start with the read model. The application start waits until the views are written.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductViewRebuild implements ApplicationRunner {
+
+    private final ProductReadRepository productReadRepository;
+    private final ProductViewWriteRepository productViewWriteRepository;
+    private final ProductViewProperties productViewProperties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long rebuilt = switch (productViewProperties.getRebuild()) {
+            case NEVER -> null;
+            case IF_EMPTY -> productViewWriteRepository.count()
+                    .filter(views -> views == 0)
+                    .flatMap(views -> productReadRepository.count())
+                    .filter(products -> products > 0)
+                    .flatMap(products -> productViewWriteRepository.rebuild())
+                    .block();
+            case ALWAYS -> productViewWriteRepository.rebuild().block();
+        };
+        if (rebuilt != null) {
+            log.info("Rebuilt views of {} products", rebuilt);
+        }
+    }
+}
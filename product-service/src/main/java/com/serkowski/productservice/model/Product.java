@@ -2,14 +2,24 @@ package com.serkowski.productservice.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.DocumentReference;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
 @Document(value = "product")
+@CompoundIndexes({
+        @CompoundIndex(name = "category_id", def = "{'categories': 1, '_id': 1}"),
+        @CompoundIndex(name = "tag_id", def = "{'tags': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_price", def = "{'categories': 1, 'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "tag_price", def = "{'tags': 1, 'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "price_id", def = "{'price': 1, '_id': 1}")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -23,9 +33,7 @@ public class Product {
     private String description;
     private List<String> categories;
     private List<String> tags;
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal price;
     private Map<String, String> specification;
-
-    @DocumentReference(lazy = true)
-    List<ProductItem> items;
 }
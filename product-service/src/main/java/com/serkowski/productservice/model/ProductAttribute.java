@@ -0,0 +1,39 @@
+package com.serkowski.productservice.model;
+
+import lombok.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One entry of a product specification, stored as a name and value pair so every entry can be queried and indexed by
+ * the same fields.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ProductAttribute {
+
+    private String name;
+    private String value;
+
+    public static List<ProductAttribute> fromSpecification(Map<String, String> specification) {
+        if (specification == null) {
+            return List.of();
+        }
+        return specification.entrySet().stream()
+                .map(entry -> new ProductAttribute(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    public static Map<String, String> toSpecification(List<ProductAttribute> attributes) {
+        Map<String, String> specification = new LinkedHashMap<>();
+        if (attributes != null) {
+            attributes.forEach(attribute -> specification.put(attribute.getName(), attribute.getValue()));
+        }
+        return specification;
+    }
+}
@@ -0,0 +1,5 @@
+package com.serkowski.productservice.model;
+
+public enum ProductCatalogSort {
+    ID, PRICE_ASC, PRICE_DESC
+}
@@ -2,6 +2,7 @@ package com.serkowski.productservice.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -13,12 +14,17 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Document(value = "product_item")
+@CompoundIndex(name = "product_availability", def = "{'productId': 1, 'availability': 1}")
 public class ProductItem {
 
     @Id
     private String id;
+    private String productId;
     private Availability availability;
     @Indexed(unique = true)
     private String serialNumber;
     private LocalDateTime updateDate;
+    private LocalDateTime reservationTimeDate;
+    @Indexed(sparse = true)
+    private String reservationId;
 }
@@ -0,0 +1,30 @@
+package com.serkowski.productservice.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Document(value = "product_stock")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ProductStock {
+
+    @Id
+    private String productId;
+    private long available;
+    private long reserved;
+    private long inDelivery;
+    private long delivered;
+
+    public static String counterOf(Availability availability) {
+        return switch (availability) {
+            case AVAILABLE -> "available";
+            case RESERVED -> "reserved";
+            case IN_DELIVERY -> "inDelivery";
+            case DELIVERED_TO_CLIENT -> "delivered";
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.serkowski.productservice.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Read model of a product: its details with the specification flattened to attributes and its availability
+ * counters, so a product is served by one document without joins. It is kept in sync by the write paths of products
+ * and their stock and can be regenerated from the source collections at any time.
+ */
+@Document(value = "product_view")
+@CompoundIndex(name = "attribute", def = "{'attributes.name': 1, 'attributes.value': 1}")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ProductView {
+
+    @Id
+    private String id;
+    private String name;
+    private String description;
+    private List<String> categories;
+    private List<String> tags;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal price;
+    private List<ProductAttribute> attributes;
+    private long available;
+    private long reserved;
+}
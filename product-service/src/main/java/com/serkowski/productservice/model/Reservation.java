@@ -2,6 +2,8 @@ package com.serkowski.productservice.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 
@@ -11,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 
 @Document(value = "reservation")
+@CompoundIndex(name = "status_expiry", def = "{'reservationStatus': 1, 'expiresAt': 1}")
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -20,8 +23,10 @@ public class Reservation {
 
     @Id
     private String id;
+    @Indexed(unique = true)
     private String orderNumber;
     private List<String> productItems;
     private LocalDateTime date;
     private ReservationStatus reservationStatus;
+    private LocalDateTime expiresAt;
 }
@@ -1,5 +1,5 @@
 package com.serkowski.productservice.model;
 
 public enum ReservationStatus {
-    ACTIVE, CANCELED, FINISHED
+    ACTIVE, CANCELED, FINISHED, EXPIRED
 }
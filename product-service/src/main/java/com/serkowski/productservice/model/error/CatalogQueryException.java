@@ -0,0 +1,7 @@
+package com.serkowski.productservice.model.error;
+
+public class CatalogQueryException extends ValidationException {
+    public CatalogQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.serkowski.productservice.repository.product;
+
+import com.serkowski.productservice.model.ProductCatalogSort;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters and position of a catalog page. Every filter is optional, the position is empty for the first page.
+ */
+@Builder
+@Getter
+public class ProductCatalogQuery {
+
+    private final String category;
+    private final String tag;
+    private final BigDecimal minPrice;
+    private final BigDecimal maxPrice;
+    @Builder.Default
+    private final ProductCatalogSort sort = ProductCatalogSort.ID;
+    private final BigDecimal afterPrice;
+    private final String afterId;
+    private final int limit;
+}
@@ -1,8 +1,14 @@
 package com.serkowski.productservice.repository.product;
 
 import com.serkowski.productservice.model.Product;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
 
-public interface ProductReadRepository extends MongoRepository<Product, String> {
+import java.util.Collection;
 
+public interface ProductReadRepository extends ReactiveMongoRepository<Product, String>, ProductReadRepositoryCustom {
+
+    @Query(value = "{'_id': {$in: ?0}}", fields = "{'_id': 1}")
+    Flux<Product> findIdsByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,51 @@
+package com.serkowski.productservice.repository.product;
+
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.ProductView;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ProductReadRepositoryCustom {
+
+    /**
+     * Find a page of catalog products, starting right after the position of the previous page.
+     *
+     * @param catalogQuery filters, order and position of the page
+     * @return products of the page
+     */
+    Flux<Product> findCatalogPage(ProductCatalogQuery catalogQuery);
+
+    /**
+     * Stream every product from a single database cursor.
+     *
+     * @param batchSize amount of products fetched from the cursor at once
+     * @return all products
+     */
+    Flux<Product> streamProducts(int batchSize);
+
+    /**
+     * Find the read model of the product on the primary.
+     *
+     * @param productId product id
+     * @return {@link ProductView} or empty when product not exist
+     */
+    Mono<ProductView> findViewById(String productId);
+
+    /**
+     * Find read models of the products.
+     *
+     * @param productIds product ids
+     * @return read models of existing products, in no particular order
+     */
+    Flux<ProductView> findViewsByIdIn(Collection<String> productIds);
+
+    /**
+     * Stream read models of every product from a single database cursor.
+     *
+     * @param batchSize amount of products fetched from the cursor at once
+     * @return read models of all products
+     */
+    Flux<ProductView> streamProductViews(int batchSize);
+}
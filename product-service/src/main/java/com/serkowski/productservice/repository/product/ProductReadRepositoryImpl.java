@@ -0,0 +1,104 @@
+package com.serkowski.productservice.repository.product;
+
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.ProductView;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class ProductReadRepositoryImpl implements ProductReadRepositoryCustom {
+
+    private static final String ID = "_id";
+    private static final String PRICE = "price";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReactiveMongoTemplate primaryTemplate;
+
+    /**
+     * The page starts with a range on the sort keys instead of a skip, so the index matching the filters is entered
+     * right at the page and deep pages cost the same as the first one. Pages ordered by price skip products whose
+     * price is not stored as a decimal yet.
+     */
+    @Override
+    public Flux<Product> findCatalogPage(ProductCatalogQuery catalogQuery) {
+        List<Document> conditions = new ArrayList<>();
+        if (catalogQuery.getCategory() != null) {
+            conditions.add(new Document("categories", catalogQuery.getCategory()));
+        }
+        if (catalogQuery.getTag() != null) {
+            conditions.add(new Document("tags", catalogQuery.getTag()));
+        }
+        if (catalogQuery.getMinPrice() != null) {
+            conditions.add(new Document(PRICE, new Document("$gte", new Decimal128(catalogQuery.getMinPrice()))));
+        }
+        if (catalogQuery.getMaxPrice() != null) {
+            conditions.add(new Document(PRICE, new Document("$lte", new Decimal128(catalogQuery.getMaxPrice()))));
+        }
+        Sort sort = switch (catalogQuery.getSort()) {
+            case ID -> {
+                if (catalogQuery.getAfterId() != null) {
+                    conditions.add(new Document(ID, new Document("$gt", catalogQuery.getAfterId())));
+                }
+                yield Sort.by(Sort.Direction.ASC, ID);
+            }
+            case PRICE_ASC -> priceOrder(catalogQuery, conditions, Sort.Direction.ASC, "$gte", "$gt");
+            case PRICE_DESC -> priceOrder(catalogQuery, conditions, Sort.Direction.DESC, "$lte", "$lt");
+        };
+        Document filter = conditions.isEmpty() ? new Document() : new Document("$and", conditions);
+        return mongoTemplate.find(new BasicQuery(filter)
+                        .with(sort)
+                        .limit(catalogQuery.getLimit()),
+                Product.class);
+    }
+
+    @Override
+    public Flux<Product> streamProducts(int batchSize) {
+        return mongoTemplate.find(new Query().cursorBatchSize(batchSize), Product.class);
+    }
+
+    /**
+     * Read from the primary whatever the configured read preference, because the product cache is filled with it and
+     * a lagging secondary would put back the version just invalidated by an update for the whole cache ttl.
+     */
+    @Override
+    public Mono<ProductView> findViewById(String productId) {
+        return primaryTemplate.findById(productId, ProductView.class);
+    }
+
+    @Override
+    public Flux<ProductView> findViewsByIdIn(Collection<String> productIds) {
+        return mongoTemplate.find(query(where(ID).in(productIds)), ProductView.class);
+    }
+
+    @Override
+    public Flux<ProductView> streamProductViews(int batchSize) {
+        return mongoTemplate.find(new Query().cursorBatchSize(batchSize), ProductView.class);
+    }
+
+    private Sort priceOrder(ProductCatalogQuery catalogQuery, List<Document> conditions, Sort.Direction direction,
+                            String fromPrice, String afterPrice) {
+        conditions.add(new Document(PRICE, new Document("$type", "decimal")));
+        if (catalogQuery.getAfterPrice() != null && catalogQuery.getAfterId() != null) {
+            Decimal128 price = new Decimal128(catalogQuery.getAfterPrice());
+            conditions.add(new Document(PRICE, new Document(fromPrice, price)));
+            conditions.add(new Document("$or", List.of(
+                    new Document(PRICE, new Document(afterPrice, price)),
+                    new Document(ID, new Document(afterPrice, catalogQuery.getAfterId())))));
+        }
+        return Sort.by(direction, PRICE, ID);
+    }
+}
@@ -1,7 +1,7 @@
 package com.serkowski.productservice.repository.product;
 
 import com.serkowski.productservice.model.Product;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 
-public interface ProductWriteRepository extends MongoRepository<Product, String> {
+public interface ProductWriteRepository extends ReactiveMongoRepository<Product, String>, ProductWriteRepositoryCustom {
 }
@@ -0,0 +1,15 @@
+package com.serkowski.productservice.repository.product;
+
+import com.serkowski.productservice.model.Product;
+import reactor.core.publisher.Mono;
+
+public interface ProductWriteRepositoryCustom {
+
+    /**
+     * Overwrite details of the product in place, without reading the product document first.
+     *
+     * @param product product id and its new details
+     * @return true when the product exists
+     */
+    Mono<Boolean> updateDetails(Product product);
+}
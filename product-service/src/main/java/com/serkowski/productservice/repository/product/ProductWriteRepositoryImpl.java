@@ -0,0 +1,31 @@
+package com.serkowski.productservice.repository.product;
+
+import com.serkowski.productservice.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class ProductWriteRepositoryImpl implements ProductWriteRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Boolean> updateDetails(Product product) {
+        return mongoTemplate.updateFirst(
+                        query(where("_id").is(product.getId())),
+                        new Update()
+                                .set("name", product.getName())
+                                .set("description", product.getDescription())
+                                .set("categories", product.getCategories())
+                                .set("tags", product.getTags())
+                                .set("price", product.getPrice())
+                                .set("specification", product.getSpecification()),
+                        Product.class)
+                .map(result -> result.getMatchedCount() == 1);
+    }
+}
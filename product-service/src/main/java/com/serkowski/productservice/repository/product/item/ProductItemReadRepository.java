@@ -1,18 +1,24 @@
 package com.serkowski.productservice.repository.product.item;
 
+import com.serkowski.productservice.model.Availability;
 import com.serkowski.productservice.model.ProductItem;
-import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.Collection;
 
-public interface ProductItemReadRepository extends MongoRepository<ProductItem, String> {
+public interface ProductItemReadRepository extends ReactiveMongoRepository<ProductItem, String>, ProductItemReadRepositoryCustom {
 
-    Optional<ProductItem> findBySerialNumber(String serialNumber);
+    Mono<ProductItem> findBySerialNumber(String serialNumber);
 
-    @Query("select p from ProductItem p where p.id in :ids")
-    List<ProductItem> findByIds(@Param("ids") List<String> ids);
+    Mono<Long> countByProductIdAndAvailability(String productId, Availability availability);
+
+    @Query(value = "{'reservationId': ?0}", fields = "{'_id': 1, 'productId': 1}")
+    Flux<ProductItem> findByReservationId(String reservationId);
+
+    @Query(value = "{'reservationId': {$in: ?0}}", fields = "{'_id': 1, 'productId': 1, 'reservationId': 1}")
+    Flux<ProductItem> findByReservationIdIn(Collection<String> reservationIds);
 
 }
@@ -0,0 +1,28 @@
+package com.serkowski.productservice.repository.product.item;
+
+import com.serkowski.productservice.model.ProductItem;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ProductItemReadRepositoryCustom {
+
+    /**
+     * Find candidate items of many products with a single query. Every product contributes at most the requested
+     * amount of its available items, only id and product id of the items are loaded.
+     *
+     * @param countByProduct amount of requested items by product id
+     * @return available items of the products
+     */
+    Flux<ProductItem> findAvailableItems(Map<String, Integer> countByProduct);
+
+    /**
+     * Count items still reserved by the given reservations, grouped on the server by product.
+     *
+     * @param reservationIds reservation ids
+     * @return amount of reserved items by product id
+     */
+    Mono<Map<String, Long>> countReservedItems(Collection<String> reservationIds);
+}
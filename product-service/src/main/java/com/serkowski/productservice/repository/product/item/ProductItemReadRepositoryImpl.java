@@ -0,0 +1,71 @@
+package com.serkowski.productservice.repository.product.item;
+
+import com.serkowski.productservice.model.Availability;
+import com.serkowski.productservice.model.ProductItem;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.limit;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class ProductItemReadRepositoryImpl implements ProductItemReadRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /**
+     * Items of every product are matched by their own {@code $unionWith} sub-pipeline, so each product is limited
+     * separately and every sub-pipeline is served by the (productId, availability) index.
+     */
+    @Override
+    public Flux<ProductItem> findAvailableItems(Map<String, Integer> countByProduct) {
+        if (countByProduct.isEmpty()) {
+            return Flux.empty();
+        }
+        String collection = mongoTemplate.getCollectionName(ProductItem.class);
+        List<AggregationOperation> operations = new ArrayList<>();
+        countByProduct.forEach((productId, count) -> {
+            List<AggregationOperation> availableItems = availableItems(productId, count);
+            if (operations.isEmpty()) {
+                operations.addAll(availableItems);
+            } else {
+                operations.add(UnionWithOperation.unionWith(collection).pipeline(availableItems));
+            }
+        });
+        return mongoTemplate.aggregate(newAggregation(operations), collection, ProductItem.class);
+    }
+
+    @Override
+    public Mono<Map<String, Long>> countReservedItems(Collection<String> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return mongoTemplate.aggregate(newAggregation(
+                                match(where("reservationId").in(reservationIds).and("availability").is(Availability.RESERVED.name())),
+                                group("productId").count().as("count")),
+                        mongoTemplate.getCollectionName(ProductItem.class),
+                        Document.class)
+                .collectMap(reserved -> reserved.getString("_id"), reserved -> reserved.get("count", Number.class).longValue());
+    }
+
+    private List<AggregationOperation> availableItems(String productId, int count) {
+        return List.of(
+                match(where("productId").is(productId).and("availability").is(Availability.AVAILABLE.name())),
+                limit(count),
+                project("productId"));
+    }
+}
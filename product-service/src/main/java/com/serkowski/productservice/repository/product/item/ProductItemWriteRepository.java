@@ -1,7 +1,10 @@
 package com.serkowski.productservice.repository.product.item;
 
 import com.serkowski.productservice.model.ProductItem;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
 
-public interface ProductItemWriteRepository extends MongoRepository<ProductItem, String> {
+public interface ProductItemWriteRepository extends ReactiveMongoRepository<ProductItem, String>, ProductItemWriteRepositoryCustom {
+
+    Mono<Void> deleteByProductId(String productId);
 }
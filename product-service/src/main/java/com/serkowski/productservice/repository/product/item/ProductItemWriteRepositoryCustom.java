@@ -0,0 +1,65 @@
+package com.serkowski.productservice.repository.product.item;
+
+import com.serkowski.productservice.model.ProductItem;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface ProductItemWriteRepositoryCustom {
+
+    /**
+     * Insert items with a single unordered bulk write. Items rejected by the unique serial number index don't stop
+     * the rest of the batch, any other write error fails the whole insert.
+     *
+     * @param productItems items to insert
+     * @return positions of items rejected as duplicates
+     */
+    Mono<Set<Integer>> insertItems(List<ProductItem> productItems);
+
+    /**
+     * Claim the given items for the reservation with a single update. Only items which are still AVAILABLE are
+     * switched to RESERVED, so an item can't be claimed by two reservations.
+     *
+     * @param reservationId   reservation id
+     * @param productItemIds  ids of candidate items
+     * @param reservationTime reservation time
+     * @return number of claimed items
+     */
+    Mono<Long> claimItems(String reservationId, Collection<String> productItemIds, LocalDateTime reservationTime);
+
+    /**
+     * Claim items for many reservations with a single unordered bulk write. Only items which are still AVAILABLE are
+     * switched to RESERVED.
+     *
+     * @param productItemIdsByReservation ids of candidate items by reservation id
+     * @param reservationTime             reservation time
+     * @return number of claimed items
+     */
+    Mono<Long> claimItems(Map<String, ? extends Collection<String>> productItemIdsByReservation, LocalDateTime reservationTime);
+
+    /**
+     * Reserve up to {@code count} available items of the product. Every item is claimed with a conditional update
+     * which only switches it from AVAILABLE to RESERVED, so an item can't be claimed by two reservations.
+     *
+     * @param reservationId   reservation id
+     * @param productId       product id
+     * @param count           amount of items to reserve
+     * @param reservationTime reservation time
+     * @return ids of claimed items
+     */
+    Flux<String> reserveAvailableItems(String reservationId, String productId, int count, LocalDateTime reservationTime);
+
+    /**
+     * Release all items of the given reservations with a single update, switching them back from RESERVED to
+     * AVAILABLE.
+     *
+     * @param reservationIds reservation ids
+     * @return number of released items
+     */
+    Mono<Long> releaseReservedItems(Collection<String> reservationIds);
+}
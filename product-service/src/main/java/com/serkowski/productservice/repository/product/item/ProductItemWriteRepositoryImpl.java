@@ -0,0 +1,127 @@
+package com.serkowski.productservice.repository.product.item;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.UpdateResult;
+import com.serkowski.productservice.model.Availability;
+import com.serkowski.productservice.model.ProductItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class ProductItemWriteRepositoryImpl implements ProductItemWriteRepositoryCustom {
+
+    private static final int DUPLICATE_KEY_CODE = 11000;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Set<Integer>> insertItems(List<ProductItem> productItems) {
+        if (productItems.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductItem.class)
+                .insert(productItems)
+                .execute()
+                .map(result -> Set.<Integer>of())
+                .onErrorResume(e -> duplicatesOnly(e) != null, e -> Mono.just(duplicatesOnly(e).getWriteErrors().stream()
+                        .map(BulkWriteError::getIndex)
+                        .collect(Collectors.toSet())));
+    }
+
+    @Override
+    public Mono<Long> claimItems(String reservationId, Collection<String> productItemIds, LocalDateTime reservationTime) {
+        if (productItemIds.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return mongoTemplate.updateMulti(
+                        query(where("_id").in(productItemIds).and("availability").is(Availability.AVAILABLE)),
+                        reserve(reservationId, reservationTime),
+                        ProductItem.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Mono<Long> claimItems(Map<String, ? extends Collection<String>> productItemIdsByReservation, LocalDateTime reservationTime) {
+        if (productItemIdsByReservation.isEmpty()) {
+            return Mono.just(0L);
+        }
+        ReactiveBulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductItem.class);
+        productItemIdsByReservation.forEach((reservationId, productItemIds) -> bulkOperations.updateMulti(
+                query(where("_id").in(productItemIds).and("availability").is(Availability.AVAILABLE)),
+                reserve(reservationId, reservationTime)));
+        return bulkOperations.execute()
+                .map(result -> (long) result.getModifiedCount());
+    }
+
+    @Override
+    public Flux<String> reserveAvailableItems(String reservationId, String productId, int count, LocalDateTime reservationTime) {
+        if (count <= 0) {
+            return Flux.empty();
+        }
+        Query availableItem = query(where("productId").is(productId).and("availability").is(Availability.AVAILABLE));
+        availableItem.fields().include("_id");
+        Update reserve = reserve(reservationId, reservationTime);
+        return Mono.defer(() -> mongoTemplate.findAndModify(availableItem, reserve, ProductItem.class))
+                .map(productItem -> Optional.of(productItem.getId()))
+                .defaultIfEmpty(Optional.empty())
+                .repeat(count - 1L)
+                .takeWhile(Optional::isPresent)
+                .map(Optional::get);
+    }
+
+    @Override
+    public Mono<Long> releaseReservedItems(Collection<String> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return mongoTemplate.updateMulti(
+                        query(where("reservationId").in(reservationIds).and("availability").is(Availability.RESERVED)),
+                        new Update()
+                                .set("availability", Availability.AVAILABLE)
+                                .unset("reservationTimeDate")
+                                .unset("reservationId")
+                                .set("updateDate", LocalDateTime.now()),
+                        ProductItem.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    /**
+     * The driver exception can be wrapped by the exception translation, so the whole cause chain is searched.
+     */
+    private MongoBulkWriteException duplicatesOnly(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulkWriteException) {
+                boolean duplicatesOnly = bulkWriteException.getWriteConcernError() == null && bulkWriteException.getWriteErrors().stream()
+                        .allMatch(writeError -> writeError.getCode() == DUPLICATE_KEY_CODE);
+                return duplicatesOnly ? bulkWriteException : null;
+            }
+        }
+        return null;
+    }
+
+    private Update reserve(String reservationId, LocalDateTime reservationTime) {
+        return new Update()
+                .set("availability", Availability.RESERVED)
+                .set("reservationId", reservationId)
+                .set("reservationTimeDate", reservationTime)
+                .set("updateDate", reservationTime);
+    }
+}
@@ -0,0 +1,7 @@
+package com.serkowski.productservice.repository.product.stock;
+
+import com.serkowski.productservice.model.ProductStock;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ProductStockWriteRepository extends ReactiveMongoRepository<ProductStock, String>, ProductStockWriteRepositoryCustom {
+}
@@ -0,0 +1,29 @@
+package com.serkowski.productservice.repository.product.stock;
+
+import com.serkowski.productservice.model.Availability;
+import reactor.core.publisher.Mono;
+
+public interface ProductStockWriteRepositoryCustom {
+
+    /**
+     * Move items between availability counters of the product. The counters are changed only when the source
+     * counter holds at least {@code count} items.
+     *
+     * @param productId product id
+     * @param from      source availability
+     * @param to        target availability
+     * @param count     amount of items
+     * @return true when counters were changed
+     */
+    Mono<Boolean> moveItems(String productId, Availability from, Availability to, long count);
+
+    /**
+     * Increment availability counter of the product.
+     *
+     * @param productId    product id
+     * @param availability availability counter to increment
+     * @param count        amount of items
+     * @return true when counters of the product exist and were changed
+     */
+    Mono<Boolean> addItems(String productId, Availability availability, long count);
+}
@@ -0,0 +1,38 @@
+package com.serkowski.productservice.repository.product.stock;
+
+import com.serkowski.productservice.model.Availability;
+import com.serkowski.productservice.model.ProductStock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import static com.serkowski.productservice.model.ProductStock.counterOf;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class ProductStockWriteRepositoryImpl implements ProductStockWriteRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Boolean> moveItems(String productId, Availability from, Availability to, long count) {
+        return mongoTemplate.updateFirst(
+                        query(where("_id").is(productId).and(counterOf(from)).gte(count)),
+                        new Update()
+                                .inc(counterOf(from), -count)
+                                .inc(counterOf(to), count),
+                        ProductStock.class)
+                .map(result -> result.getModifiedCount() == 1);
+    }
+
+    @Override
+    public Mono<Boolean> addItems(String productId, Availability availability, long count) {
+        return mongoTemplate.updateFirst(
+                        query(where("_id").is(productId)),
+                        new Update().inc(counterOf(availability), count),
+                        ProductStock.class)
+                .map(result -> result.getMatchedCount() == 1);
+    }
+}
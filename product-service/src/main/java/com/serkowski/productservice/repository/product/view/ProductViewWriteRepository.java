@@ -0,0 +1,7 @@
+package com.serkowski.productservice.repository.product.view;
+
+import com.serkowski.productservice.model.ProductView;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ProductViewWriteRepository extends ReactiveMongoRepository<ProductView, String>, ProductViewWriteRepositoryCustom {
+}
@@ -0,0 +1,44 @@
+package com.serkowski.productservice.repository.product.view;
+
+import com.serkowski.productservice.model.Product;
+import reactor.core.publisher.Mono;
+
+public interface ProductViewWriteRepositoryCustom {
+
+    /**
+     * Write details of the product to its view, the view is created when it's missing. Counters of the view are
+     * kept.
+     *
+     * @param product product
+     * @return completion signal
+     */
+    Mono<Void> saveDetails(Product product);
+
+    /**
+     * Change availability counters of the product view.
+     *
+     * @param productId product id
+     * @param available change of the available counter
+     * @param reserved  change of the reserved counter
+     * @return completion signal
+     */
+    Mono<Void> addCounters(String productId, long available, long reserved);
+
+    /**
+     * Overwrite availability counters of the product view.
+     *
+     * @param productId product id
+     * @param available available items
+     * @param reserved  reserved items
+     * @return completion signal
+     */
+    Mono<Void> setCounters(String productId, long available, long reserved);
+
+    /**
+     * Regenerate views of all products from the product and stock collections. The views are replaced at once when
+     * the regeneration is finished, so readers never see a partial result.
+     *
+     * @return amount of product views
+     */
+    Mono<Long> rebuild();
+}
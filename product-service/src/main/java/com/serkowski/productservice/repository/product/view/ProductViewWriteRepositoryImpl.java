@@ -0,0 +1,100 @@
+package com.serkowski.productservice.repository.product.view;
+
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.ProductAttribute;
+import com.serkowski.productservice.model.ProductStock;
+import com.serkowski.productservice.model.ProductView;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class ProductViewWriteRepositoryImpl implements ProductViewWriteRepositoryCustom {
+
+    private static final String AVAILABLE = "available";
+    private static final String RESERVED = "reserved";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> saveDetails(Product product) {
+        return mongoTemplate.upsert(
+                        query(where("_id").is(product.getId())),
+                        new Update()
+                                .set("name", product.getName())
+                                .set("description", product.getDescription())
+                                .set("categories", product.getCategories())
+                                .set("tags", product.getTags())
+                                .set("price", product.getPrice())
+                                .set("attributes", ProductAttribute.fromSpecification(product.getSpecification())),
+                        ProductView.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> addCounters(String productId, long available, long reserved) {
+        return mongoTemplate.updateFirst(
+                        query(where("_id").is(productId)),
+                        new Update()
+                                .inc(AVAILABLE, available)
+                                .inc(RESERVED, reserved),
+                        ProductView.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> setCounters(String productId, long available, long reserved) {
+        return mongoTemplate.updateFirst(
+                        query(where("_id").is(productId)),
+                        new Update()
+                                .set(AVAILABLE, available)
+                                .set(RESERVED, reserved),
+                        ProductView.class)
+                .then();
+    }
+
+    /**
+     * The views are computed on the server and written with {@code $out}, which swaps the collection when the
+     * pipeline is finished and keeps its indexes. Counter changes made by other instances while the pipeline runs are
+     * overwritten by the swap, so a forced rebuild is meant for repairs rather than routine use.
+     */
+    @Override
+    public Mono<Long> rebuild() {
+        String viewCollection = mongoTemplate.getCollectionName(ProductView.class);
+        List<Document> pipeline = List.of(
+                new Document("$lookup", new Document("from", mongoTemplate.getCollectionName(ProductStock.class))
+                        .append("localField", "_id")
+                        .append("foreignField", "_id")
+                        .append("as", "stock")),
+                new Document("$project", new Document("name", 1)
+                        .append("description", 1)
+                        .append("categories", 1)
+                        .append("tags", 1)
+                        .append("price", new Document("$convert", new Document("input", "$price")
+                                .append("to", "decimal")
+                                .append("onError", null)
+                                .append("onNull", null)))
+                        .append("attributes", new Document("$map", new Document("input", new Document("$objectToArray",
+                                new Document("$ifNull", List.of("$specification", new Document()))))
+                                .append("as", "attribute")
+                                .append("in", new Document("name", "$$attribute.k").append("value", "$$attribute.v"))))
+                        .append(AVAILABLE, counter("$stock." + AVAILABLE))
+                        .append(RESERVED, counter("$stock." + RESERVED))),
+                new Document("$out", viewCollection));
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class))
+                .flatMap(products -> Mono.from(products.aggregate(pipeline).allowDiskUse(true).toCollection()))
+                .then(mongoTemplate.count(new Query(), viewCollection));
+    }
+
+    private Document counter(String stockField) {
+        return new Document("$ifNull", List.of(new Document("$arrayElemAt", List.of(stockField, 0)), 0L));
+    }
+}
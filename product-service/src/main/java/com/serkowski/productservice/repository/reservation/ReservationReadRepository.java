@@ -1,11 +1,19 @@
 package com.serkowski.productservice.repository.reservation;
 
 import com.serkowski.productservice.model.Reservation;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import com.serkowski.productservice.model.ReservationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
 
-public interface ReservationReadRepository extends MongoRepository<Reservation, String> {
+public interface ReservationReadRepository extends ReactiveMongoRepository<Reservation, String> {
 
-    Optional<Reservation> findByOrderNumber(String orderNumber);
+    Mono<Reservation> findByOrderNumber(String orderNumber);
+
+    Flux<Reservation> findByReservationStatusAndExpiresAtBeforeOrderByExpiresAtAsc(ReservationStatus reservationStatus,
+                                                                                    LocalDateTime expiresAt,
+                                                                                    Pageable pageable);
 }
@@ -1,8 +1,8 @@
 package com.serkowski.productservice.repository.reservation;
 
 import com.serkowski.productservice.model.Reservation;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 
-public interface ReservationWriteRepository extends MongoRepository<Reservation, String> {
+public interface ReservationWriteRepository extends ReactiveMongoRepository<Reservation, String>, ReservationWriteRepositoryCustom {
 
 }
@@ -0,0 +1,39 @@
+package com.serkowski.productservice.repository.reservation;
+
+import com.serkowski.productservice.model.Reservation;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReservationWriteRepositoryCustom {
+
+    /**
+     * Switch the reservation from ACTIVE to EXPIRED when it expired before the given time. The status is changed with
+     * a conditional update, so a reservation unlocked or expired concurrently is not expired again.
+     *
+     * @param reservationId reservation id
+     * @param now           current time
+     * @return expired reservation or empty when the reservation is no longer active
+     */
+    Mono<Reservation> expireReservation(String reservationId, LocalDateTime now);
+
+    /**
+     * Switch the active reservation of the order to CANCELED. The status is changed with a conditional update, so a
+     * reservation expired or canceled concurrently is not canceled again.
+     *
+     * @param orderNumber order number
+     * @return canceled reservation or empty when the order has no active reservation
+     */
+    Mono<Reservation> cancelReservation(String orderNumber);
+
+    /**
+     * Store items reserved for the active reservation. The items are set with a conditional update, so a reservation
+     * expired or canceled while its items were being reserved doesn't get them.
+     *
+     * @param reservationId reservation id
+     * @param productItems  ids of reserved items
+     * @return updated reservation or empty when the reservation is no longer active
+     */
+    Mono<Reservation> setProductItems(String reservationId, List<String> productItems);
+}
@@ -0,0 +1,52 @@
+package com.serkowski.productservice.repository.reservation;
+
+import com.serkowski.productservice.model.Reservation;
+import com.serkowski.productservice.model.ReservationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class ReservationWriteRepositoryImpl implements ReservationWriteRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Reservation> expireReservation(String reservationId, LocalDateTime now) {
+        return mongoTemplate.findAndModify(
+                query(where("_id").is(reservationId)
+                        .and("reservationStatus").is(ReservationStatus.ACTIVE)
+                        .and("expiresAt").lt(now)),
+                new Update().set("reservationStatus", ReservationStatus.EXPIRED),
+                FindAndModifyOptions.options().returnNew(true),
+                Reservation.class);
+    }
+
+    @Override
+    public Mono<Reservation> cancelReservation(String orderNumber) {
+        return mongoTemplate.findAndModify(
+                query(where("orderNumber").is(orderNumber)
+                        .and("reservationStatus").is(ReservationStatus.ACTIVE)),
+                new Update().set("reservationStatus", ReservationStatus.CANCELED),
+                FindAndModifyOptions.options().returnNew(true),
+                Reservation.class);
+    }
+
+    @Override
+    public Mono<Reservation> setProductItems(String reservationId, List<String> productItems) {
+        return mongoTemplate.findAndModify(
+                query(where("_id").is(reservationId)
+                        .and("reservationStatus").is(ReservationStatus.ACTIVE)),
+                new Update().set("productItems", productItems),
+                FindAndModifyOptions.options().returnNew(true),
+                Reservation.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.serkowski.productservice.scheduler;
+
+import com.serkowski.productservice.config.ReservationProperties;
+import com.serkowski.productservice.service.api.ReservationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically releases items held by reservations which were never confirmed or unlocked before their lease ended.
+ * Runs on the scheduler thread, so waiting for the result doesn't block the event loop.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "product.reservation.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationExpirySweeper {
+
+    private final ReservationService reservationService;
+    private final ReservationProperties reservationProperties;
+    private final Counter releasedItems;
+    private final DistributionSummary releasedItemsPerRun;
+
+    public ReservationExpirySweeper(ReservationService reservationService,
+                                    ReservationProperties reservationProperties,
+                                    MeterRegistry meterRegistry) {
+        this.reservationService = reservationService;
+        this.reservationProperties = reservationProperties;
+        this.releasedItems = Counter.builder("product.reservation.expired.items")
+                .description("Items released from expired reservations")
+                .register(meterRegistry);
+        this.releasedItemsPerRun = DistributionSummary.builder("product.reservation.sweeper.run.items")
+                .description("Items released by a single expired reservations sweeper run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${product.reservation.sweeper.interval:PT1M}",
+            initialDelayString = "${product.reservation.sweeper.interval:PT1M}")
+    public void releaseExpiredReservations() {
+        ReservationProperties.Sweeper sweeper = reservationProperties.getSweeper();
+        Long released = reservationService.releaseExpiredReservations(sweeper.getBatchSize(), sweeper.getMaxBatches())
+                .doOnError(e -> log.error("Releasing expired reservations failed", e))
+                .onErrorReturn(0L)
+                .block();
+        long count = released == null ? 0 : released;
+        releasedItems.increment(count);
+        releasedItemsPerRun.record(count);
+        if (count > 0) {
+            log.info("Released {} items of expired reservations", count);
+        }
+    }
+}
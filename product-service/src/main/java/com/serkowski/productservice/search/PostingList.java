@@ -0,0 +1,84 @@
+package com.serkowski.productservice.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted documents containing a term with the same weight, kept in a primitive array. Documents stay sorted as long
+ * as they are appended in increasing order.
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final int weight;
+    private int[] docs = new int[INITIAL_CAPACITY];
+    private int size;
+
+    PostingList(int weight) {
+        this.weight = weight;
+    }
+
+    void add(int doc) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+        }
+        docs[size++] = doc;
+    }
+
+    /**
+     * Find the first position at or after {@code from} holding a document not lower than {@code doc}. The search
+     * gallops forward first, so moving a cursor by a few documents doesn't pay for a search over the whole list.
+     *
+     * @return position of the document or {@link #size()} when every document is lower
+     */
+    int advance(int from, int doc) {
+        int low = from;
+        int step = 1;
+        int high = from;
+        while (high < size && docs[high] < doc) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        if (high >= size) {
+            high = size;
+        }
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (docs[middle] < doc) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    int docAt(int position) {
+        return docs[position];
+    }
+
+    int weight() {
+        return weight;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Drop deleted documents, move the rest to their new numbers and release unused capacity. New numbers keep the
+     * order of the documents, so the list stays sorted.
+     */
+    void compact(int[] renumbered) {
+        int kept = 0;
+        for (int position = 0; position < size; position++) {
+            int doc = renumbered[docs[position]];
+            if (doc >= 0) {
+                docs[kept++] = doc;
+            }
+        }
+        size = kept;
+        docs = Arrays.copyOf(docs, Math.max(kept, 1));
+    }
+}
@@ -0,0 +1,464 @@
+package com.serkowski.productservice.search;
+
+import com.serkowski.productservice.config.ProductSearchProperties;
+import com.serkowski.productservice.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index of product name, tags, description and specification values. Every indexed version of a
+ * product gets a new document number, so posting lists stay sorted by appending, and the replaced version is only
+ * marked as deleted until enough deleted documents pile up to compact the posting lists. Compaction renumbers the live
+ * documents in their order, so document numbers stay below the amount of documents ever live at once. The index holds
+ * only the writes made through this instance of the service, writes of other instances are seen after it's built
+ * again. When search is disabled, writes are ignored and nothing is found.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int TEXT_WEIGHT = 1;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+    private static final int MIN_PRODUCT_BY_DOC_CAPACITY = 1024;
+    private static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    private final boolean enabled;
+    private final int maxPrefixTerms;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, TermPostings> postings = new TreeMap<>();
+    private final Map<String, Integer> docByProduct = new HashMap<>();
+    private final Set<String> removedWhileLoading = new HashSet<>();
+    private BitSet deleted = new BitSet();
+    private String[] productByDoc = new String[MIN_PRODUCT_BY_DOC_CAPACITY];
+    private int nextDoc;
+    private int deletedCount;
+    private boolean loading;
+
+    public ProductSearchIndex(ProductSearchProperties productSearchProperties) {
+        this.enabled = productSearchProperties.isEnabled();
+        this.maxPrefixTerms = productSearchProperties.getMaxPrefixTerms();
+    }
+
+    /**
+     * @return whether products are indexed and searched
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Add the product to the index or replace its indexed version.
+     *
+     * @param product product
+     */
+    public void index(Product product) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDoc(product.getId());
+            addDoc(product);
+            compactWhenNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the product from the index.
+     *
+     * @param productId product id
+     */
+    public void remove(String productId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDoc(productId);
+            if (loading) {
+                removedWhileLoading.add(productId);
+            }
+            compactWhenNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Start loading the products stored before the application start. Products loaded until
+     * {@link #finishLoading()} don't replace products indexed or removed by writes made in the meantime.
+     */
+    public void startLoading() {
+        lock.writeLock().lock();
+        try {
+            loading = true;
+            removedWhileLoading.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a product read while loading, unless it was already changed by a write.
+     *
+     * @param product product
+     */
+    public void load(Product product) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!docByProduct.containsKey(product.getId()) && !removedWhileLoading.contains(product.getId())) {
+                addDoc(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishLoading() {
+        lock.writeLock().lock();
+        try {
+            loading = false;
+            removedWhileLoading.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find products containing every word of the query, the last word is matched as a prefix. Products are ranked by
+     * the sum of term weights, where a word in the name counts more than in tags and tags more than other text, and
+     * rare terms count more than frequent ones.
+     *
+     * @param query searched words
+     * @param limit max amount of products
+     * @return ids of found products, best ranked first
+     */
+    public List<String> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(query, tokens::add);
+        if (!enabled || tokens.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Clause> clauses = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                Clause clause = i == tokens.size() - 1 ? prefixClause(tokens.get(i)) : termClause(tokens.get(i));
+                if (clause.lists.isEmpty()) {
+                    return List.of();
+                }
+                clauses.add(clause);
+            }
+            PriorityQueue<Hit> hits = new PriorityQueue<>(limit + 1);
+            if (clauses.size() == 1) {
+                collectBest(clauses.get(0), hits, limit);
+            } else {
+                collectMatchingAll(clauses, hits, limit);
+            }
+            String[] productIds = new String[hits.size()];
+            for (int i = productIds.length - 1; i >= 0; i--) {
+                productIds[i] = productByDoc[hits.poll().doc];
+            }
+            return Arrays.asList(productIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return amount of indexed products
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return amount of document numbers in use, including deleted documents not compacted yet
+     */
+    int docCount() {
+        lock.readLock().lock();
+        try {
+            return nextDoc;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every document of a list scores the same, so lists are read from the best scoring one and reading stops as soon
+     * as the rest of the documents can't get into the result.
+     */
+    private void collectBest(Clause clause, PriorityQueue<Hit> hits, int limit) {
+        Integer[] order = new Integer[clause.lists.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> Float.compare(clause.scoreOf(second), clause.scoreOf(first)));
+        for (int index : order) {
+            float score = clause.scoreOf(index);
+            PostingList list = clause.lists.get(index);
+            for (int position = 0; position < list.size(); position++) {
+                if (hits.size() == limit && score <= hits.peek().score) {
+                    break;
+                }
+                int doc = list.docAt(position);
+                if (deleted.get(doc) || clause.terms > 1 && containsDoc(hits, doc)) {
+                    continue;
+                }
+                hits.add(new Hit(doc, score));
+                if (hits.size() > limit) {
+                    hits.poll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Documents of the clause with the fewest documents are checked against the other clauses, which only move
+     * their cursors forward.
+     */
+    private void collectMatchingAll(List<Clause> clauses, PriorityQueue<Hit> hits, int limit) {
+        Clause driver = clauses.get(0);
+        for (Clause clause : clauses) {
+            if (clause.cost < driver.cost) {
+                driver = clause;
+            }
+        }
+        for (int doc = driver.nextDoc(); doc != NO_MORE_DOCS; doc = driver.nextDoc()) {
+            if (deleted.get(doc)) {
+                continue;
+            }
+            float score = driver.score;
+            for (Clause clause : clauses) {
+                if (clause == driver) {
+                    continue;
+                }
+                float clauseScore = clause.advance(doc);
+                if (clauseScore == 0) {
+                    score = 0;
+                    break;
+                }
+                score += clauseScore;
+            }
+            if (score > 0 && (hits.size() < limit || score > hits.peek().score)) {
+                hits.add(new Hit(doc, score));
+                if (hits.size() > limit) {
+                    hits.poll();
+                }
+            }
+        }
+    }
+
+    private boolean containsDoc(PriorityQueue<Hit> hits, int doc) {
+        for (Hit hit : hits) {
+            if (hit.doc == doc) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addDoc(Product product) {
+        Map<String, Integer> weights = new HashMap<>();
+        Consumer<String> name = term -> weights.merge(term, NAME_WEIGHT, Integer::sum);
+        Consumer<String> tag = term -> weights.merge(term, TAG_WEIGHT, Integer::sum);
+        Consumer<String> text = term -> weights.merge(term, TEXT_WEIGHT, Integer::sum);
+        tokenize(product.getName(), name);
+        if (product.getTags() != null) {
+            product.getTags().forEach(value -> tokenize(value, tag));
+        }
+        tokenize(product.getDescription(), text);
+        if (product.getSpecification() != null) {
+            product.getSpecification().values().forEach(value -> tokenize(value, text));
+        }
+        int doc = nextDoc++;
+        if (doc == productByDoc.length) {
+            productByDoc = Arrays.copyOf(productByDoc, productByDoc.length * 2);
+        }
+        productByDoc[doc] = product.getId();
+        docByProduct.put(product.getId(), doc);
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new TermPostings()).add(doc, weight));
+    }
+
+    private void removeDoc(String productId) {
+        Integer doc = docByProduct.remove(productId);
+        if (doc != null) {
+            deleted.set(doc);
+            productByDoc[doc] = null;
+            deletedCount++;
+        }
+    }
+
+    private void compactWhenNeeded() {
+        if (deletedCount < MIN_DELETED_TO_COMPACT || deletedCount < docByProduct.size() / 4) {
+            return;
+        }
+        int[] renumbered = new int[nextDoc];
+        String[] compactedProductByDoc = new String[Math.max(MIN_PRODUCT_BY_DOC_CAPACITY, docByProduct.size())];
+        int live = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (deleted.get(doc)) {
+                renumbered[doc] = -1;
+            } else {
+                renumbered[doc] = live;
+                compactedProductByDoc[live] = productByDoc[doc];
+                docByProduct.put(productByDoc[doc], live);
+                live++;
+            }
+        }
+        postings.values().removeIf(term -> {
+            term.compact(renumbered);
+            return term.size() == 0;
+        });
+        productByDoc = compactedProductByDoc;
+        deleted = new BitSet();
+        nextDoc = live;
+        deletedCount = 0;
+    }
+
+    private Clause termClause(String term) {
+        Clause clause = new Clause();
+        TermPostings termPostings = postings.get(term);
+        if (termPostings != null) {
+            clause.add(termPostings, idf(termPostings));
+        }
+        return clause;
+    }
+
+    private Clause prefixClause(String prefix) {
+        Clause clause = new Clause();
+        for (TermPostings termPostings : postings.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            if (clause.terms == maxPrefixTerms) {
+                break;
+            }
+            clause.add(termPostings, idf(termPostings));
+        }
+        return clause;
+    }
+
+    private float idf(TermPostings termPostings) {
+        return (float) Math.log(1 + (double) Math.max(docByProduct.size(), 1) / termPostings.size());
+    }
+
+    static void tokenize(String text, Consumer<String> terms) {
+        if (text == null) {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean partOfTerm = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (partOfTerm && start < 0) {
+                start = i;
+            } else if (!partOfTerm && start >= 0) {
+                terms.accept(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Posting lists matching one query word, a document scores with the best of them. Documents are visited in
+     * increasing order, so every list keeps a cursor which only moves forward.
+     */
+    private static final class Clause {
+
+        private final List<PostingList> lists = new ArrayList<>();
+        private float[] idfs = new float[4];
+        private int[] positions = new int[4];
+        private int terms;
+        private long cost;
+        private float score;
+
+        void add(TermPostings termPostings, float idf) {
+            for (PostingList list : termPostings.lists()) {
+                if (lists.size() == idfs.length) {
+                    idfs = Arrays.copyOf(idfs, idfs.length * 2);
+                    positions = Arrays.copyOf(positions, positions.length * 2);
+                }
+                idfs[lists.size()] = idf;
+                lists.add(list);
+            }
+            terms++;
+            cost += termPostings.size();
+        }
+
+        float scoreOf(int index) {
+            return lists.get(index).weight() * idfs[index];
+        }
+
+        /**
+         * Move to the next document of any list and keep its score.
+         *
+         * @return next document or {@link #NO_MORE_DOCS}
+         */
+        int nextDoc() {
+            int doc = NO_MORE_DOCS;
+            for (int i = 0; i < lists.size(); i++) {
+                PostingList list = lists.get(i);
+                if (positions[i] < list.size()) {
+                    doc = Math.min(doc, list.docAt(positions[i]));
+                }
+            }
+            score = 0;
+            for (int i = 0; i < lists.size(); i++) {
+                PostingList list = lists.get(i);
+                if (positions[i] < list.size() && list.docAt(positions[i]) == doc) {
+                    score = Math.max(score, scoreOf(i));
+                    positions[i]++;
+                }
+            }
+            return doc;
+        }
+
+        /**
+         * Move every list to the given document.
+         *
+         * @return score of the document, 0 when no list contains it
+         */
+        float advance(int doc) {
+            float score = 0;
+            for (int i = 0; i < lists.size(); i++) {
+                PostingList list = lists.get(i);
+                positions[i] = list.advance(positions[i], doc);
+                if (positions[i] < list.size() && list.docAt(positions[i]) == doc) {
+                    score = Math.max(score, scoreOf(i));
+                }
+            }
+            return score;
+        }
+    }
+
+    private record Hit(int doc, float score) implements Comparable<Hit> {
+
+        @Override
+        public int compareTo(Hit other) {
+            int byScore = Float.compare(score, other.score);
+            return byScore != 0 ? byScore : Integer.compare(other.doc, doc);
+        }
+    }
+}
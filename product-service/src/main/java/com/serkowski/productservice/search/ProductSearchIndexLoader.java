@@ -0,0 +1,38 @@
+package com.serkowski.productservice.search;
+
+import com.serkowski.productservice.config.ProductSearchProperties;
+import com.serkowski.productservice.repository.product.ProductReadRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the search index from the product collection. The application start waits until every product is indexed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "product.search.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductSearchIndexLoader implements ApplicationRunner {
+
+    private final ProductReadRepository productReadRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSearchProperties productSearchProperties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        productSearchIndex.startLoading();
+        try {
+            productReadRepository.streamProducts(productSearchProperties.getLoadBatchSize())
+                    .doOnNext(productSearchIndex::load)
+                    .blockLast();
+        } finally {
+            productSearchIndex.finishLoading();
+        }
+        log.info("Indexed {} products for search in {} ms", productSearchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,71 @@
+package com.serkowski.productservice.search;
+
+import java.util.Arrays;
+
+/**
+ * Postings of one term split by the weight of the term in the document. Every document is in exactly one of the
+ * lists, and all documents of a list score the same, so the best documents of a term are found without visiting its
+ * lower weighted documents.
+ */
+final class TermPostings {
+
+    private PostingList[] byWeight = new PostingList[0];
+    private int size;
+
+    void add(int doc, int weight) {
+        if (weight >= byWeight.length) {
+            byWeight = Arrays.copyOf(byWeight, weight + 1);
+        }
+        if (byWeight[weight] == null) {
+            byWeight[weight] = new PostingList(weight);
+        }
+        byWeight[weight].add(doc);
+        size++;
+    }
+
+    /**
+     * @return lists with at least one document, by increasing weight
+     */
+    PostingList[] lists() {
+        int count = 0;
+        for (PostingList list : byWeight) {
+            if (list != null && list.size() > 0) {
+                count++;
+            }
+        }
+        PostingList[] lists = new PostingList[count];
+        int index = 0;
+        for (PostingList list : byWeight) {
+            if (list != null && list.size() > 0) {
+                lists[index++] = list;
+            }
+        }
+        return lists;
+    }
+
+    /**
+     * @return amount of documents containing the term, including deleted documents not compacted yet
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Drop deleted documents and move the rest to their new numbers.
+     *
+     * @param renumbered new number of every document, negative for deleted documents
+     */
+    void compact(int[] renumbered) {
+        size = 0;
+        for (int weight = 0; weight < byWeight.length; weight++) {
+            PostingList list = byWeight[weight];
+            if (list != null) {
+                list.compact(renumbered);
+                size += list.size();
+                if (list.size() == 0) {
+                    byWeight[weight] = null;
+                }
+            }
+        }
+    }
+}
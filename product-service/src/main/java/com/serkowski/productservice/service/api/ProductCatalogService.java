@@ -0,0 +1,38 @@
+package com.serkowski.productservice.service.api;
+
+import com.serkowski.productservice.dto.ProductDto;
+import com.serkowski.productservice.dto.ProductExportDto;
+import com.serkowski.productservice.dto.ProductPageDto;
+import com.serkowski.productservice.dto.request.ProductCatalogRequestDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ProductCatalogService {
+
+    /**
+     * Get a page of products matching the catalog filters. The next page is requested with the cursor returned with
+     * the current one.
+     *
+     * @param catalogRequest filters, cursor and size of the page
+     * @return {@link ProductPageDto} without next cursor when it's the last page
+     */
+    Mono<ProductPageDto> getCatalogPage(ProductCatalogRequestDto catalogRequest);
+
+    /**
+     * Stream the whole catalog. Products are read from the database only as fast as the client consumes them.
+     *
+     * @param withAvailability add available and reserved item counts to every product
+     * @return all products
+     */
+    Flux<ProductExportDto> exportProducts(boolean withAvailability);
+
+    /**
+     * Find products by words of their name, tags, description and specification values. The last word of the query
+     * also matches longer words starting with it.
+     *
+     * @param query searched words
+     * @param limit max amount of products, default page size when null
+     * @return found products, best ranked first
+     */
+    Flux<ProductDto> searchProducts(String query, Integer limit);
+}
@@ -1,8 +1,10 @@
 package com.serkowski.productservice.service.api;
 
 import com.serkowski.productservice.model.Product;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.Optional;
+import java.util.Collection;
 
 public interface ProductInnerService {
 
@@ -10,15 +12,24 @@ public interface ProductInnerService {
      * Get product by ID
      *
      * @param productId product id
-     * @return {@link Product}
+     * @return {@link Product} or empty when product not exist
      */
-    Optional<Product> findById(String productId);
+    Mono<Product> findById(String productId);
+
+    /**
+     * Find which of the given products exist, all of them are looked up with a single query.
+     *
+     * @param productIds product ids
+     * @return ids of existing products
+     */
+    Flux<String> findExistingIds(Collection<String> productIds);
 
 
     /**
      * Save updated product.
      *
      * @param product updated product
+     * @return saved {@link Product}
      */
-    void saveProduct(Product product);
+    Mono<Product> saveProduct(Product product);
 }
@@ -0,0 +1,18 @@
+package com.serkowski.productservice.service.api;
+
+import com.serkowski.productservice.dto.ProductItemDto;
+import com.serkowski.productservice.dto.ProductItemIngestResultDto;
+import reactor.core.publisher.Flux;
+
+public interface ProductItemIngestService {
+
+    /**
+     * Add a stream of items to the product. Items are inserted in batches while the stream is read, a line rejected
+     * because of a duplicated serial number doesn't stop the rest of its batch.
+     *
+     * @param productId product id
+     * @param items     uploaded items
+     * @return result of every uploaded line, in upload order
+     */
+    Flux<ProductItemIngestResultDto> ingestItems(String productId, Flux<ProductItemDto> items);
+}
@@ -2,7 +2,9 @@ package com.serkowski.productservice.service.api;
 
 import com.serkowski.productservice.dto.ProductItemDto;
 import com.serkowski.productservice.dto.request.ReserveItemDto;
+import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductItemService {
@@ -15,7 +17,7 @@ public interface ProductItemService {
      * @param productItemRequest product item request
      * @return {@link ProductItemDto}
      */
-    ProductItemDto addItem(String productId, ProductItemDto productItemRequest);
+    Mono<ProductItemDto> addItem(String productId, ProductItemDto productItemRequest);
 
     /**
      * Get product item by ID
@@ -23,20 +25,24 @@ public interface ProductItemService {
      * @param productItemId product item id
      * @return {@link ProductItemDto}
      */
-    ProductItemDto getItemById(String productItemId);
+    Mono<ProductItemDto> getItemById(String productItemId);
 
     /**
-     * Reserve items.
+     * Reserve items. Lines of the same product are merged and all products of the reservation are looked up, claimed
+     * and read back in batches, so the amount of queries doesn't grow with the amount of lines.
      *
-     * @param reserveItems list of items to reserve
+     * @param reservationId id of the reservation which owns the items
+     * @param reserveItems  list of items to reserve
      * @return ids of reserved items
      */
-    List<String> reserveItems(List<ReserveItemDto> reserveItems);
+    Mono<List<String>> reserveItems(String reservationId, List<ReserveItemDto> reserveItems);
 
     /**
-     * Unlock reserved items.
+     * Unlock all items still reserved by the given reservations. Items are switched back to AVAILABLE on the server
+     * with a single update, independent of the amount of items.
      *
-     * @param reserveItems list of items to unlock
+     * @param reservationIds ids of reservations whose items are unlocked
+     * @return number of unlocked items
      */
-    void unlockReservedItems(List<String> reserveItems);
+    Mono<Long> unlockReservedItems(Collection<String> reservationIds);
 }
@@ -0,0 +1,41 @@
+package com.serkowski.productservice.service.api;
+
+import com.serkowski.productservice.dto.ProductDto;
+import com.serkowski.productservice.dto.ProductExportDto;
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.ProductView;
+
+public interface ProductMapper {
+
+    /**
+     * Map {@link Product} to {@link ProductDto}
+     *
+     * @param product product
+     * @return {@link ProductDto}
+     */
+    ProductDto map(Product product);
+
+    /**
+     * Map {@link ProductView} to {@link ProductDto}
+     *
+     * @param productView product view
+     * @return {@link ProductDto}
+     */
+    ProductDto map(ProductView productView);
+
+    /**
+     * Map {@link Product} to {@link ProductExportDto} without item counters
+     *
+     * @param product product
+     * @return {@link ProductExportDto}
+     */
+    ProductExportDto mapToExport(Product product);
+
+    /**
+     * Map {@link ProductView} to {@link ProductExportDto} with item counters
+     *
+     * @param productView product view
+     * @return {@link ProductExportDto}
+     */
+    ProductExportDto mapToExport(ProductView productView);
+}
@@ -1,6 +1,7 @@
 package com.serkowski.productservice.service.api;
 
 import com.serkowski.productservice.dto.ProductDto;
+import reactor.core.publisher.Mono;
 
 public interface ProductService {
 
@@ -11,7 +12,7 @@ public interface ProductService {
      * @param productRequest request
      * @return {@link ProductDto}
      */
-    ProductDto placeProduct(ProductDto productRequest);
+    Mono<ProductDto> placeProduct(ProductDto productRequest);
 
     /**
      * Update already existing product
@@ -19,7 +20,7 @@ public interface ProductService {
      * @param productRequest request
      * @return {@link ProductDto}
      */
-    ProductDto updateProduct(ProductDto productRequest);
+    Mono<ProductDto> updateProduct(ProductDto productRequest);
 
     /**
      * Get product by id
@@ -27,12 +28,13 @@ public interface ProductService {
      * @param productId product id
      * @return {@link ProductDto}
      */
-    ProductDto getProductById(String productId);
+    Mono<ProductDto> getProductById(String productId);
 
     /**
      * Delete product by id
      *
      * @param productId product id
+     * @return completion signal
      */
-    void deleteProductById(String productId);
+    Mono<Void> deleteProductById(String productId);
 }
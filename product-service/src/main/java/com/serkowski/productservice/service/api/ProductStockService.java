@@ -0,0 +1,57 @@
+package com.serkowski.productservice.service.api;
+
+import reactor.core.publisher.Mono;
+
+public interface ProductStockService {
+
+    /**
+     * Create empty availability counters for the new product.
+     *
+     * @param productId product id
+     * @return completion signal
+     */
+    Mono<Void> createStock(String productId);
+
+    /**
+     * Move items of the product from available to reserved counter.
+     *
+     * @param productId product id
+     * @param count     amount of items to reserve
+     * @return false when product has not enough available items
+     */
+    Mono<Boolean> reserve(String productId, int count);
+
+    /**
+     * Move items of the product from reserved back to available counter.
+     *
+     * @param productId product id
+     * @param count     amount of items to release
+     * @return completion signal
+     */
+    Mono<Void> release(String productId, int count);
+
+    /**
+     * Register new available items of the product.
+     *
+     * @param productId product id
+     * @param count     amount of added items
+     * @return completion signal
+     */
+    Mono<Void> addAvailable(String productId, int count);
+
+    /**
+     * Count availability counters of the product again from its items.
+     *
+     * @param productId product id
+     * @return completion signal
+     */
+    Mono<Void> rebuildStock(String productId);
+
+    /**
+     * Delete availability counters of the product.
+     *
+     * @param productId product id
+     * @return completion signal
+     */
+    Mono<Void> deleteStock(String productId);
+}
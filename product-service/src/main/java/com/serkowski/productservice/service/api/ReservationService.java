@@ -1,20 +1,36 @@
 package com.serkowski.productservice.service.api;
 
 import com.serkowski.productservice.dto.request.ReservationRequestDto;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 public interface ReservationService {
 
     /**
-     * Reserve products.
+     * Reserve products. The reservation is idempotent on the order number, repeated request of the same order returns
+     * items reserved by the first one.
      *
      * @param reservationRequestDto list of products to reserve
+     * @return ids of reserved items
      */
-    void reserve(ReservationRequestDto reservationRequestDto);
+    Mono<List<String>> reserve(ReservationRequestDto reservationRequestDto);
 
     /**
-     * Unlock reserved products items.
+     * Cancel the active reservation of the order and unlock its items.
      *
      * @param orderNumber order number
+     * @return number of unlocked items, 0 when the order has no active reservation
+     */
+    Mono<Long> unlockReservation(String orderNumber);
+
+    /**
+     * Expire active reservations whose lease already ended and release their items. Reservations are expired in
+     * batches, items of every batch are released with one bulk unlock.
+     *
+     * @param batchSize  amount of reservations expired in one batch
+     * @param maxBatches upper limit of processed batches
+     * @return number of released items
      */
-    void unlockReservation(String orderNumber);
+    Mono<Long> releaseExpiredReservations(int batchSize, int maxBatches);
 }
@@ -0,0 +1,150 @@
+package com.serkowski.productservice.service.impl;
+
+import com.serkowski.productservice.config.ProductCatalogProperties;
+import com.serkowski.productservice.dto.ProductDto;
+import com.serkowski.productservice.dto.ProductExportDto;
+import com.serkowski.productservice.dto.ProductPageDto;
+import com.serkowski.productservice.dto.request.ProductCatalogRequestDto;
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.ProductCatalogSort;
+import com.serkowski.productservice.model.ProductView;
+import com.serkowski.productservice.model.error.CatalogQueryException;
+import com.serkowski.productservice.model.error.SearchUnavailableException;
+import com.serkowski.productservice.repository.product.ProductCatalogQuery;
+import com.serkowski.productservice.repository.product.ProductReadRepository;
+import com.serkowski.productservice.search.ProductSearchIndex;
+import com.serkowski.productservice.service.api.ProductCatalogService;
+import com.serkowski.productservice.service.api.ProductMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ProductCatalogServiceImpl implements ProductCatalogService {
+
+    private static final char CURSOR_SEPARATOR = ':';
+
+    private final ProductReadRepository productReadRepository;
+    private final ProductCatalogProperties productCatalogProperties;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductMapper productMapper;
+
+    /**
+     * One product more than the page size is read, so the last page is recognized without a count query.
+     */
+    @Override
+    public Mono<ProductPageDto> getCatalogPage(ProductCatalogRequestDto catalogRequest) {
+        int size = pageSize(catalogRequest.getSize());
+        if (size < 1 || size > productCatalogProperties.getMaxPageSize()) {
+            return Mono.error(this::wrongPageSize);
+        }
+        if (catalogRequest.getMinPrice() != null && catalogRequest.getMaxPrice() != null
+                && catalogRequest.getMinPrice().compareTo(catalogRequest.getMaxPrice()) > 0) {
+            return Mono.error(new CatalogQueryException("Min price can't be greater than max price"));
+        }
+        ProductCatalogSort sort = catalogRequest.getSort() == null ? ProductCatalogSort.ID : catalogRequest.getSort();
+        ProductCatalogQuery.ProductCatalogQueryBuilder catalogQuery = ProductCatalogQuery.builder()
+                .category(catalogRequest.getCategory())
+                .tag(catalogRequest.getTag())
+                .minPrice(catalogRequest.getMinPrice())
+                .maxPrice(catalogRequest.getMaxPrice())
+                .sort(sort)
+                .limit(size + 1);
+        try {
+            decodeCursor(catalogRequest.getCursor(), sort, catalogQuery);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new CatalogQueryException("Catalog cursor: " + catalogRequest.getCursor() + " is not valid"));
+        }
+        return productReadRepository.findCatalogPage(catalogQuery.build())
+                .collectList()
+                .map(products -> toPage(products, size, sort));
+    }
+
+    @Override
+    public Flux<ProductExportDto> exportProducts(boolean withAvailability) {
+        int batchSize = productCatalogProperties.getExportBatchSize();
+        if (withAvailability) {
+            return productReadRepository.streamProductViews(batchSize)
+                    .map(productMapper::mapToExport);
+        }
+        return productReadRepository.streamProducts(batchSize)
+                .map(productMapper::mapToExport);
+    }
+
+    /**
+     * Ids are found in the search index and the products are loaded with one query, then put back in rank order.
+     */
+    @Override
+    public Flux<ProductDto> searchProducts(String query, Integer limit) {
+        if (!productSearchIndex.isEnabled()) {
+            return Flux.error(new SearchUnavailableException("Product search is disabled"));
+        }
+        int size = pageSize(limit);
+        if (size < 1 || size > productCatalogProperties.getMaxPageSize()) {
+            return Flux.error(this::wrongPageSize);
+        }
+        return Flux.defer(() -> {
+            List<String> productIds = productSearchIndex.search(query, size);
+            if (productIds.isEmpty()) {
+                return Flux.empty();
+            }
+            return productReadRepository.findViewsByIdIn(productIds)
+                    .collectMap(ProductView::getId, productMapper::map)
+                    .flatMapIterable(products -> productIds.stream()
+                            .filter(products::containsKey)
+                            .map(products::get)
+                            .toList());
+        });
+    }
+
+    private int pageSize(Integer requested) {
+        return requested == null ? productCatalogProperties.getDefaultPageSize() : requested;
+    }
+
+    private CatalogQueryException wrongPageSize() {
+        return new CatalogQueryException("Page size need to be between 1 and " + productCatalogProperties.getMaxPageSize());
+    }
+
+    private ProductPageDto toPage(List<Product> products, int size, ProductCatalogSort sort) {
+        boolean hasNext = products.size() > size;
+        List<Product> page = hasNext ? products.subList(0, size) : products;
+        return ProductPageDto.builder()
+                .products(page.stream().map(productMapper::map).toList())
+                .nextCursor(hasNext ? encodeCursor(page.get(page.size() - 1), sort) : null)
+                .build();
+    }
+
+    /**
+     * Cursor holds sort keys of the last product of the page, id alone or price and id when ordered by price.
+     */
+    private String encodeCursor(Product product, ProductCatalogSort sort) {
+        String position = sort == ProductCatalogSort.ID
+                ? product.getId()
+                : product.getPrice().toPlainString() + CURSOR_SEPARATOR + product.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void decodeCursor(String cursor, ProductCatalogSort sort, ProductCatalogQuery.ProductCatalogQueryBuilder catalogQuery) {
+        if (cursor == null || cursor.isEmpty()) {
+            return;
+        }
+        String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (sort == ProductCatalogSort.ID) {
+            catalogQuery.afterId(position);
+            return;
+        }
+        int separator = position.indexOf(CURSOR_SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Cursor without price");
+        }
+        catalogQuery.afterPrice(new BigDecimal(position.substring(0, separator)))
+                .afterId(position.substring(separator + 1));
+    }
+}
@@ -6,8 +6,11 @@ import com.serkowski.productservice.repository.product.ProductWriteRepository;
 import com.serkowski.productservice.service.api.ProductInnerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
 
-import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 public class ProductInnerServiceImpl implements ProductInnerService {
@@ -16,12 +19,21 @@ public class ProductInnerServiceImpl implements ProductInnerService {
     private final ProductWriteRepository productWriteRepository;
 
     @Override
-    public Optional<Product> findById(String productId) {
+    public Mono<Product> findById(String productId) {
         return productReadRepository.findById(productId);
     }
 
     @Override
-    public void saveProduct(Product product) {
-        productWriteRepository.save(product);
+    public Flux<String> findExistingIds(Collection<String> productIds) {
+        if (productIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return productReadRepository.findIdsByIdIn(productIds)
+                .map(Product::getId);
+    }
+
+    @Override
+    public Mono<Product> saveProduct(Product product) {
+        return productWriteRepository.save(product);
     }
 }
@@ -0,0 +1,91 @@
+package com.serkowski.productservice.service.impl;
+
+import com.serkowski.productservice.config.ProductItemIngestProperties;
+import com.serkowski.productservice.dto.ProductItemDto;
+import com.serkowski.productservice.dto.ProductItemIngestResultDto;
+import com.serkowski.productservice.model.Availability;
+import com.serkowski.productservice.model.ProductItem;
+import com.serkowski.productservice.model.error.ProductNotFound;
+import com.serkowski.productservice.repository.product.item.ProductItemWriteRepository;
+import com.serkowski.productservice.service.api.ProductInnerService;
+import com.serkowski.productservice.service.api.ProductItemIngestService;
+import com.serkowski.productservice.service.api.ProductStockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.IdGenerator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ProductItemIngestServiceImpl implements ProductItemIngestService {
+
+    private final ProductInnerService productInnerService;
+    private final ProductStockService productStockService;
+    private final ProductItemWriteRepository productItemWriteRepository;
+    private final ProductItemIngestProperties productItemIngestProperties;
+    private final IdGenerator idGenerator;
+
+    /**
+     * Only one batch is read ahead of the write in progress, so a slow database slows down the upload instead of
+     * buffering it in memory.
+     */
+    @Override
+    public Flux<ProductItemIngestResultDto> ingestItems(String productId, Flux<ProductItemDto> items) {
+        return productInnerService.findById(productId)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFound("Product which id: " + productId + " not exist")))
+                .flatMapMany(product -> items
+                        .index()
+                        .buffer(productItemIngestProperties.getBatchSize())
+                        .concatMap(batch -> ingestBatch(product.getId(), batch), 1));
+    }
+
+    private Flux<ProductItemIngestResultDto> ingestBatch(String productId, List<Tuple2<Long, ProductItemDto>> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductItemIngestResultDto> results = new ArrayList<>(batch.size());
+        List<ProductItem> productItems = new ArrayList<>(batch.size());
+        List<ProductItemIngestResultDto> insertedResults = new ArrayList<>(batch.size());
+        batch.forEach(line -> {
+            String serialNumber = line.getT2().getSerialNumber();
+            ProductItemIngestResultDto result = ProductItemIngestResultDto.builder()
+                    .line(line.getT1() + 1)
+                    .serialNumber(serialNumber)
+                    .build();
+            results.add(result);
+            if (serialNumber == null || serialNumber.isBlank()) {
+                result.setStatus(ProductItemIngestResultDto.Status.INVALID);
+                result.setMessage("Product item need to have a serial number");
+                return;
+            }
+            ProductItem productItem = ProductItem.builder()
+                    .id(idGenerator.generateId().toString())
+                    .productId(productId)
+                    .availability(Availability.AVAILABLE)
+                    .serialNumber(serialNumber)
+                    .updateDate(now)
+                    .build();
+            productItems.add(productItem);
+            result.setId(UUID.fromString(productItem.getId()));
+            result.setStatus(ProductItemIngestResultDto.Status.CREATED);
+            insertedResults.add(result);
+        });
+        return productItemWriteRepository.insertItems(productItems)
+                .flatMap(duplicates -> {
+                    duplicates.forEach(index -> {
+                        ProductItemIngestResultDto result = insertedResults.get(index);
+                        result.setId(null);
+                        result.setStatus(ProductItemIngestResultDto.Status.DUPLICATE);
+                        result.setMessage("Product with serial number: " + result.getSerialNumber() + " already exist");
+                    });
+                    int inserted = productItems.size() - duplicates.size();
+                    return inserted > 0 ? productStockService.addAvailable(productId, inserted) : Mono.<Void>empty();
+                })
+                .thenMany(Flux.fromIterable(results));
+    }
+}
@@ -1,9 +1,9 @@
 package com.serkowski.productservice.service.impl;
 
+import com.serkowski.productservice.coalescer.ItemClaimCoalescer;
 import com.serkowski.productservice.dto.ProductItemDto;
 import com.serkowski.productservice.dto.request.ReserveItemDto;
 import com.serkowski.productservice.model.Availability;
-import com.serkowski.productservice.model.Product;
 import com.serkowski.productservice.model.ProductItem;
 import com.serkowski.productservice.model.error.AddItemIndexException;
 import com.serkowski.productservice.model.error.ProductNotFound;
@@ -12,106 +12,183 @@ import com.serkowski.productservice.repository.product.item.ProductItemReadRepos
 import com.serkowski.productservice.repository.product.item.ProductItemWriteRepository;
 import com.serkowski.productservice.service.api.ProductInnerService;
 import com.serkowski.productservice.service.api.ProductItemService;
+import com.serkowski.productservice.service.api.ProductStockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
+import org.springframework.util.IdGenerator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class ProductItemServiceImpl implements ProductItemService {
 
+    private static final String NOT_ENOUGH_ITEMS = "The amount of the available products is not enough to make a full reservation";
+    private static final String EMPTY_RESERVATION = "Reservation list is empty because of product not found or empty items list";
+
     private final ProductInnerService productInnerService;
+    private final ProductStockService productStockService;
     private final ProductItemReadRepository productItemReadRepository;
     private final ProductItemWriteRepository productItemWriteRepository;
+    private final ItemClaimCoalescer itemClaimCoalescer;
+    private final IdGenerator idGenerator;
 
     @Override
-    public ProductItemDto addItem(String productId, ProductItemDto productItemRequest) {
+    public Mono<ProductItemDto> addItem(String productId, ProductItemDto productItemRequest) {
         return productInnerService.findById(productId)
-                .map(product -> {
-                    ProductItem item = ProductItem.builder()
-                            .id(UUID.randomUUID().toString())
-                            .availability(Availability.AVAILABLE)
-                            .serialNumber(productItemRequest.getSerialNumber())
-                            .updateDate(LocalDateTime.now())
-                            .build();
-                    Optional.ofNullable(product.getItems())
-                            .ifPresentOrElse(productItems -> productItems.add(item), () -> product.setItems(List.of(item)));
-                    try {
-                        ProductItem productItem = productItemWriteRepository.save(item);
-                        productInnerService.saveProduct(product);
-                        return productItem;
-                    } catch (DuplicateKeyException e) {
-                        throw new AddItemIndexException("Product with serial number: " + productItemRequest.getSerialNumber() + " already exist");
-                    }
-                })
-                .map(this::mapToDto)
-                .orElseThrow(() -> new ProductNotFound("Product which id: " + productId + " not exist"));
+                .switchIfEmpty(Mono.error(() -> new ProductNotFound("Product which id: " + productId + " not exist")))
+                .flatMap(product -> productItemWriteRepository.save(ProductItem.builder()
+                                .id(idGenerator.generateId().toString())
+                                .productId(product.getId())
+                                .availability(Availability.AVAILABLE)
+                                .serialNumber(productItemRequest.getSerialNumber())
+                                .updateDate(LocalDateTime.now())
+                                .build())
+                        .onErrorMap(DuplicateKeyException.class, e -> new AddItemIndexException("Product with serial number: " + productItemRequest.getSerialNumber() + " already exist"))
+                        .flatMap(productItem -> productStockService.addAvailable(product.getId(), 1)
+                                .thenReturn(productItem)))
+                .map(this::mapToDto);
     }
 
     @Override
-    public ProductItemDto getItemById(String productItemId) {
+    public Mono<ProductItemDto> getItemById(String productItemId) {
         return productItemReadRepository.findById(productItemId)
                 .map(this::mapToDto)
-                .orElseThrow(() -> new ProductNotFound("Product item which id: " + productItemId + " not exist"));
+                .switchIfEmpty(Mono.error(() -> new ProductNotFound("Product item which id: " + productItemId + " not exist")));
     }
 
     @Override
-    public List<String> reserveItems(List<ReserveItemDto> reserveItems) {
-        List<ProductItem> reservedItems = new ArrayList<>();
-        reserveItems
-                .forEach(reserveItem -> productInnerService.findById(reserveItem.getItemRef())
-                        .ifPresent(product -> reservedItems.addAll(getProductItems(reserveItem, product))));
-        if (CollectionUtils.isEmpty(reservedItems)) {
-            throw new ReservationItemsException("Reservation list is empty because of product not found or empty items list");
-        }
-
-        productItemWriteRepository.saveAll(reservedItems.stream()
-                .map(this::markItemAsReserved)
-                .toList());
-        return reservedItems.stream()
-                .map(ProductItem::getId)
-                .toList();
+    public Mono<List<String>> reserveItems(String reservationId, List<ReserveItemDto> reserveItems) {
+        Map<String, Integer> requestedItems = reserveItems.stream()
+                .filter(reserveItem -> reserveItem.getCount() > 0)
+                .collect(Collectors.groupingBy(ReserveItemDto::getItemRef, LinkedHashMap::new, Collectors.summingInt(ReserveItemDto::getCount)));
+        return productInnerService.findExistingIds(requestedItems.keySet())
+                .collect(Collectors.toSet())
+                .map(existingIds -> {
+                    Map<String, Integer> lines = new LinkedHashMap<>(requestedItems);
+                    lines.keySet().retainAll(existingIds);
+                    return lines;
+                })
+                .filter(lines -> !lines.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new ReservationItemsException(EMPTY_RESERVATION)))
+                .flatMap(lines -> reserveStock(lines)
+                        .then(Mono.defer(() -> claimItems(reservationId, lines, LocalDateTime.now())
+                                .onErrorResume(exception -> releaseReservation(reservationId, lines, exception)))));
     }
 
+    /**
+     * Reserved items are counted by product before they are released, because released items no longer carry the
+     * reservation id. Only the owner of the reservation releases its items, so the counts can't change in between.
+     */
     @Override
-    public void unlockReservedItems(List<String> reserveItems) {
-        productItemWriteRepository.saveAll(productItemReadRepository.findByIds(reserveItems)
-                .stream()
-                .map(this::unlockItem)
-                .toList());
+    public Mono<Long> unlockReservedItems(Collection<String> reservationIds) {
+        return productItemReadRepository.countReservedItems(reservationIds)
+                .flatMap(reservedItems -> productItemWriteRepository.releaseReservedItems(reservationIds)
+                        .flatMap(unlocked -> Flux.fromIterable(reservedItems.entrySet())
+                                .flatMap(reserved -> productStockService.release(reserved.getKey(), reserved.getValue().intValue()))
+                                .then(Mono.just(unlocked))));
     }
 
+    /**
+     * Counters of every product are moved separately, because only a single update reports whether the product had
+     * enough available items. When any of them fails or can't be moved, counters already moved are given back.
+     */
+    private Mono<Void> reserveStock(Map<String, Integer> lines) {
+        return Flux.fromIterable(lines.entrySet())
+                .flatMap(line -> productStockService.reserve(line.getKey(), line.getValue())
+                        .map(reserved -> new StockReservation(line, reserved, null))
+                        .onErrorResume(exception -> Mono.just(new StockReservation(line, false, exception))))
+                .collectList()
+                .flatMap(stockReservations -> {
+                    if (stockReservations.stream().allMatch(StockReservation::reserved)) {
+                        return Mono.<Void>empty();
+                    }
+                    Throwable failure = stockReservations.stream()
+                            .map(StockReservation::failure)
+                            .filter(Objects::nonNull)
+                            .findFirst()
+                            .orElseGet(() -> new ReservationItemsException(NOT_ENOUGH_ITEMS));
+                    return Flux.fromIterable(stockReservations)
+                            .filter(StockReservation::reserved)
+                            .flatMap(stockReservation -> productStockService.release(stockReservation.line().getKey(), stockReservation.line().getValue()))
+                            .then(Mono.<Void>error(failure));
+                });
+    }
+
+    /**
+     * Give back items claimed for the reservation and counters of every line, when claiming items didn't complete.
+     */
+    private Mono<List<String>> releaseReservation(String reservationId, Map<String, Integer> lines, Throwable cause) {
+        return productItemWriteRepository.releaseReservedItems(List.of(reservationId))
+                .thenMany(Flux.fromIterable(lines.entrySet()))
+                .flatMap(line -> productStockService.release(line.getKey(), line.getValue()))
+                .then(Mono.error(cause));
+    }
 
-    private ProductItem markItemAsReserved(ProductItem productItem) {
-        productItem.setAvailability(Availability.RESERVED);
-        return productItem;
+    /**
+     * Candidates taken meanwhile by a concurrent reservation are made up one by one, so the slow path is only used
+     * under contention.
+     */
+    private Mono<List<String>> claimItems(String reservationId, Map<String, Integer> lines, LocalDateTime reservationTime) {
+        int requested = lines.values().stream().mapToInt(Integer::intValue).sum();
+        return claimCandidates(reservationId, lines, reservationTime)
+                .flatMap(claimedItems -> Flux.fromIterable(lines.entrySet())
+                        .flatMapSequential(line -> claimMissingItems(reservationId, line.getKey(), line.getValue(),
+                                claimedItems.getOrDefault(line.getKey(), List.of()), reservationTime))
+                        .flatMapIterable(lineItems -> lineItems)
+                        .collectList())
+                .flatMap(reservedIds -> {
+                    if (reservedIds.size() == requested) {
+                        return Mono.just(reservedIds);
+                    }
+                    return Mono.<List<String>>error(new ReservationItemsException(NOT_ENOUGH_ITEMS));
+                });
     }
 
-    private ProductItem unlockItem(ProductItem productItem) {
-        productItem.setAvailability(Availability.AVAILABLE);
-        return productItem;
+    /**
+     * Reservations of a single product, typical for hot products, are claimed together with concurrent reservations
+     * of the same product when the coalescer is enabled. Otherwise candidates of all products are found with one query
+     * and claimed with one update, then the items which really got the reservation id are read back.
+     */
+    private Mono<Map<String, Collection<String>>> claimCandidates(String reservationId, Map<String, Integer> lines, LocalDateTime reservationTime) {
+        if (lines.size() == 1 && itemClaimCoalescer.isEnabled()) {
+            Map.Entry<String, Integer> line = lines.entrySet().iterator().next();
+            return itemClaimCoalescer.claim(reservationId, line.getKey(), line.getValue(), reservationTime)
+                    .map(claimed -> Map.<String, Collection<String>>of(line.getKey(), claimed));
+        }
+        return productItemReadRepository.findAvailableItems(lines)
+                .map(ProductItem::getId)
+                .collectList()
+                .flatMap(candidates -> productItemWriteRepository.claimItems(reservationId, candidates, reservationTime))
+                .thenMany(productItemReadRepository.findByReservationId(reservationId))
+                .collectMultimap(ProductItem::getProductId, ProductItem::getId);
     }
 
-    private List<ProductItem> getProductItems(ReserveItemDto reserveItem, Product product) {
-        List<ProductItem> list = product.getItems().stream()
-                .filter(productItem -> Availability.AVAILABLE == productItem.getAvailability())
-                .limit(reserveItem.getCount())
-                .toList();
-        if (list.size() < reserveItem.getCount()) {
-            throw new ReservationItemsException("The amount of the available products is not enough to make a full reservation");
+    private Mono<List<String>> claimMissingItems(String reservationId, String productId, int count, Collection<String> claimed, LocalDateTime reservationTime) {
+        List<String> lineItems = new ArrayList<>(claimed);
+        int missing = count - lineItems.size();
+        if (missing <= 0) {
+            return Mono.just(lineItems);
         }
-        return list;
+        return productItemWriteRepository.reserveAvailableItems(reservationId, productId, missing, reservationTime)
+                .collectList()
+                .map(madeUp -> {
+                    lineItems.addAll(madeUp);
+                    return lineItems;
+                });
     }
 
     private ProductItemDto mapToDto(ProductItem productItem) {
@@ -120,6 +197,10 @@ public class ProductItemServiceImpl implements ProductItemService {
                 .serialNumber(productItem.getSerialNumber())
                 .availability(productItem.getAvailability().toString())
                 .updateDate(productItem.getUpdateDate())
+                .reservationTimeDate(productItem.getReservationTimeDate())
                 .build();
     }
+
+    private record StockReservation(Map.Entry<String, Integer> line, boolean reserved, Throwable failure) {
+    }
 }
@@ -0,0 +1,69 @@
+package com.serkowski.productservice.service.impl;
+
+import com.serkowski.productservice.dto.ProductDto;
+import com.serkowski.productservice.dto.ProductExportDto;
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.ProductAttribute;
+import com.serkowski.productservice.model.ProductView;
+import com.serkowski.productservice.service.api.ProductMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+public class ProductMapperImpl implements ProductMapper {
+
+    @Override
+    public ProductDto map(Product product) {
+        return ProductDto.builder()
+                .id(UUID.fromString(product.getId()))
+                .name(product.getName())
+                .description(product.getDescription())
+                .categories(product.getCategories())
+                .tags(product.getTags())
+                .price(product.getPrice())
+                .specification(product.getSpecification())
+                .build();
+    }
+
+    @Override
+    public ProductDto map(ProductView productView) {
+        return ProductDto.builder()
+                .id(UUID.fromString(productView.getId()))
+                .name(productView.getName())
+                .description(productView.getDescription())
+                .categories(productView.getCategories())
+                .tags(productView.getTags())
+                .price(productView.getPrice())
+                .specification(ProductAttribute.toSpecification(productView.getAttributes()))
+                .build();
+    }
+
+    @Override
+    public ProductExportDto mapToExport(Product product) {
+        return ProductExportDto.builder()
+                .id(UUID.fromString(product.getId()))
+                .name(product.getName())
+                .description(product.getDescription())
+                .categories(product.getCategories())
+                .tags(product.getTags())
+                .price(product.getPrice())
+                .specification(product.getSpecification())
+                .build();
+    }
+
+    @Override
+    public ProductExportDto mapToExport(ProductView productView) {
+        return ProductExportDto.builder()
+                .id(UUID.fromString(productView.getId()))
+                .name(productView.getName())
+                .description(productView.getDescription())
+                .categories(productView.getCategories())
+                .tags(productView.getTags())
+                .price(productView.getPrice())
+                .specification(ProductAttribute.toSpecification(productView.getAttributes()))
+                .available(productView.getAvailable())
+                .reserved(productView.getReserved())
+                .build();
+    }
+}
@@ -1,17 +1,22 @@
 package com.serkowski.productservice.service.impl;
 
+import com.serkowski.productservice.cache.ProductCache;
 import com.serkowski.productservice.dto.ProductDto;
 import com.serkowski.productservice.model.Product;
 import com.serkowski.productservice.model.error.ProductNotFound;
 import com.serkowski.productservice.repository.product.ProductReadRepository;
 import com.serkowski.productservice.repository.product.ProductWriteRepository;
 import com.serkowski.productservice.repository.product.item.ProductItemWriteRepository;
+import com.serkowski.productservice.repository.product.view.ProductViewWriteRepository;
+import com.serkowski.productservice.search.ProductSearchIndex;
+import com.serkowski.productservice.service.api.ProductMapper;
 import com.serkowski.productservice.service.api.ProductService;
+import com.serkowski.productservice.service.api.ProductStockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-
-import java.util.UUID;
+import org.springframework.util.IdGenerator;
+import reactor.core.publisher.Mono;
 
 @Service
 @RequiredArgsConstructor
@@ -20,69 +25,73 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductReadRepository productReadRepository;
     private final ProductWriteRepository productWriteRepository;
+    private final ProductViewWriteRepository productViewWriteRepository;
     private final ProductItemWriteRepository productItemWriteRepository;
+    private final ProductStockService productStockService;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final IdGenerator idGenerator;
+    private final ProductMapper productMapper;
 
+    @Override
+    public Mono<ProductDto> placeProduct(ProductDto productRequest) {
+        return productWriteRepository.save(Product.builder()
+                        .id(idGenerator.generateId().toString())
+                        .name(productRequest.getName())
+                        .description(productRequest.getDescription())
+                        .categories(productRequest.getCategories())
+                        .tags(productRequest.getTags())
+                        .price(productRequest.getPrice())
+                        .specification(productRequest.getSpecification())
+                        .build())
+                .flatMap(productSave -> productStockService.createStock(productSave.getId())
+                        .then(productViewWriteRepository.saveDetails(productSave))
+                        .thenReturn(productSave))
+                .doOnNext(productSearchIndex::index)
+                .map(productMapper::map);
+    }
 
     @Override
-    public ProductDto placeProduct(ProductDto productRequest) {
-        Product productSave = productWriteRepository.save(Product.builder()
-                .id(UUID.randomUUID().toString())
+    public Mono<ProductDto> updateProduct(ProductDto productRequest) {
+        if (productRequest.getId() == null) {
+            return Mono.error(new ProductNotFound("Product can't be update because id field is empty"));
+        }
+        Product product = Product.builder()
+                .id(productRequest.getId().toString())
                 .name(productRequest.getName())
                 .description(productRequest.getDescription())
                 .categories(productRequest.getCategories())
                 .tags(productRequest.getTags())
                 .price(productRequest.getPrice())
                 .specification(productRequest.getSpecification())
-                .build());
-        return mapToDto(productSave);
-    }
-
-    @Override
-    public ProductDto updateProduct(ProductDto productRequest) {
-        if (productRequest.getId() == null) {
-            throw new ProductNotFound("Product can't be update because id field is empty");
-        }
-        return productReadRepository.findById(productRequest.getId().toString())
-                .map(product -> {
-                    product.setName(productRequest.getName());
-                    product.setDescription(productRequest.getDescription());
-                    product.setCategories(productRequest.getCategories());
-                    product.setTags(productRequest.getTags());
-                    product.setPrice(productRequest.getPrice());
-                    product.setSpecification(productRequest.getSpecification());
-                    return productWriteRepository.save(product);
-                })
-                .map(this::mapToDto)
-                .orElseThrow(() -> new ProductNotFound("Product which id: " + productRequest.getId().toString() + " not exist, so can't be updated"));
+                .build();
+        return productWriteRepository.updateDetails(product)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFound("Product which id: " + productRequest.getId().toString() + " not exist, so can't be updated")))
+                .flatMap(updated -> productViewWriteRepository.saveDetails(product).thenReturn(updated))
+                .map(updated -> {
+                    productCache.invalidate(product.getId());
+                    productSearchIndex.index(product);
+                    return productMapper.map(product);
+                });
     }
 
     @Override
-    public ProductDto getProductById(String productId) {
-        return productReadRepository.findById(productId)
-                .map(this::mapToDto)
-                .orElseThrow(() -> new ProductNotFound("Product which id: " + productId + " not exist"));
+    public Mono<ProductDto> getProductById(String productId) {
+        return productCache.get(productId, id -> productReadRepository.findViewById(id).map(productMapper::map))
+                .switchIfEmpty(Mono.error(() -> new ProductNotFound("Product which id: " + productId + " not exist")));
     }
 
     @Override
-    public void deleteProductById(String productId) {
-        productReadRepository.findById(productId)
-                .ifPresentOrElse(product -> {
-                    productItemWriteRepository.deleteAll(product.getItems());
-                    productWriteRepository.delete(product);
-                }, () -> {
-                    throw new ProductNotFound("Product which id: " + productId + " not exist, so can't be deleted");
-                });
-    }
-
-    private ProductDto mapToDto(Product productSave) {
-        return ProductDto.builder()
-                .id(UUID.fromString(productSave.getId()))
-                .name(productSave.getName())
-                .description(productSave.getDescription())
-                .categories(productSave.getCategories())
-                .tags(productSave.getTags())
-                .price(productSave.getPrice())
-                .specification(productSave.getSpecification())
-                .build();
+    public Mono<Void> deleteProductById(String productId) {
+        return productReadRepository.existsById(productId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFound("Product which id: " + productId + " not exist, so can't be deleted")))
+                .flatMap(exists -> productItemWriteRepository.deleteByProductId(productId)
+                        .then(productWriteRepository.deleteById(productId))
+                        .then(productStockService.deleteStock(productId))
+                        .then(productViewWriteRepository.deleteById(productId))
+                        .then(Mono.<Void>fromRunnable(() -> productSearchIndex.remove(productId))))
+                .doFinally(signal -> productCache.invalidate(productId));
     }
 }
@@ -0,0 +1,116 @@
+package com.serkowski.productservice.service.impl;
+
+import com.serkowski.productservice.model.Availability;
+import com.serkowski.productservice.model.ProductStock;
+import com.serkowski.productservice.repository.product.item.ProductItemReadRepository;
+import com.serkowski.productservice.repository.product.stock.ProductStockReadRepository;
+import com.serkowski.productservice.repository.product.stock.ProductStockWriteRepository;
+import com.serkowski.productservice.repository.product.view.ProductViewWriteRepository;
+import com.serkowski.productservice.service.api.ProductStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductStockServiceImpl implements ProductStockService {
+
+    private final ProductStockReadRepository productStockReadRepository;
+    private final ProductStockWriteRepository productStockWriteRepository;
+    private final ProductItemReadRepository productItemReadRepository;
+    private final ProductViewWriteRepository productViewWriteRepository;
+
+    @Override
+    public Mono<Void> createStock(String productId) {
+        return productStockWriteRepository.save(ProductStock.builder()
+                        .productId(productId)
+                        .build())
+                .then();
+    }
+
+    @Override
+    public Mono<Boolean> reserve(String productId, int count) {
+        return productStockWriteRepository.moveItems(productId, Availability.AVAILABLE, Availability.RESERVED, count)
+                .flatMap(reserved -> {
+                    if (reserved) {
+                        return Mono.just(true);
+                    }
+                    return productStockReadRepository.existsById(productId)
+                            .flatMap(exists -> exists
+                                    ? Mono.just(false)
+                                    : initializeStock(productId)
+                                    .then(productStockWriteRepository.moveItems(productId, Availability.AVAILABLE, Availability.RESERVED, count)));
+                })
+                .flatMap(reserved -> reserved
+                        ? productViewWriteRepository.addCounters(productId, -count, count).thenReturn(true)
+                        : Mono.just(false));
+    }
+
+    @Override
+    public Mono<Void> release(String productId, int count) {
+        return productStockWriteRepository.moveItems(productId, Availability.RESERVED, Availability.AVAILABLE, count)
+                .flatMap(released -> {
+                    if (released) {
+                        return productViewWriteRepository.addCounters(productId, count, -count);
+                    }
+                    log.warn("Reserved counter of product: {} is lower than released items count: {}", productId, count);
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<Void> addAvailable(String productId, int count) {
+        return productStockWriteRepository.addItems(productId, Availability.AVAILABLE, count)
+                .flatMap(added -> added
+                        ? productViewWriteRepository.addCounters(productId, count, 0)
+                        : initializeStock(productId));
+    }
+
+    @Override
+    public Mono<Void> rebuildStock(String productId) {
+        return countStock(productId)
+                .flatMap(productStockWriteRepository::save)
+                .flatMap(this::updateView);
+    }
+
+    @Override
+    public Mono<Void> deleteStock(String productId) {
+        return productStockWriteRepository.deleteById(productId);
+    }
+
+    /**
+     * Counters are missing for products created before they were introduced, so they are counted once from the
+     * product items.
+     */
+    private Mono<Void> initializeStock(String productId) {
+        return countStock(productId)
+                .flatMap(productStockWriteRepository::insert)
+                .flatMap(this::updateView)
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    log.info("Stock of product: {} was already initialized", productId);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> updateView(ProductStock productStock) {
+        return productViewWriteRepository.setCounters(productStock.getProductId(), productStock.getAvailable(), productStock.getReserved());
+    }
+
+    private Mono<ProductStock> countStock(String productId) {
+        return Mono.zip(
+                        productItemReadRepository.countByProductIdAndAvailability(productId, Availability.AVAILABLE),
+                        productItemReadRepository.countByProductIdAndAvailability(productId, Availability.RESERVED),
+                        productItemReadRepository.countByProductIdAndAvailability(productId, Availability.IN_DELIVERY),
+                        productItemReadRepository.countByProductIdAndAvailability(productId, Availability.DELIVERED_TO_CLIENT))
+                .map(counts -> ProductStock.builder()
+                        .productId(productId)
+                        .available(counts.getT1())
+                        .reserved(counts.getT2())
+                        .inDelivery(counts.getT3())
+                        .delivered(counts.getT4())
+                        .build());
+    }
+}
@@ -1,17 +1,24 @@
 package com.serkowski.productservice.service.impl;
 
+import com.serkowski.productservice.config.ReservationProperties;
 import com.serkowski.productservice.dto.request.ReservationRequestDto;
 import com.serkowski.productservice.model.Reservation;
 import com.serkowski.productservice.model.ReservationStatus;
+import com.serkowski.productservice.model.error.ReservationItemsException;
 import com.serkowski.productservice.repository.reservation.ReservationReadRepository;
 import com.serkowski.productservice.repository.reservation.ReservationWriteRepository;
 import com.serkowski.productservice.service.api.ProductItemService;
 import com.serkowski.productservice.service.api.ReservationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.util.IdGenerator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -20,21 +27,92 @@ public class ReservationServiceImpl implements ReservationService {
     private final ReservationReadRepository reservationReadRepository;
     private final ReservationWriteRepository reservationWriteRepository;
     private final ProductItemService productItemService;
+    private final ReservationProperties reservationProperties;
+    private final IdGenerator idGenerator;
 
     @Override
-    public void reserve(ReservationRequestDto reservationRequestDto) {
-        reservationWriteRepository.save(Reservation.builder()
-                .id(UUID.randomUUID().toString())
-                .orderNumber(reservationRequestDto.getOrderNumber())
-                .productItems(productItemService.reserveItems(reservationRequestDto.getItems()))
-                .date(LocalDateTime.now())
-                .reservationStatus(ReservationStatus.ACTIVE)
-                .build());
+    public Mono<List<String>> reserve(ReservationRequestDto reservationRequestDto) {
+        return reservationReadRepository.findByOrderNumber(reservationRequestDto.getOrderNumber())
+                .flatMap(this::replayReservation)
+                .switchIfEmpty(Mono.defer(() -> createReservation(reservationRequestDto)));
     }
 
     @Override
-    public void unlockReservation(String orderNumber) {
-        reservationReadRepository.findByOrderNumber(orderNumber)
-                .ifPresent(reservation -> productItemService.unlockReservedItems(reservation.getProductItems()));
+    public Mono<Long> unlockReservation(String orderNumber) {
+        return reservationWriteRepository.cancelReservation(orderNumber)
+                .flatMap(reservation -> productItemService.unlockReservedItems(List.of(reservation.getId())))
+                .defaultIfEmpty(0L);
+    }
+
+    @Override
+    public Mono<Long> releaseExpiredReservations(int batchSize, int maxBatches) {
+        return Mono.defer(() -> releaseExpiredBatch(batchSize))
+                .repeat(Math.max(maxBatches, 1) - 1L)
+                .takeUntil(batch -> batch.reservations() < batchSize)
+                .map(ExpiredBatch::items)
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * The active reservation with its lease is stored before any item is reserved, so items of a reservation
+     * interrupted by a crash are still released by the sweeper. A retried or hedged request of the same order can pass
+     * the lookup concurrently with the first one. Only one of them is stored thanks to the unique order number index,
+     * the other one replays the stored reservation without reserving anything. When reserving items fails, the
+     * reservation is canceled.
+     */
+    private Mono<List<String>> createReservation(ReservationRequestDto reservationRequestDto) {
+        String reservationId = idGenerator.generateId().toString();
+        String orderNumber = reservationRequestDto.getOrderNumber();
+        LocalDateTime now = LocalDateTime.now();
+        return reservationWriteRepository.insert(Reservation.builder()
+                        .id(reservationId)
+                        .orderNumber(orderNumber)
+                        .date(now)
+                        .expiresAt(now.plus(reservationProperties.getTtl()))
+                        .reservationStatus(ReservationStatus.ACTIVE)
+                        .build())
+                .flatMap(reservation -> productItemService.reserveItems(reservationId, reservationRequestDto.getItems())
+                        .onErrorResume(exception -> reservationWriteRepository.cancelReservation(orderNumber)
+                                .then(Mono.error(exception))))
+                .flatMap(productItems -> reservationWriteRepository.setProductItems(reservationId, productItems)
+                        .map(Reservation::getProductItems)
+                        .switchIfEmpty(Mono.defer(() -> productItemService.unlockReservedItems(List.of(reservationId))
+                                .then(Mono.error(new ReservationItemsException("Reservation of order: " + orderNumber + " ended before its items were reserved"))))))
+                .onErrorResume(DuplicateKeyException.class, e -> reservationReadRepository.findByOrderNumber(orderNumber)
+                        .flatMap(this::replayReservation));
+    }
+
+    /**
+     * A reservation without items is still being made by another request.
+     */
+    private Mono<List<String>> replayReservation(Reservation reservation) {
+        if (ReservationStatus.ACTIVE != reservation.getReservationStatus()) {
+            return Mono.error(new ReservationItemsException("Reservation of order: " + reservation.getOrderNumber() + " is already " + reservation.getReservationStatus()));
+        }
+        if (reservation.getProductItems() == null) {
+            return Mono.error(new ReservationItemsException("Reservation of order: " + reservation.getOrderNumber() + " is still in progress"));
+        }
+        return Mono.just(reservation.getProductItems());
+    }
+
+    /**
+     * Expire one batch of reservations, oldest first. A reservation unlocked in the meantime is skipped, because only
+     * reservations switched from ACTIVE to EXPIRED by this batch have their items released.
+     */
+    private Mono<ExpiredBatch> releaseExpiredBatch(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        return reservationReadRepository.findByReservationStatusAndExpiresAtBeforeOrderByExpiresAtAsc(ReservationStatus.ACTIVE, now, PageRequest.of(0, batchSize))
+                .collectList()
+                .flatMap(expired -> Flux.fromIterable(expired)
+                        .concatMap(reservation -> reservationWriteRepository.expireReservation(reservation.getId(), now))
+                        .map(Reservation::getId)
+                        .collectList()
+                        .flatMap(expiredIds -> expiredIds.isEmpty()
+                                ? Mono.just(0L)
+                                : productItemService.unlockReservedItems(expiredIds))
+                        .map(items -> new ExpiredBatch(expired.size(), items)));
+    }
+
+    private record ExpiredBatch(int reservations, long items) {
     }
 }
@@ -0,0 +1,83 @@
+package com.serkowski.productservice.cache;
+
+import com.serkowski.productservice.config.ProductCacheProperties;
+import com.serkowski.productservice.dto.ProductDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void shouldLoadProductOnlyOnceUntilInvalidated() {
+        ProductCache productCache = new ProductCache(new ProductCacheProperties(), meterRegistry);
+
+        productCache.get("123", this::load).block();
+        productCache.get("123", this::load).block();
+        productCache.invalidate("123");
+        productCache.get("123", this::load).block();
+
+        assertAll(
+                "Assert cache usage",
+                () -> assertEquals(2, loads.get()),
+                () -> assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "product").tag("result", "hit").functionCounter().count()),
+                () -> assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "product").tag("result", "miss").functionCounter().count())
+        );
+    }
+
+    @Test
+    void shouldReturnCopyOfCachedProduct() {
+        ProductCache productCache = new ProductCache(new ProductCacheProperties(), meterRegistry);
+
+        ProductDto first = productCache.get("123", this::load).block();
+        assertNotNull(first);
+        first.add(Link.of("/api/product/123"));
+
+        StepVerifier.create(productCache.get("123", this::load))
+                .assertNext(second -> assertTrue(second.getLinks().isEmpty()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotCacheMissingProduct() {
+        ProductCache productCache = new ProductCache(new ProductCacheProperties(), meterRegistry);
+
+        StepVerifier.create(productCache.get("123", id -> Mono.fromRunnable(loads::incrementAndGet)))
+                .verifyComplete();
+        StepVerifier.create(productCache.get("123", this::load))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldLoadEveryTimeWhenDisabled() {
+        ProductCacheProperties productCacheProperties = new ProductCacheProperties();
+        productCacheProperties.setEnabled(false);
+        ProductCache productCache = new ProductCache(productCacheProperties, meterRegistry);
+
+        productCache.get("123", this::load).block();
+        productCache.get("123", this::load).block();
+
+        assertEquals(2, loads.get());
+    }
+
+    private Mono<ProductDto> load(String productId) {
+        return Mono.fromCallable(() -> {
+            loads.incrementAndGet();
+            return ProductDto.builder()
+                    .id(UUID.randomUUID())
+                    .name("name" + productId)
+                    .build();
+        });
+    }
+}
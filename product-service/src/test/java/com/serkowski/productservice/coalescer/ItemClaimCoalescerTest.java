@@ -0,0 +1,136 @@
+package com.serkowski.productservice.coalescer;
+
+import com.serkowski.productservice.config.ReservationProperties;
+import com.serkowski.productservice.model.Availability;
+import com.serkowski.productservice.model.ProductItem;
+import com.serkowski.productservice.repository.product.item.ProductItemReadRepository;
+import com.serkowski.productservice.repository.product.item.ProductItemWriteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataMongoTest
+@Testcontainers
+class ItemClaimCoalescerTest {
+
+    @Autowired
+    ProductItemReadRepository productItemReadRepository;
+
+    @Autowired
+    ProductItemWriteRepository productItemWriteRepository;
+
+    SimpleMeterRegistry meterRegistry;
+    ItemClaimCoalescer itemClaimCoalescer;
+
+    @Container
+    static final MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:4.4.2");
+
+    @DynamicPropertySource
+    static void mongoDbProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+
+        mongoDBContainer.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        mongoDBContainer.stop();
+    }
+
+    @BeforeEach
+    void init() {
+        ReservationProperties reservationProperties = new ReservationProperties();
+        reservationProperties.getCoalescer().setEnabled(true);
+        reservationProperties.getCoalescer().setWindow(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+        itemClaimCoalescer = new ItemClaimCoalescer(productItemReadRepository, productItemWriteRepository, reservationProperties, meterRegistry);
+        productItemWriteRepository.deleteAll().block();
+    }
+
+    @AfterEach
+    void destroy() {
+        itemClaimCoalescer.destroy();
+    }
+
+    @Test
+    void shouldClaimItemsOfConcurrentReservationsInBatches() {
+        int itemsCount = 20;
+        int reservationsCount = 30;
+        Flux.range(0, itemsCount)
+                .concatMap(i -> productItemWriteRepository.save(ProductItem.builder()
+                        .id(UUID.randomUUID().toString())
+                        .productId("product1")
+                        .serialNumber("serialNumber" + i)
+                        .availability(Availability.AVAILABLE)
+                        .updateDate(LocalDateTime.now())
+                        .build()))
+                .blockLast();
+
+        List<List<String>> claimed = Flux.range(0, reservationsCount)
+                .flatMap(i -> itemClaimCoalescer.claim("reservation" + i, "product1", 1, LocalDateTime.now()))
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertNotNull(claimed);
+        List<String> claimedIds = claimed.stream().flatMap(List::stream).toList();
+        assertAll(
+                "Assert coalesced claims",
+                () -> assertEquals(reservationsCount, claimed.size(), "Every caller should get a response"),
+                () -> assertEquals(itemsCount, claimedIds.size(), "Every item should be claimed"),
+                () -> assertEquals(itemsCount, new HashSet<>(claimedIds).size(), "Item should not be claimed twice"),
+                () -> assertTrue(meterRegistry.get("product.reservation.coalescer.batch.size").summary().count() < reservationsCount,
+                        "Concurrent reservations should share batches")
+        );
+    }
+
+    @Test
+    void shouldLeaveClaimToCallerWhenNoBatchTakesItInTime() {
+        ProductItemReadRepository stuckReadRepository = mock(ProductItemReadRepository.class);
+        when(stuckReadRepository.findAvailableItems(any())).thenReturn(Flux.never());
+        ReservationProperties reservationProperties = new ReservationProperties();
+        reservationProperties.getCoalescer().setEnabled(true);
+        reservationProperties.getCoalescer().setMaxBatch(1);
+        reservationProperties.getCoalescer().setTimeout(Duration.ofMillis(200));
+        ItemClaimCoalescer stuckCoalescer = new ItemClaimCoalescer(stuckReadRepository, productItemWriteRepository, reservationProperties, meterRegistry);
+
+        Mono<List<String>> stuckClaim = stuckCoalescer.claim("reservation1", "product1", 1, LocalDateTime.now()).cache();
+        stuckClaim.subscribe(claimed -> {}, e -> {});
+
+        StepVerifier.create(stuckCoalescer.claim("reservation2", "product1", 1, LocalDateTime.now()))
+                .expectNext(List.of())
+                .verifyComplete();
+        stuckCoalescer.destroy();
+        StepVerifier.create(stuckClaim)
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1, meterRegistry.get("product.reservation.coalescer.fallbacks").counter().count());
+    }
+}
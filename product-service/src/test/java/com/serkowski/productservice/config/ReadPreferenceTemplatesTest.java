@@ -0,0 +1,91 @@
+package com.serkowski.productservice.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.serkowski.productservice.repository.product.ProductReadRepository;
+import com.serkowski.productservice.repository.product.ProductReadRepositoryCustom;
+import com.serkowski.productservice.repository.product.item.ProductItemReadRepository;
+import com.serkowski.productservice.repository.reservation.ReservationReadRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadPreferenceTemplatesTest {
+
+    private final MongoClient mongoClient = MongoClients.create();
+    private final ReactiveMongoTemplate mongoTemplate = new ReactiveMongoTemplate(mongoClient, "test");
+
+    @AfterEach
+    void close() {
+        mongoClient.close();
+    }
+
+    @Test
+    void shouldShareDefaultTemplateForPrimaryReads() {
+        ReadPreferenceTemplates readPreferenceTemplates = new ReadPreferenceTemplates(mongoTemplate, Map.of(
+                ReservationReadRepository.class, new ReadPreferenceProperties.Route()));
+
+        assertAll(
+                "Assert primary templates",
+                () -> assertSame(mongoTemplate, readPreferenceTemplates.get(ReservationReadRepository.class)),
+                () -> assertSame(mongoTemplate, readPreferenceTemplates.get(ProductReadRepository.class))
+        );
+    }
+
+    @Test
+    void shouldCreateTemplatePerRepositoryReadingFromSecondaries() {
+        ReadPreferenceProperties.Route secondaryPreferred = new ReadPreferenceProperties.Route();
+        secondaryPreferred.setMode("secondaryPreferred");
+        ReadPreferenceTemplates readPreferenceTemplates = new ReadPreferenceTemplates(mongoTemplate, Map.of(
+                ProductReadRepository.class, secondaryPreferred,
+                ProductItemReadRepository.class, new ReadPreferenceProperties.Route()));
+
+        ReactiveMongoTemplate productTemplate = readPreferenceTemplates.get(ProductReadRepository.class);
+        assertAll(
+                "Assert secondary template",
+                () -> assertNotSame(mongoTemplate, productTemplate),
+                () -> assertSame(mongoTemplate.getConverter(), productTemplate.getConverter()),
+                () -> assertSame(mongoTemplate, readPreferenceTemplates.get(ProductItemReadRepository.class))
+        );
+    }
+
+    @Test
+    void shouldRouteOnlyProductQueriesToSecondaries() {
+        ReadPreferenceProperties readPreferenceProperties = new ReadPreferenceProperties();
+        readPreferenceProperties.getProduct().setMode("secondaryPreferred");
+
+        ReadPreferenceTemplates readPreferenceTemplates = new ReadPreferenceConfig().readPreferenceTemplates(mongoTemplate, readPreferenceProperties);
+
+        assertAll(
+                "Assert routed templates",
+                () -> assertNotSame(mongoTemplate, readPreferenceTemplates.get(ProductReadRepositoryCustom.class)),
+                () -> assertSame(mongoTemplate, readPreferenceTemplates.get(ProductReadRepository.class)),
+                () -> assertSame(mongoTemplate, readPreferenceTemplates.get(ProductItemReadRepository.class)),
+                () -> assertSame(mongoTemplate, readPreferenceTemplates.get(ReservationReadRepository.class))
+        );
+    }
+
+    @Test
+    void shouldResolveReadPreferenceWithMaxStaleness() {
+        ReadPreferenceProperties.Route route = new ReadPreferenceProperties.Route();
+        route.setMode("secondaryPreferred");
+        route.setMaxStaleness(Duration.ofMinutes(2));
+
+        assertEquals(ReadPreference.secondaryPreferred(120, TimeUnit.SECONDS), route.toReadPreference());
+    }
+
+    @Test
+    void shouldRejectMaxStalenessOfPrimaryReads() {
+        ReadPreferenceProperties.Route route = new ReadPreferenceProperties.Route();
+        route.setMaxStaleness(Duration.ofMinutes(2));
+
+        assertThrows(IllegalArgumentException.class, route::toReadPreference);
+    }
+}
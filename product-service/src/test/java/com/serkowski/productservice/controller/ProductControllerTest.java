@@ -3,10 +3,15 @@ package com.serkowski.productservice.controller;
 import com.serkowski.productservice.config.SecurityConfig;
 import com.serkowski.productservice.dto.ErrorHandlerResponse;
 import com.serkowski.productservice.dto.ProductDto;
+import com.serkowski.productservice.dto.ProductExportDto;
+import com.serkowski.productservice.dto.ProductPageDto;
+import com.serkowski.productservice.dto.request.ProductCatalogRequestDto;
 import com.serkowski.productservice.dto.request.ReserveItemDto;
 import com.serkowski.productservice.dto.request.ReservationRequestDto;
+import com.serkowski.productservice.model.error.CatalogQueryException;
 import com.serkowski.productservice.model.error.ProductNotFound;
 import com.serkowski.productservice.model.error.ReservationItemsException;
+import com.serkowski.productservice.service.api.ProductCatalogService;
 import com.serkowski.productservice.service.api.ProductService;
 import com.serkowski.productservice.service.api.ReservationService;
 import org.junit.jupiter.api.Test;
@@ -17,6 +22,8 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -24,18 +31,21 @@ import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(ProductController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, ProductLinkFactory.class})
 class ProductControllerTest {
 
     @Autowired
     private WebTestClient webTestClient;
     @MockBean
     private ProductService productService;
+    @MockBean
+    private ProductCatalogService productCatalogService;
 
 
     @Test
@@ -49,7 +59,7 @@ class ProductControllerTest {
                 .specification(Map.of("test1", "test2"))
                 .build();
 
-        when(productService.placeProduct(eq(productRequest))).thenReturn(ProductDto.builder().build());
+        when(productService.placeProduct(eq(productRequest))).thenReturn(Mono.just(ProductDto.builder().build()));
 
         webTestClient.post().uri("/api/product")
                 .body(BodyInserters.fromValue(productRequest))
@@ -84,7 +94,7 @@ class ProductControllerTest {
         ProductDto response = createProductAndReturnResponse(ProductDto.builder());
         response.setName("nameAfter");
 
-        when(productService.updateProduct(eq(response))).thenReturn(ProductDto.builder().build());
+        when(productService.updateProduct(eq(response))).thenReturn(Mono.just(ProductDto.builder().build()));
 
         webTestClient.put().uri("/api/product")
                 .body(BodyInserters.fromValue(response))
@@ -107,7 +117,7 @@ class ProductControllerTest {
                 .specification(Map.of("test1", "test2"))
                 .build();
 
-        when(productService.updateProduct(eq(productRequest))).thenThrow(ProductNotFound.class);
+        when(productService.updateProduct(eq(productRequest))).thenReturn(Mono.error(new ProductNotFound("Product not exist")));
 
         webTestClient.put().uri("/api/product")
                 .body(BodyInserters.fromValue(productRequest))
@@ -124,7 +134,7 @@ class ProductControllerTest {
         ProductDto response = createProductAndReturnResponse(ProductDto.builder()
                 .id(UUID.randomUUID()));
 
-        when(productService.getProductById(eq(response.getId().toString()))).thenReturn(ProductDto.builder().build());
+        when(productService.getProductById(eq(response.getId().toString()))).thenReturn(Mono.just(ProductDto.builder().build()));
 
         webTestClient.get().uri("/api/product/" + response.getId().toString())
                 .headers(headers -> headers.setBasicAuth("user", "password"))
@@ -137,7 +147,7 @@ class ProductControllerTest {
 
     @Test
     void shouldNotGetProductBecauseOfId() {
-        when(productService.getProductById(eq("dummyProductId"))).thenThrow(ProductNotFound.class);
+        when(productService.getProductById(eq("dummyProductId"))).thenReturn(Mono.error(new ProductNotFound("Product not exist")));
 
         webTestClient.get().uri("/api/product/dummyProductId")
                 .headers(headers -> headers.setBasicAuth("user", "password"))
@@ -148,9 +158,75 @@ class ProductControllerTest {
     }
 
 
+    @Test
+    void shouldGetCatalogPage() {
+        when(productCatalogService.getCatalogPage(argThat(request -> "category1".equals(request.getCategory())
+                && "tag1".equals(request.getTag())
+                && new BigDecimal("10").compareTo(request.getMinPrice()) == 0
+                && "cursor1".equals(request.getCursor()))))
+                .thenReturn(Mono.just(ProductPageDto.builder()
+                        .products(List.of(ProductDto.builder().id(UUID.randomUUID()).build()))
+                        .nextCursor("cursor2")
+                        .build()));
+
+        webTestClient.get().uri("/api/product?category=category1&tag=tag1&minPrice=10&cursor=cursor1")
+                .headers(headers -> headers.setBasicAuth("user", "password"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.products.length()").isEqualTo(1)
+                .jsonPath("$.nextCursor").isEqualTo("cursor2");
+    }
+
+    @Test
+    void shouldNotGetCatalogPageBecauseOfWrongQuery() {
+        when(productCatalogService.getCatalogPage(any(ProductCatalogRequestDto.class)))
+                .thenReturn(Mono.error(new CatalogQueryException("Min price can't be greater than max price")));
+
+        webTestClient.get().uri("/api/product?minPrice=10&maxPrice=1")
+                .headers(headers -> headers.setBasicAuth("user", "password"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorHandlerResponse.class);
+    }
+
+    @Test
+    void shouldSearchProducts() {
+        when(productCatalogService.searchProducts(eq("red shirt"), eq(5))).thenReturn(Flux.just(
+                ProductDto.builder().id(UUID.randomUUID()).build(),
+                ProductDto.builder().id(UUID.randomUUID()).build()));
+
+        webTestClient.get().uri("/api/product/search?query=red shirt&limit=5")
+                .headers(headers -> headers.setBasicAuth("user", "password"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductDto.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void shouldExportProductsAsNdjson() {
+        when(productCatalogService.exportProducts(eq(true))).thenReturn(Flux.just(
+                ProductExportDto.builder().id(UUID.randomUUID()).available(1L).build(),
+                ProductExportDto.builder().id(UUID.randomUUID()).available(2L).build()));
+
+        webTestClient.get().uri("/api/product/export?availability=true")
+                .headers(headers -> headers.setBasicAuth("user", "password"))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(ProductExportDto.class)
+                .hasSize(2);
+    }
+
     @Test
     void shouldDeleteProduct() {
         ProductDto response = createProductAndReturnResponse(ProductDto.builder());
+        when(productService.deleteProductById(eq(response.getId().toString()))).thenReturn(Mono.empty());
 
         webTestClient.delete().uri("/api/product/" + response.getId().toString())
                 .headers(headers -> headers.setBasicAuth("user", "password"))
@@ -162,7 +238,7 @@ class ProductControllerTest {
 
     @Test
     void shouldNotDeleteProductBecauseOfWrongId() {
-        doThrow(ProductNotFound.class).when(productService).deleteProductById(eq("dummyProductId"));
+        when(productService.deleteProductById(eq("dummyProductId"))).thenReturn(Mono.error(new ProductNotFound("Product not exist")));
 
         webTestClient.delete().uri("/api/product/dummyProductId")
                 .headers(headers -> headers.setBasicAuth("user", "password"))
@@ -183,7 +259,7 @@ class ProductControllerTest {
                 .specification(Map.of("test1", "test2"))
                 .build();
 
-        when(productService.placeProduct(eq(productRequest))).thenReturn(ProductDto.builder().id(UUID.randomUUID()).build());
+        when(productService.placeProduct(eq(productRequest))).thenReturn(Mono.just(ProductDto.builder().id(UUID.randomUUID()).build()));
 
         return webTestClient.post().uri("/api/product")
                 .body(BodyInserters.fromValue(productRequest))
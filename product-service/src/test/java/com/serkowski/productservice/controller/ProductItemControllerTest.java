@@ -3,8 +3,10 @@ package com.serkowski.productservice.controller;
 import com.serkowski.productservice.config.SecurityConfig;
 import com.serkowski.productservice.dto.ErrorHandlerResponse;
 import com.serkowski.productservice.dto.ProductItemDto;
+import com.serkowski.productservice.dto.ProductItemIngestResultDto;
 import com.serkowski.productservice.model.error.AddItemIndexException;
 import com.serkowski.productservice.model.error.ProductNotFound;
+import com.serkowski.productservice.service.api.ProductItemIngestService;
 import com.serkowski.productservice.service.api.ProductItemService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,20 +16,25 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(ProductItemController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, ProductLinkFactory.class})
 class ProductItemControllerTest {
 
     @Autowired
     private WebTestClient webTestClient;
     @MockBean
     private ProductItemService productItemService;
+    @MockBean
+    private ProductItemIngestService productItemIngestService;
 
     @Test
     void shouldAddItem() {
@@ -35,7 +42,7 @@ class ProductItemControllerTest {
                 .serialNumber("serialNumber1")
                 .build();
 
-        when(productItemService.addItem(eq("123"), eq(productItemDto))).thenReturn(ProductItemDto.builder().build());
+        when(productItemService.addItem(eq("123"), eq(productItemDto))).thenReturn(Mono.just(ProductItemDto.builder().build()));
 
         webTestClient.post().uri("/api/product/123/add-item")
                 .body(BodyInserters.fromValue(productItemDto))
@@ -51,7 +58,7 @@ class ProductItemControllerTest {
         ProductItemDto productItemDto = ProductItemDto.builder()
                 .serialNumber("serialNumber1")
                 .build();
-        when(productItemService.addItem(eq("123"), eq(productItemDto))).thenThrow(ProductNotFound.class);
+        when(productItemService.addItem(eq("123"), eq(productItemDto))).thenReturn(Mono.error(new ProductNotFound("Product not exist")));
 
         webTestClient.post().uri("/api/product/123/add-item")
                 .body(BodyInserters.fromValue(productItemDto))
@@ -67,7 +74,7 @@ class ProductItemControllerTest {
         ProductItemDto productItemDto = ProductItemDto.builder()
                 .serialNumber("serialNumber1")
                 .build();
-        when(productItemService.addItem(eq("123"), eq(productItemDto))).thenThrow(AddItemIndexException.class);
+        when(productItemService.addItem(eq("123"), eq(productItemDto))).thenReturn(Mono.error(new AddItemIndexException("Item already exist")));
 
         webTestClient.post().uri("/api/product/123/add-item")
                 .body(BodyInserters.fromValue(productItemDto))
@@ -78,9 +85,35 @@ class ProductItemControllerTest {
                 .expectBody(ErrorHandlerResponse.class);
     }
 
+    @Test
+    void shouldStreamResultsOfUploadedItems() {
+        when(productItemIngestService.ingestItems(eq("123"), any())).thenReturn(Flux.just(
+                ProductItemIngestResultDto.builder()
+                        .line(1)
+                        .serialNumber("serialNumber1")
+                        .id(UUID.randomUUID())
+                        .status(ProductItemIngestResultDto.Status.CREATED)
+                        .build(),
+                ProductItemIngestResultDto.builder()
+                        .line(2)
+                        .serialNumber("serialNumber1")
+                        .status(ProductItemIngestResultDto.Status.DUPLICATE)
+                        .build()));
+
+        webTestClient.post().uri("/api/product/123/items")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"serialNumber\":\"serialNumber1\"}\n{\"serialNumber\":\"serialNumber1\"}\n")
+                .headers(headers -> headers.setBasicAuth("user", "password"))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductItemIngestResultDto.class)
+                .hasSize(2);
+    }
+
     @Test
     void shouldGetProduct() {
-        when(productItemService.getItemById(eq("123"))).thenReturn(ProductItemDto.builder().id(UUID.randomUUID()).build());
+        when(productItemService.getItemById(eq("123"))).thenReturn(Mono.just(ProductItemDto.builder().id(UUID.randomUUID()).build()));
 
         webTestClient.get().uri("/api/product/item/123")
                 .headers(headers -> headers.setBasicAuth("user", "password"))
@@ -92,7 +125,7 @@ class ProductItemControllerTest {
 
     @Test
     void shouldNotGetProductItemBecauseOfWrongId() {
-        when(productItemService.getItemById(eq("123"))).thenThrow(ProductNotFound.class);
+        when(productItemService.getItemById(eq("123"))).thenReturn(Mono.error(new ProductNotFound("Product item not exist")));
 
         webTestClient.get().uri("/api/product/item/123")
                 .headers(headers -> headers.setBasicAuth("user", "password"))
@@ -0,0 +1,42 @@
+package com.serkowski.productservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+class ProductLinkFactoryTest {
+
+    private final ProductLinkFactory productLinkFactory = new ProductLinkFactory();
+
+    @Test
+    void shouldRenderSameProductLinkAsLinkBuilder() {
+        UUID productId = UUID.randomUUID();
+
+        Link link = productLinkFactory.productSelf(productId);
+
+        assertAll(
+                "Assert product link",
+                () -> assertEquals(linkTo(ProductController.class).slash(productId).withSelfRel(), link),
+                () -> assertEquals("/api/product/" + productId, link.getHref()),
+                () -> assertEquals("/api/product", productLinkFactory.productsPath())
+        );
+    }
+
+    @Test
+    void shouldRenderItemLinkToItemEndpoint() {
+        UUID productItemId = UUID.randomUUID();
+
+        Link link = productLinkFactory.itemSelf(productItemId);
+
+        assertAll(
+                "Assert item link",
+                () -> assertEquals("/api/product/item/" + productItemId, link.getHref()),
+                () -> assertEquals(IanaLinkRelations.SELF, link.getRel())
+        );
+    }
+}
@@ -5,6 +5,7 @@ import com.serkowski.productservice.dto.ErrorHandlerResponse;
 import com.serkowski.productservice.dto.ProductDto;
 import com.serkowski.productservice.dto.request.ReservationRequestDto;
 import com.serkowski.productservice.dto.request.ReserveItemDto;
+import com.serkowski.productservice.dto.request.UnlockReservationRequestDto;
 import com.serkowski.productservice.model.error.ProductNotFound;
 import com.serkowski.productservice.model.error.ReservationItemsException;
 import com.serkowski.productservice.service.api.ProductService;
@@ -17,6 +18,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -48,6 +50,7 @@ class ReservationControllerTest {
                         .build()
                 ))
                 .build();
+        when(reservationService.reserve(eq(reservationRequestDto))).thenReturn(Mono.just(List.of("item1")));
 
         webTestClient.post().uri("/api/reservation/reserve")
                 .body(BodyInserters.fromValue(reservationRequestDto))
@@ -85,7 +88,8 @@ class ReservationControllerTest {
                         .build()
                 ))
                 .build();
-        doThrow(ReservationItemsException.class).when(reservationService).reserve(eq(reservationRequestDto));
+        when(reservationService.reserve(eq(reservationRequestDto)))
+                .thenReturn(Mono.error(new ReservationItemsException("The amount of the available products is not enough to make a full reservation")));
 
         webTestClient.post().uri("/api/reservation/reserve")
                 .body(BodyInserters.fromValue(reservationRequestDto))
@@ -95,4 +99,38 @@ class ReservationControllerTest {
                 .expectStatus().isBadRequest()
                 .expectBody(ErrorHandlerResponse.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnNumberOfUnlockedItems() {
+        UnlockReservationRequestDto unlockReservationRequestDto = UnlockReservationRequestDto.builder()
+                .orderNumber("order1")
+                .build();
+        when(reservationService.unlockReservation(eq("order1"))).thenReturn(Mono.just(2L));
+
+        webTestClient.post().uri("/api/reservation/unlock")
+                .body(BodyInserters.fromValue(unlockReservationRequestDto))
+                .headers(headers -> headers.setBasicAuth("user", "password"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Long.class)
+                .isEqualTo(2L);
+    }
+
+    @Test
+    void shouldReturnZeroWhenOrderHasNoActiveReservation() {
+        UnlockReservationRequestDto unlockReservationRequestDto = UnlockReservationRequestDto.builder()
+                .orderNumber("order1")
+                .build();
+        when(reservationService.unlockReservation(eq("order1"))).thenReturn(Mono.just(0L));
+
+        webTestClient.post().uri("/api/reservation/unlock")
+                .body(BodyInserters.fromValue(unlockReservationRequestDto))
+                .headers(headers -> headers.setBasicAuth("user", "password"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Long.class)
+                .isEqualTo(0L);
+    }
+}
@@ -0,0 +1,48 @@
+package com.serkowski.productservice.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    private final TimeOrderedIdGenerator idGenerator = new TimeOrderedIdGenerator();
+
+    @Test
+    void shouldGenerateVersion7Ids() {
+        long before = System.currentTimeMillis();
+        UUID id = idGenerator.generateId();
+        long after = System.currentTimeMillis();
+
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertAll(
+                "Assert id layout",
+                () -> assertEquals(7, id.version()),
+                () -> assertEquals(2, id.variant()),
+                () -> assertTrue(timestamp >= before && timestamp <= after)
+        );
+    }
+
+    @Test
+    void shouldOrderIdsOfLaterMillisecondsAfterEarlierOnes() throws InterruptedException {
+        String first = idGenerator.generateId().toString();
+        Thread.sleep(2);
+        String second = idGenerator.generateId().toString();
+
+        assertTrue(first.compareTo(second) < 0);
+    }
+
+    @Test
+    void shouldGenerateUniqueIds() {
+        Set<UUID> ids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(idGenerator.generateId());
+        }
+
+        assertEquals(100_000, ids.size());
+    }
+}
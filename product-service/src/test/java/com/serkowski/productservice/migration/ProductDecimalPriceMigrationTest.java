@@ -0,0 +1,79 @@
+package com.serkowski.productservice.migration;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataMongoTest
+@Testcontainers
+class ProductDecimalPriceMigrationTest {
+
+    @Autowired
+    ReactiveMongoTemplate mongoTemplate;
+
+    ProductDecimalPriceMigration migration;
+
+    @Container
+    static final MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:4.4.2");
+
+    @DynamicPropertySource
+    static void mongoDbProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+
+        mongoDBContainer.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        mongoDBContainer.stop();
+    }
+
+    @BeforeEach
+    void clean() {
+        migration = new ProductDecimalPriceMigration(mongoTemplate);
+        mongoTemplate.dropCollection("product").block();
+    }
+
+    @Test
+    void shouldConvertStringPricesToDecimal() {
+        mongoTemplate.insert(new Document("_id", "product1").append("price", "10.50"), "product").block();
+        mongoTemplate.insert(new Document("_id", "product2").append("price", new Decimal128(new BigDecimal("9"))), "product").block();
+        mongoTemplate.insert(new Document("_id", "product3"), "product").block();
+
+        migration.run(new DefaultApplicationArguments());
+        migration.run(new DefaultApplicationArguments());
+
+        assertAll(
+                "Assert converted prices",
+                () -> assertEquals(new Decimal128(new BigDecimal("10.50")), price("product1")),
+                () -> assertEquals(new Decimal128(new BigDecimal("9")), price("product2")),
+                () -> assertNull(price("product3"))
+        );
+    }
+
+    private Object price(String productId) {
+        Document product = mongoTemplate.findById(productId, Document.class, "product").block();
+        assertNotNull(product);
+        return product.get("price");
+    }
+}
@@ -0,0 +1,167 @@
+package com.serkowski.productservice.migration;
+
+import com.serkowski.productservice.model.Availability;
+import com.serkowski.productservice.model.ProductItem;
+import com.serkowski.productservice.model.Reservation;
+import com.serkowski.productservice.model.ReservationStatus;
+import com.serkowski.productservice.repository.product.item.ProductItemReadRepository;
+import com.serkowski.productservice.repository.product.item.ProductItemWriteRepository;
+import com.serkowski.productservice.repository.product.stock.ProductStockReadRepository;
+import com.serkowski.productservice.repository.product.stock.ProductStockWriteRepository;
+import com.serkowski.productservice.repository.product.view.ProductViewWriteRepository;
+import com.serkowski.productservice.service.impl.ProductStockServiceImpl;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataMongoTest
+@Testcontainers
+class ProductItemOwnershipMigrationTest {
+
+    @Autowired
+    ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    ProductItemReadRepository productItemReadRepository;
+
+    @Autowired
+    ProductItemWriteRepository productItemWriteRepository;
+
+    @Autowired
+    ProductStockReadRepository productStockReadRepository;
+
+    @Autowired
+    ProductStockWriteRepository productStockWriteRepository;
+
+    @Autowired
+    ProductViewWriteRepository productViewWriteRepository;
+
+    ProductItemOwnershipMigration migration;
+
+    @Container
+    static final MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:4.4.2");
+
+    @DynamicPropertySource
+    static void mongoDbProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+
+        mongoDBContainer.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        mongoDBContainer.stop();
+    }
+
+    @BeforeEach
+    void clean() {
+        migration = new ProductItemOwnershipMigration(mongoTemplate,
+                new ProductStockServiceImpl(productStockReadRepository, productStockWriteRepository, productItemReadRepository,
+                        productViewWriteRepository));
+        mongoTemplate.dropCollection("product").block();
+        mongoTemplate.dropCollection("reservation").block();
+        productItemWriteRepository.deleteAll().block();
+        productStockWriteRepository.deleteAll().block();
+    }
+
+    @Test
+    void shouldMoveItemsOwnershipToProductItems() {
+        productItemWriteRepository.saveAll(List.of(
+                legacyItem("item1", "serial1", Availability.AVAILABLE),
+                legacyItem("item2", "serial2", Availability.RESERVED))).blockLast();
+        mongoTemplate.insert(new Document("_id", "product1")
+                .append("name", "name1")
+                .append("items", List.of("item1", "item2")), "product").block();
+
+        migration.run(new DefaultApplicationArguments());
+
+        Document product = mongoTemplate.findById("product1", Document.class, "product").block();
+        assertAll(
+                "Assert migrated product",
+                () -> assertNotNull(product),
+                () -> assertFalse(product.containsKey("items"), "Items array should be removed"),
+                () -> assertEquals(Boolean.TRUE, productItemReadRepository.findAll()
+                        .all(item -> "product1".equals(item.getProductId()))
+                        .block(), "Items should point to the product"),
+                () -> StepVerifier.create(productStockReadRepository.findById("product1"))
+                        .assertNext(stock -> assertAll(
+                                () -> assertEquals(1, stock.getAvailable()),
+                                () -> assertEquals(1, stock.getReserved())
+                        ))
+                        .verifyComplete()
+        );
+    }
+
+    @Test
+    void shouldSkipAlreadyMigratedProducts() {
+        mongoTemplate.insert(new Document("_id", "product1").append("name", "name1"), "product").block();
+
+        migration.run(new DefaultApplicationArguments());
+
+        StepVerifier.create(productStockReadRepository.count())
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldTagItemsOfActiveReservations() {
+        productItemWriteRepository.saveAll(List.of(
+                legacyItem("item1", "serial1", Availability.RESERVED),
+                legacyItem("item2", "serial2", Availability.RESERVED))).blockLast();
+        mongoTemplate.insertAll(List.of(
+                Reservation.builder()
+                        .id("reservation1")
+                        .orderNumber("order1")
+                        .productItems(List.of("item1"))
+                        .reservationStatus(ReservationStatus.ACTIVE)
+                        .build(),
+                Reservation.builder()
+                        .id("reservation2")
+                        .orderNumber("order2")
+                        .productItems(List.of("item2"))
+                        .reservationStatus(ReservationStatus.CANCELED)
+                        .build())).blockLast();
+
+        migration.run(new DefaultApplicationArguments());
+
+        assertAll(
+                "Assert tagged items",
+                () -> StepVerifier.create(productItemReadRepository.findById("item1"))
+                        .assertNext(item -> assertEquals("reservation1", item.getReservationId()))
+                        .verifyComplete(),
+                () -> StepVerifier.create(productItemReadRepository.findById("item2"))
+                        .assertNext(item -> assertNull(item.getReservationId()))
+                        .verifyComplete()
+        );
+    }
+
+    private ProductItem legacyItem(String id, String serialNumber, Availability availability) {
+        return ProductItem.builder()
+                .id(id)
+                .serialNumber(serialNumber)
+                .availability(availability)
+                .updateDate(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.serkowski.productservice.repository.product;
+
+import com.serkowski.productservice.model.ProductView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductReadRepositoryImplTest {
+
+    @Mock
+    private ReactiveMongoTemplate secondaryTemplate;
+    @Mock
+    private ReactiveMongoTemplate primaryTemplate;
+
+    @Test
+    void shouldReadSingleProductViewFromPrimary() {
+        ProductReadRepositoryCustom productReadRepository = new ProductReadRepositoryImpl(secondaryTemplate, primaryTemplate);
+        ProductView productView = ProductView.builder().id("1").build();
+        when(primaryTemplate.findById(eq("1"), eq(ProductView.class))).thenReturn(Mono.just(productView));
+
+        StepVerifier.create(productReadRepository.findViewById("1"))
+                .expectNext(productView)
+                .verifyComplete();
+
+        verifyNoInteractions(secondaryTemplate);
+    }
+
+    @Test
+    void shouldReadSearchedProductViewsWithConfiguredReadPreference() {
+        ProductReadRepositoryCustom productReadRepository = new ProductReadRepositoryImpl(secondaryTemplate, primaryTemplate);
+        when(secondaryTemplate.find(any(Query.class), eq(ProductView.class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(productReadRepository.findViewsByIdIn(List.of("1")))
+                .verifyComplete();
+
+        verifyNoInteractions(primaryTemplate);
+    }
+}
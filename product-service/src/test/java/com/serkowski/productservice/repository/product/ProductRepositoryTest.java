@@ -1,30 +1,51 @@
 package com.serkowski.productservice.repository.product;
 
+import com.serkowski.productservice.cache.ProductCache;
+import com.serkowski.productservice.config.ProductCacheProperties;
+import com.serkowski.productservice.config.ProductSearchProperties;
 import com.serkowski.productservice.dto.ProductDto;
+import com.serkowski.productservice.id.TimeOrderedIdGenerator;
 import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.ProductCatalogSort;
+import com.serkowski.productservice.model.ProductView;
 import com.serkowski.productservice.model.error.ProductNotFound;
+import com.serkowski.productservice.repository.product.item.ProductItemReadRepository;
 import com.serkowski.productservice.repository.product.item.ProductItemWriteRepository;
+import com.serkowski.productservice.repository.product.stock.ProductStockReadRepository;
+import com.serkowski.productservice.repository.product.stock.ProductStockWriteRepository;
+import com.serkowski.productservice.repository.product.view.ProductViewWriteRepository;
+import com.serkowski.productservice.search.ProductSearchIndex;
 import com.serkowski.productservice.service.api.ProductService;
+import com.serkowski.productservice.service.api.ProductStockService;
+import com.serkowski.productservice.service.impl.ProductMapperImpl;
 import com.serkowski.productservice.service.impl.ProductServiceImpl;
+import com.serkowski.productservice.service.impl.ProductStockServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.Decimal128;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 @DataMongoTest
 @Testcontainers
@@ -36,12 +57,29 @@ class ProductRepositoryTest {
     @Autowired
     ProductWriteRepository productWriteRepository;
 
+    @Autowired
+    ProductItemReadRepository productItemReadRepository;
+
     @Autowired
     ProductItemWriteRepository productItemWriteRepository;
 
+    @Autowired
+    ProductStockReadRepository productStockReadRepository;
+
+    @Autowired
+    ProductStockWriteRepository productStockWriteRepository;
+
+    @Autowired
+    ProductViewWriteRepository productViewWriteRepository;
+
+    @Autowired
+    ReactiveMongoTemplate mongoTemplate;
+
 
     ProductService productService;
 
+    ProductStockService productStockService;
+
     @Container
     static final MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:4.4.2");
 
@@ -63,8 +101,15 @@ class ProductRepositoryTest {
 
     @BeforeEach
     void clean() {
-        productService = new ProductServiceImpl(productReadRepository, productWriteRepository, productItemWriteRepository);
-        productWriteRepository.deleteAll();
+        productStockService = new ProductStockServiceImpl(productStockReadRepository, productStockWriteRepository, productItemReadRepository,
+                productViewWriteRepository);
+        productService = new ProductServiceImpl(productReadRepository, productWriteRepository, productViewWriteRepository, productItemWriteRepository,
+                productStockService,
+                new ProductCache(new ProductCacheProperties(), new SimpleMeterRegistry()),
+                new ProductSearchIndex(new ProductSearchProperties()), new TimeOrderedIdGenerator(), new ProductMapperImpl());
+        productWriteRepository.deleteAll().block();
+        productStockWriteRepository.deleteAll().block();
+        productViewWriteRepository.deleteAll().block();
     }
 
     @Test
@@ -78,9 +123,16 @@ class ProductRepositoryTest {
                 .specification(Map.of("test1", "test2"))
                 .build();
 
-        productService.placeProduct(productRequest);
+        StepVerifier.create(productService.placeProduct(productRequest))
+                .expectNextCount(1)
+                .verifyComplete();
 
-        assertEquals(1, productReadRepository.findAll().size());
+        StepVerifier.create(productReadRepository.count())
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(productStockReadRepository.count())
+                .expectNext(1L)
+                .verifyComplete();
     }
 
     @Test
@@ -93,7 +145,7 @@ class ProductRepositoryTest {
                 .categories(List.of("category1"))
                 .description("desc")
                 .specification(Map.of("test1", "test2"))
-                .build());
+                .build()).block();
 
         ProductDto productRequest = ProductDto.builder()
                 .id(UUID.fromString(save.getId()))
@@ -105,9 +157,13 @@ class ProductRepositoryTest {
                 .specification(Map.of("test1", "test2"))
                 .build();
 
-        productService.updateProduct(productRequest);
+        StepVerifier.create(productService.updateProduct(productRequest))
+                .expectNextCount(1)
+                .verifyComplete();
 
-        productReadRepository.findById(save.getId()).ifPresent(product -> assertEquals("name", product.getName()));
+        StepVerifier.create(productReadRepository.findById(save.getId()))
+                .assertNext(product -> assertEquals("name", product.getName()))
+                .verifyComplete();
     }
 
     @Test
@@ -116,18 +172,58 @@ class ProductRepositoryTest {
                 .id(UUID.randomUUID())
                 .build();
 
-        ProductNotFound exception = assertThrows(ProductNotFound.class, () ->
-                productService.updateProduct(productRequest)
+        StepVerifier.create(productService.updateProduct(productRequest))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ProductNotFound.class, exception.getClass());
+                    assertEquals("Product which id: " + productRequest.getId().toString() + " not exist, so can't be updated", exception.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    void shouldReadAndUpdateProductWithoutLegacyItems() {
+        List<String> legacyItems = Stream.generate(() -> UUID.randomUUID().toString()).limit(100).toList();
+        mongoTemplate.insert(new Document("_id", "legacy1")
+                .append("name", "name1")
+                .append("price", new Decimal128(BigDecimal.TEN))
+                .append("tags", List.of("tag1"))
+                .append("items", legacyItems), "product").block();
+        productViewWriteRepository.rebuild().block();
+
+        StepVerifier.create(productReadRepository.findViewById("legacy1"))
+                .assertNext(product -> assertAll(
+                        () -> assertEquals("name1", product.getName()),
+                        () -> assertEquals(0, BigDecimal.TEN.compareTo(product.getPrice())),
+                        () -> assertEquals(List.of("tag1"), product.getTags())
+                ))
+                .verifyComplete();
+
+        StepVerifier.create(productWriteRepository.updateDetails(Product.builder()
+                        .id("legacy1")
+                        .name("name2")
+                        .price(new BigDecimal("12.50"))
+                        .build()))
+                .expectNext(true)
+                .verifyComplete();
+
+        Document stored = mongoTemplate.findById("legacy1", Document.class, "product").block();
+        assertNotNull(stored);
+        assertAll(
+                "Assert updated document",
+                () -> assertEquals("name2", stored.getString("name")),
+                () -> assertEquals(new Decimal128(new BigDecimal("12.50")), stored.get("price")),
+                () -> assertEquals(legacyItems, stored.getList("items", String.class))
         );
-        assertEquals("Product which id: " + productRequest.getId().toString() + " not exist, so can't be updated", exception.getMessage());
     }
 
     @Test
     void shouldThrowExceptionDuringGetProduct() {
-        ProductNotFound exception = assertThrows(ProductNotFound.class, () ->
-                productService.getProductById("testNumber123")
-        );
-        assertEquals("Product which id: testNumber123 not exist", exception.getMessage());
+        StepVerifier.create(productService.getProductById("testNumber123"))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ProductNotFound.class, exception.getClass());
+                    assertEquals("Product which id: testNumber123 not exist", exception.getMessage());
+                })
+                .verify();
     }
 
     @Test
@@ -140,21 +236,169 @@ class ProductRepositoryTest {
                 .categories(List.of("category1"))
                 .description("desc")
                 .specification(Map.of("test1", "test2"))
-                .build());
+                .build()).block();
 
-        productService.deleteProductById(save.getId());
+        StepVerifier.create(productService.deleteProductById(save.getId()))
+                .verifyComplete();
 
-
-        assertEquals(0, productReadRepository.findAll().size());
+        StepVerifier.create(productReadRepository.count())
+                .expectNext(0L)
+                .verifyComplete();
     }
 
     @Test
     void shouldThrowExceptionDuringDeleteProduct() {
-        ProductNotFound exception = assertThrows(ProductNotFound.class, () ->
-                productService.deleteProductById("testNumber123")
+        StepVerifier.create(productService.deleteProductById("testNumber123"))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ProductNotFound.class, exception.getClass());
+                    assertEquals("Product which id: testNumber123 not exist, so can't be deleted", exception.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    void shouldPageCatalogByCategoryTagAndPrice() {
+        Flux.range(0, 10)
+                .concatMap(i -> productWriteRepository.save(Product.builder()
+                        .id(UUID.randomUUID().toString())
+                        .name("name" + i)
+                        .price(new BigDecimal(i * 5))
+                        .tags(List.of(i % 2 == 0 ? "even" : "odd", "tag"))
+                        .categories(List.of("category1", "category" + (i + 2)))
+                        .description("desc")
+                        .specification(Map.of("test1", "test2"))
+                        .build()))
+                .blockLast();
+
+        ProductCatalogQuery.ProductCatalogQueryBuilder catalogQuery = ProductCatalogQuery.builder()
+                .category("category1")
+                .tag("even")
+                .minPrice(new BigDecimal("5"))
+                .maxPrice(new BigDecimal("35"))
+                .limit(2);
+        List<Product> firstPage = productReadRepository.findCatalogPage(catalogQuery.build())
+                .collectList().block();
+        assertNotNull(firstPage);
+        List<Product> secondPage = productReadRepository.findCatalogPage(catalogQuery.afterId(firstPage.get(firstPage.size() - 1).getId()).build())
+                .collectList().block();
+        assertNotNull(secondPage);
+
+        List<String> names = Stream.concat(firstPage.stream(), secondPage.stream()).map(Product::getName).sorted().toList();
+        assertAll(
+                "Assert catalog pages",
+                () -> assertEquals(2, firstPage.size()),
+                () -> assertEquals(1, secondPage.size()),
+                () -> assertEquals(List.of("name2", "name4", "name6"), names),
+                () -> assertTrue(firstPage.get(1).getId().compareTo(secondPage.get(0).getId()) < 0)
+        );
+    }
+
+    @Test
+    void shouldPageCatalogByPrice() {
+        List<String> prices = List.of("9.99", "10.00", "10.00", "100", "25.5", "10.00");
+        Flux.fromIterable(prices)
+                .concatMap(price -> productWriteRepository.save(Product.builder()
+                        .id(UUID.randomUUID().toString())
+                        .name(price)
+                        .price(new BigDecimal(price))
+                        .tags(List.of("tag1"))
+                        .build()))
+                .blockLast();
+
+        List<BigDecimal> ascending = new ArrayList<>();
+        ProductCatalogQuery.ProductCatalogQueryBuilder catalogQuery = ProductCatalogQuery.builder()
+                .tag("tag1")
+                .sort(ProductCatalogSort.PRICE_ASC)
+                .limit(2);
+        List<Product> page = productReadRepository.findCatalogPage(catalogQuery.build()).collectList().block();
+        while (page != null && !page.isEmpty()) {
+            page.forEach(product -> ascending.add(product.getPrice()));
+            Product last = page.get(page.size() - 1);
+            page = productReadRepository.findCatalogPage(catalogQuery.afterPrice(last.getPrice()).afterId(last.getId()).build())
+                    .collectList().block();
+        }
+
+        List<Product> descending = productReadRepository.findCatalogPage(ProductCatalogQuery.builder()
+                        .sort(ProductCatalogSort.PRICE_DESC)
+                        .maxPrice(new BigDecimal("30"))
+                        .limit(10)
+                        .build())
+                .collectList().block();
+        assertNotNull(descending);
+
+        assertAll(
+                "Assert price order",
+                () -> assertEquals(Stream.of("9.99", "10.00", "10.00", "10.00", "25.5", "100").map(BigDecimal::new).toList(), ascending),
+                () -> assertEquals(List.of("25.5", "10.00", "10.00", "10.00", "9.99"), descending.stream().map(Product::getName).toList())
         );
+    }
+
+    @Test
+    void shouldStreamProductViews() {
+        Flux.range(0, 5)
+                .concatMap(i -> productService.placeProduct(ProductDto.builder()
+                        .name("name" + i)
+                        .price(BigDecimal.ONE)
+                        .tags(List.of("tag1"))
+                        .categories(List.of("category1"))
+                        .description("desc")
+                        .specification(Map.of("test1", "test2"))
+                        .build()))
+                .blockLast();
+        productWriteRepository.save(Product.builder()
+                .id(UUID.randomUUID().toString())
+                .name("withoutView")
+                .build()).block();
+
+        StepVerifier.create(productReadRepository.streamProducts(2))
+                .expectNextCount(6)
+                .verifyComplete();
+        StepVerifier.create(productReadRepository.streamProductViews(2))
+                .recordWith(ArrayList::new)
+                .expectNextCount(5)
+                .consumeRecordedWith(products -> products.forEach(product -> assertAll(
+                        () -> assertEquals(0L, product.getAvailable()),
+                        () -> assertEquals(0, BigDecimal.ONE.compareTo(product.getPrice())),
+                        () -> assertEquals("test2", product.getAttributes().get(0).getValue())
+                )))
+                .verifyComplete();
+    }
 
-        assertEquals("Product which id: testNumber123 not exist, so can't be deleted", exception.getMessage());
+    @Test
+    void shouldKeepProductViewInSyncAndRebuildIt() {
+        ProductDto placed = productService.placeProduct(ProductDto.builder()
+                .name("name")
+                .price(new BigDecimal("12.50"))
+                .tags(List.of("tag1"))
+                .specification(Map.of("color", "red"))
+                .build()).block();
+        assertNotNull(placed);
+        String productId = placed.getId().toString();
+        productStockService.addAvailable(productId, 3).block();
+        productStockService.reserve(productId, 1).block();
+
+        StepVerifier.create(productReadRepository.findViewById(productId))
+                .assertNext(this::assertSyncedView)
+                .verifyComplete();
+
+        productViewWriteRepository.deleteAll().block();
+        StepVerifier.create(productViewWriteRepository.rebuild())
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(productReadRepository.findViewById(productId))
+                .assertNext(this::assertSyncedView)
+                .verifyComplete();
     }
 
-}
\ No newline at end of file
+    private void assertSyncedView(ProductView view) {
+        assertAll(
+                "Assert product view",
+                () -> assertEquals("name", view.getName()),
+                () -> assertEquals(0, new BigDecimal("12.50").compareTo(view.getPrice())),
+                () -> assertEquals("color", view.getAttributes().get(0).getName()),
+                () -> assertEquals("red", view.getAttributes().get(0).getValue()),
+                () -> assertEquals(2L, view.getAvailable()),
+                () -> assertEquals(1L, view.getReserved())
+        );
+    }
+}
@@ -1,23 +1,35 @@
 package com.serkowski.productservice.repository.product.item;
 
+import com.serkowski.productservice.coalescer.ItemClaimCoalescer;
+import com.serkowski.productservice.config.ReservationProperties;
 import com.serkowski.productservice.dto.ProductItemDto;
 import com.serkowski.productservice.dto.request.ReserveItemDto;
+import com.serkowski.productservice.id.TimeOrderedIdGenerator;
 import com.serkowski.productservice.model.Availability;
 import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.ProductItem;
 import com.serkowski.productservice.model.error.AddItemIndexException;
 import com.serkowski.productservice.model.error.ProductNotFound;
 import com.serkowski.productservice.model.error.ReservationItemsException;
 import com.serkowski.productservice.repository.product.ProductReadRepository;
 import com.serkowski.productservice.repository.product.ProductWriteRepository;
+import com.serkowski.productservice.repository.product.stock.ProductStockReadRepository;
+import com.serkowski.productservice.repository.product.stock.ProductStockWriteRepository;
+import com.serkowski.productservice.repository.product.view.ProductViewWriteRepository;
 import com.serkowski.productservice.service.api.ProductInnerService;
 import com.serkowski.productservice.service.api.ProductItemService;
 import com.serkowski.productservice.service.impl.ProductInnerServiceImpl;
 import com.serkowski.productservice.service.impl.ProductItemServiceImpl;
+import com.serkowski.productservice.service.impl.ProductStockServiceImpl;
 import org.jetbrains.annotations.NotNull;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -25,10 +37,17 @@ import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -49,9 +68,19 @@ class ProductItemRepositoryTest {
     @Autowired
     ProductItemWriteRepository productItemWriteRepository;
 
+    @Autowired
+    ProductStockReadRepository productStockReadRepository;
+
+    @Autowired
+    ProductStockWriteRepository productStockWriteRepository;
+
+    @Autowired
+    ProductViewWriteRepository productViewWriteRepository;
+
 
     ProductInnerService productInnerService;
     ProductItemService productItemService;
+    ItemClaimCoalescer itemClaimCoalescer;
 
     @Container
     static final MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:4.4.2");
@@ -75,9 +104,15 @@ class ProductItemRepositoryTest {
     @BeforeEach
     void clean() {
         productInnerService = new ProductInnerServiceImpl(productReadRepository, productWriteRepository);
-        productItemService = new ProductItemServiceImpl(productInnerService, productItemReadRepository, productItemWriteRepository);
-        productWriteRepository.deleteAll();
-        productItemWriteRepository.deleteAll();
+        productItemService = productItemService(new ReservationProperties());
+        productWriteRepository.deleteAll().block();
+        productItemWriteRepository.deleteAll().block();
+        productStockWriteRepository.deleteAll().block();
+    }
+
+    @AfterEach
+    void destroy() {
+        itemClaimCoalescer.destroy();
     }
 
     @Test
@@ -87,16 +122,19 @@ class ProductItemRepositoryTest {
                 .serialNumber("serialNumber123")
                 .build();
 
-        productItemService.addItem(save.getId(), productItemDto);
+        StepVerifier.create(productItemService.addItem(save.getId(), productItemDto))
+                .expectNextCount(1)
+                .verifyComplete();
 
-        productItemReadRepository.findBySerialNumber(productItemDto.getSerialNumber())
-                .ifPresent(result -> assertAll(
+        StepVerifier.create(productItemReadRepository.findBySerialNumber(productItemDto.getSerialNumber()))
+                .assertNext(result -> assertAll(
                         "Assert result",
                         () -> assertNotNull(result.getId(), "Product item id should not be null"),
                         () -> assertEquals("serialNumber123", result.getSerialNumber(), "Serial number should be \"serialNumber123\""),
                         () -> assertEquals(Availability.AVAILABLE, result.getAvailability(), "Availability should be \"AVAILABLE\""),
                         () -> assertNotNull(result.getUpdateDate(), "Update date should not be empty")
-                ));
+                ))
+                .verifyComplete();
 
     }
 
@@ -110,12 +148,15 @@ class ProductItemRepositoryTest {
                 .serialNumber("serialNumber12345")
                 .build();
 
-        productItemService.addItem(save.getId(), productItemDto);
-        productItemService.addItem(save.getId(), productItemDto2);
+        productItemService.addItem(save.getId(), productItemDto).block();
+        productItemService.addItem(save.getId(), productItemDto2).block();
 
-        assertEquals(2, productItemReadRepository.findAll().size());
-        productReadRepository.findById(save.getId())
-                .ifPresent(product -> assertEquals(2, product.getItems().size()));
+        StepVerifier.create(productItemReadRepository.count())
+                .expectNext(2L)
+                .verifyComplete();
+        StepVerifier.create(productItemReadRepository.countByProductIdAndAvailability(save.getId(), Availability.AVAILABLE))
+                .expectNext(2L)
+                .verifyComplete();
     }
 
     @Test
@@ -124,10 +165,12 @@ class ProductItemRepositoryTest {
                 .serialNumber("serialNumber")
                 .build();
 
-        ProductNotFound exception = assertThrows(ProductNotFound.class, () ->
-                productItemService.addItem("123", productItemDto)
-        );
-        assertEquals("Product which id: 123 not exist", exception.getMessage());
+        StepVerifier.create(productItemService.addItem("123", productItemDto))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ProductNotFound.class, exception.getClass());
+                    assertEquals("Product which id: 123 not exist", exception.getMessage());
+                })
+                .verify();
     }
 
     @Test
@@ -140,21 +183,25 @@ class ProductItemRepositoryTest {
                 .serialNumber("serialNumber123")
                 .build();
 
-        productItemService.addItem(save.getId(), productItemDto);
+        productItemService.addItem(save.getId(), productItemDto).block();
 
-        AddItemIndexException exception = assertThrows(AddItemIndexException.class, () ->
-                productItemService.addItem(save.getId(), productItemDto2)
-        );
-        assertEquals("Product with serial number: serialNumber123 already exist", exception.getMessage());
+        StepVerifier.create(productItemService.addItem(save.getId(), productItemDto2))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(AddItemIndexException.class, exception.getClass());
+                    assertEquals("Product with serial number: serialNumber123 already exist", exception.getMessage());
+                })
+                .verify();
     }
 
 
     @Test
     void shouldThrowExceptionDuringGetProductItemBecauseProductItemWasNotFound() {
-        ProductNotFound exception = assertThrows(ProductNotFound.class, () ->
-                productItemService.getItemById("123")
-        );
-        assertEquals("Product item which id: 123 not exist", exception.getMessage());
+        StepVerifier.create(productItemService.getItemById("123"))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ProductNotFound.class, exception.getClass());
+                    assertEquals("Product item which id: 123 not exist", exception.getMessage());
+                })
+                .verify();
     }
 
     @Test
@@ -167,18 +214,60 @@ class ProductItemRepositoryTest {
                 .serialNumber("serialNumber12345")
                 .build();
 
-        ProductItemDto item1 = productItemService.addItem(save.getId(), productItemDto);
-        ProductItemDto item2 = productItemService.addItem(save.getId(), productItemDto2);
+        ProductItemDto item1 = productItemService.addItem(save.getId(), productItemDto).block();
+        ProductItemDto item2 = productItemService.addItem(save.getId(), productItemDto2).block();
 
-        productItemService.reserveItems(List.of(ReserveItemDto.builder()
+        StepVerifier.create(productItemService.reserveItems(UUID.randomUUID().toString(), List.of(ReserveItemDto.builder()
                         .itemRef(save.getId())
                         .count(2)
                         .build()
-                ));
+                )))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier.create(productItemReadRepository.findAllById(List.of(item1.getId().toString(), item2.getId().toString()))
+                        .all(productItem -> Availability.RESERVED == productItem.getAvailability()))
+                .expectNext(true)
+                .verifyComplete();
+    }
 
-        assertTrue(productItemReadRepository.findByIds(List.of(item1.getId().toString(), item2.getId().toString()))
-                .stream()
-                .allMatch(productItem -> Availability.RESERVED == productItem.getAvailability()));
+    @Test
+    void shouldReserveItemsOfManyProductsWithinOneReservation() {
+        Product product1 = saveProduct();
+        Product product2 = saveProduct();
+        ProductItemDto item1 = productItemService.addItem(product1.getId(), ProductItemDto.builder().serialNumber("serialNumber1").build()).block();
+        ProductItemDto item2 = productItemService.addItem(product1.getId(), ProductItemDto.builder().serialNumber("serialNumber2").build()).block();
+        ProductItemDto item3 = productItemService.addItem(product2.getId(), ProductItemDto.builder().serialNumber("serialNumber3").build()).block();
+        productItemService.addItem(product2.getId(), ProductItemDto.builder().serialNumber("serialNumber4").build()).block();
+        String reservationId = UUID.randomUUID().toString();
+
+        StepVerifier.create(productItemService.reserveItems(reservationId, List.of(ReserveItemDto.builder()
+                                .itemRef(product1.getId())
+                                .count(1)
+                                .build(),
+                        ReserveItemDto.builder()
+                                .itemRef(product2.getId())
+                                .count(1)
+                                .build(),
+                        ReserveItemDto.builder()
+                                .itemRef(product1.getId())
+                                .count(1)
+                                .build(),
+                        ReserveItemDto.builder()
+                                .itemRef(UUID.randomUUID().toString())
+                                .count(1)
+                                .build()
+                )))
+                .assertNext(reservedIds -> assertAll(
+                        () -> assertEquals(3, reservedIds.size()),
+                        () -> assertEquals(Set.of(item1.getId().toString(), item2.getId().toString()), new HashSet<>(reservedIds.subList(0, 2))),
+                        () -> assertEquals(item3.getId().toString(), reservedIds.get(2))
+                ))
+                .verifyComplete();
+
+        StepVerifier.create(productItemReadRepository.findByReservationId(reservationId).count())
+                .expectNext(3L)
+                .verifyComplete();
     }
 
     @Test
@@ -190,23 +279,100 @@ class ProductItemRepositoryTest {
         ProductItemDto productItemDto2 = ProductItemDto.builder()
                 .serialNumber("serialNumber12345")
                 .build();
-        ProductItemDto item1 = productItemService.addItem(save.getId(), productItemDto);
-        ProductItemDto item2 = productItemService.addItem(save.getId(), productItemDto2);
-        productItemReadRepository.findById(item1.getId().toString()).ifPresent(productItem -> {
-            productItem.setAvailability(Availability.RESERVED);
-            productItemWriteRepository.save(productItem);
-        });
-
-        ReservationItemsException exception = assertThrows(ReservationItemsException.class, () ->
-                productItemService.reserveItems(List.of(ReserveItemDto.builder()
+        ProductItemDto item1 = productItemService.addItem(save.getId(), productItemDto).block();
+        ProductItemDto item2 = productItemService.addItem(save.getId(), productItemDto2).block();
+        productItemReadRepository.findById(item1.getId().toString())
+                .flatMap(productItem -> {
+                    productItem.setAvailability(Availability.RESERVED);
+                    return productItemWriteRepository.save(productItem);
+                })
+                .block();
+
+        StepVerifier.create(productItemService.reserveItems(UUID.randomUUID().toString(), List.of(ReserveItemDto.builder()
+                        .itemRef(save.getId())
+                        .count(2)
+                        .build()
+                )))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ReservationItemsException.class, exception.getClass());
+                    assertEquals("The amount of the available products is not enough to make a full reservation", exception.getMessage());
+                })
+                .verify();
+
+        StepVerifier.create(productItemReadRepository.findById(item2.getId().toString()))
+                .assertNext(productItem -> assertEquals(Availability.AVAILABLE, productItem.getAvailability()))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldNeverReserveTheSameItemTwiceDuringConcurrentReservations(boolean coalescerEnabled) {
+        ReservationProperties reservationProperties = new ReservationProperties();
+        reservationProperties.getCoalescer().setEnabled(coalescerEnabled);
+        itemClaimCoalescer.destroy();
+        productItemService = productItemService(reservationProperties);
+        Product save = saveProduct();
+        int itemsCount = 20;
+        int reservationsCount = 60;
+        Flux.range(0, itemsCount)
+                .concatMap(i -> productItemService.addItem(save.getId(), ProductItemDto.builder()
+                        .serialNumber("serialNumber" + i)
+                        .build()))
+                .blockLast();
+
+        List<String> reservedIds = Flux.range(0, reservationsCount)
+                .flatMap(i -> productItemService.reserveItems(UUID.randomUUID().toString(), List.of(ReserveItemDto.builder()
                                 .itemRef(save.getId())
-                                .count(2)
-                                .build()
-                       ))
+                                .count(1)
+                                .build()))
+                        .onErrorResume(ReservationItemsException.class, e -> Mono.just(List.<String>of())), 16)
+                .flatMapIterable(ids -> ids)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertNotNull(reservedIds);
+        assertAll(
+                "Assert concurrent reservations",
+                () -> assertEquals(itemsCount, reservedIds.size(), "Every item should be reserved exactly once"),
+                () -> assertEquals(itemsCount, new HashSet<>(reservedIds).size(), "Item should not be reserved twice"),
+                () -> assertEquals(Boolean.TRUE, productItemReadRepository.findAll()
+                        .all(productItem -> Availability.RESERVED == productItem.getAvailability())
+                        .block(), "All items should be reserved"),
+                () -> StepVerifier.create(productStockReadRepository.findById(save.getId()))
+                        .assertNext(stock -> assertAll(
+                                () -> assertEquals(0, stock.getAvailable(), "Available counter should be 0"),
+                                () -> assertEquals(itemsCount, stock.getReserved(), "Reserved counter should match reserved items")
+                        ))
+                        .verifyComplete()
         );
+    }
 
-        assertEquals("The amount of the available products is not enough to make a full reservation", exception.getMessage());
-        productItemReadRepository.findById(item2.getId().toString()).ifPresent(productItem -> assertEquals(Availability.AVAILABLE, productItem.getAvailability()));
+    @Test
+    void shouldInsertItemsAndReportOnlyDuplicatedSerialNumbers() {
+        Product save = saveProduct();
+        productItemService.addItem(save.getId(), ProductItemDto.builder().serialNumber("serialNumber1").build()).block();
+
+        StepVerifier.create(productItemWriteRepository.insertItems(List.of(
+                        newItem(save.getId(), "serialNumber1"),
+                        newItem(save.getId(), "serialNumber2"),
+                        newItem(save.getId(), "serialNumber2"),
+                        newItem(save.getId(), "serialNumber3"))))
+                .expectNext(Set.of(0, 2))
+                .verifyComplete();
+
+        StepVerifier.create(productItemReadRepository.count())
+                .expectNext(3L)
+                .verifyComplete();
+    }
+
+    private ProductItem newItem(String productId, String serialNumber) {
+        return ProductItem.builder()
+                .id(UUID.randomUUID().toString())
+                .productId(productId)
+                .availability(Availability.AVAILABLE)
+                .serialNumber(serialNumber)
+                .updateDate(LocalDateTime.now())
+                .build();
     }
 
     @NotNull
@@ -219,6 +385,14 @@ class ProductItemRepositoryTest {
                 .categories(List.of("category1"))
                 .description("desc")
                 .specification(Map.of("test1", "test2"))
-                .build());
+                .build()).block();
+    }
+
+    private ProductItemService productItemService(ReservationProperties reservationProperties) {
+        itemClaimCoalescer = new ItemClaimCoalescer(productItemReadRepository, productItemWriteRepository, reservationProperties, new SimpleMeterRegistry());
+        return new ProductItemServiceImpl(productInnerService,
+                new ProductStockServiceImpl(productStockReadRepository, productStockWriteRepository, productItemReadRepository,
+                        productViewWriteRepository),
+                productItemReadRepository, productItemWriteRepository, itemClaimCoalescer, new TimeOrderedIdGenerator());
     }
-}
\ No newline at end of file
+}
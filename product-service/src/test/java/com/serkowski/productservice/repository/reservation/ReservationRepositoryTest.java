@@ -0,0 +1,243 @@
+package com.serkowski.productservice.repository.reservation;
+
+import com.serkowski.productservice.coalescer.ItemClaimCoalescer;
+import com.serkowski.productservice.config.ReservationProperties;
+import com.serkowski.productservice.dto.ProductItemDto;
+import com.serkowski.productservice.dto.request.ReservationRequestDto;
+import com.serkowski.productservice.dto.request.ReserveItemDto;
+import com.serkowski.productservice.id.TimeOrderedIdGenerator;
+import com.serkowski.productservice.model.Availability;
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.Reservation;
+import com.serkowski.productservice.model.ReservationStatus;
+import com.serkowski.productservice.repository.product.ProductReadRepository;
+import com.serkowski.productservice.repository.product.ProductWriteRepository;
+import com.serkowski.productservice.repository.product.item.ProductItemReadRepository;
+import com.serkowski.productservice.repository.product.item.ProductItemWriteRepository;
+import com.serkowski.productservice.repository.product.stock.ProductStockReadRepository;
+import com.serkowski.productservice.repository.product.stock.ProductStockWriteRepository;
+import com.serkowski.productservice.repository.product.view.ProductViewWriteRepository;
+import com.serkowski.productservice.service.api.ProductItemService;
+import com.serkowski.productservice.service.api.ReservationService;
+import com.serkowski.productservice.service.impl.ProductInnerServiceImpl;
+import com.serkowski.productservice.service.impl.ProductItemServiceImpl;
+import com.serkowski.productservice.service.impl.ProductStockServiceImpl;
+import com.serkowski.productservice.service.impl.ReservationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataMongoTest
+@Testcontainers
+class ReservationRepositoryTest {
+
+    @Autowired
+    ProductReadRepository productReadRepository;
+
+    @Autowired
+    ProductWriteRepository productWriteRepository;
+
+    @Autowired
+    ProductItemReadRepository productItemReadRepository;
+
+    @Autowired
+    ProductItemWriteRepository productItemWriteRepository;
+
+    @Autowired
+    ProductStockReadRepository productStockReadRepository;
+
+    @Autowired
+    ProductStockWriteRepository productStockWriteRepository;
+
+    @Autowired
+    ProductViewWriteRepository productViewWriteRepository;
+
+    @Autowired
+    ReservationReadRepository reservationReadRepository;
+
+    @Autowired
+    ReservationWriteRepository reservationWriteRepository;
+
+    ProductItemService productItemService;
+    ReservationService reservationService;
+
+    @Container
+    static final MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:4.4.2");
+
+    @DynamicPropertySource
+    static void mongoDbProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+
+        mongoDBContainer.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        mongoDBContainer.stop();
+    }
+
+    @BeforeEach
+    void clean() {
+        productItemService = new ProductItemServiceImpl(new ProductInnerServiceImpl(productReadRepository, productWriteRepository),
+                new ProductStockServiceImpl(productStockReadRepository, productStockWriteRepository, productItemReadRepository,
+                        productViewWriteRepository),
+                productItemReadRepository, productItemWriteRepository,
+                new ItemClaimCoalescer(productItemReadRepository, productItemWriteRepository, new ReservationProperties(), new SimpleMeterRegistry()),
+                new TimeOrderedIdGenerator());
+        reservationService = new ReservationServiceImpl(reservationReadRepository, reservationWriteRepository, productItemService,
+                new ReservationProperties(), new TimeOrderedIdGenerator());
+        productWriteRepository.deleteAll().block();
+        productItemWriteRepository.deleteAll().block();
+        productStockWriteRepository.deleteAll().block();
+        reservationWriteRepository.deleteAll().block();
+    }
+
+    @Test
+    void shouldReplayReservationOfTheSameOrder() {
+        Product product = saveProductWithItems(3);
+        ReservationRequestDto request = ReservationRequestDto.builder()
+                .orderNumber("order1")
+                .items(List.of(ReserveItemDto.builder()
+                        .itemRef(product.getId())
+                        .count(2)
+                        .build()))
+                .build();
+
+        List<String> first = reservationService.reserve(request).block();
+        List<String> retried = reservationService.reserve(request).block();
+
+        assertNotNull(first);
+        assertAll(
+                "Assert replayed reservation",
+                () -> assertEquals(first, retried, "Retry should return items of the first reservation"),
+                () -> StepVerifier.create(reservationReadRepository.count())
+                        .expectNext(1L)
+                        .verifyComplete(),
+                () -> StepVerifier.create(productStockReadRepository.findById(product.getId()))
+                        .assertNext(stock -> assertAll(
+                                () -> assertEquals(1, stock.getAvailable(), "Retry should not reserve more items"),
+                                () -> assertEquals(2, stock.getReserved())
+                        ))
+                        .verifyComplete()
+        );
+    }
+
+    @Test
+    void shouldNotStoreTwoReservationsOfTheSameOrder() {
+        reservationWriteRepository.insert(reservation("order1")).block();
+
+        StepVerifier.create(reservationWriteRepository.insert(reservation("order1")))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldExpireOnlyActiveReservation() {
+        Reservation reservation = reservation("order1");
+        reservation.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        reservationWriteRepository.insert(reservation).block();
+
+        StepVerifier.create(reservationWriteRepository.expireReservation(reservation.getId(), LocalDateTime.now()))
+                .assertNext(expired -> assertEquals(ReservationStatus.EXPIRED, expired.getReservationStatus()))
+                .verifyComplete();
+        StepVerifier.create(reservationWriteRepository.expireReservation(reservation.getId(), LocalDateTime.now()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldSetItemsOnlyOfActiveReservation() {
+        Reservation reservation = reservation("order1");
+        reservationWriteRepository.insert(reservation).block();
+
+        StepVerifier.create(reservationWriteRepository.setProductItems(reservation.getId(), List.of("1111")))
+                .assertNext(updated -> assertEquals(List.of("1111"), updated.getProductItems()))
+                .verifyComplete();
+        reservationWriteRepository.cancelReservation("order1").block();
+        StepVerifier.create(reservationWriteRepository.setProductItems(reservation.getId(), List.of("2222")))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCancelReservationAndUnlockAllItsItems() {
+        Product product = saveProductWithItems(3);
+        reservationService.reserve(ReservationRequestDto.builder()
+                .orderNumber("order1")
+                .items(List.of(ReserveItemDto.builder()
+                        .itemRef(product.getId())
+                        .count(2)
+                        .build()))
+                .build()).block();
+
+        StepVerifier.create(reservationService.unlockReservation("order1"))
+                .expectNext(2L)
+                .verifyComplete();
+        StepVerifier.create(reservationService.unlockReservation("order1"))
+                .expectNext(0L)
+                .verifyComplete();
+
+        assertAll(
+                "Assert canceled reservation",
+                () -> StepVerifier.create(reservationReadRepository.findByOrderNumber("order1"))
+                        .assertNext(reservation -> assertEquals(ReservationStatus.CANCELED, reservation.getReservationStatus()))
+                        .verifyComplete(),
+                () -> StepVerifier.create(productItemReadRepository.findAll()
+                                .all(item -> Availability.AVAILABLE == item.getAvailability() && item.getReservationId() == null))
+                        .expectNext(true)
+                        .verifyComplete(),
+                () -> StepVerifier.create(productStockReadRepository.findById(product.getId()))
+                        .assertNext(stock -> assertAll(
+                                () -> assertEquals(3, stock.getAvailable()),
+                                () -> assertEquals(0, stock.getReserved())
+                        ))
+                        .verifyComplete()
+        );
+    }
+
+    private Reservation reservation(String orderNumber) {
+        return Reservation.builder()
+                .id(UUID.randomUUID().toString())
+                .orderNumber(orderNumber)
+                .productItems(List.of())
+                .date(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusMinutes(15))
+                .reservationStatus(ReservationStatus.ACTIVE)
+                .build();
+    }
+
+    private Product saveProductWithItems(int itemsCount) {
+        Product product = productWriteRepository.save(Product.builder()
+                .id(UUID.randomUUID().toString())
+                .name("name1")
+                .price(BigDecimal.ONE)
+                .build()).block();
+        Flux.range(0, itemsCount)
+                .concatMap(i -> productItemService.addItem(product.getId(), ProductItemDto.builder()
+                        .serialNumber("serialNumber" + i)
+                        .build()))
+                .blockLast();
+        return product;
+    }
+}
@@ -0,0 +1,50 @@
+package com.serkowski.productservice.scheduler;
+
+import com.serkowski.productservice.config.ReservationProperties;
+import com.serkowski.productservice.service.api.ReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpirySweeperTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReservationExpirySweeper reservationExpirySweeper;
+    @Mock
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void init() {
+        reservationExpirySweeper = new ReservationExpirySweeper(reservationService, new ReservationProperties(), meterRegistry);
+    }
+
+    @Test
+    void shouldRecordReleasedItems() {
+        when(reservationService.releaseExpiredReservations(eq(100), eq(10))).thenReturn(Mono.just(5L));
+
+        reservationExpirySweeper.releaseExpiredReservations();
+
+        assertEquals(5, meterRegistry.get("product.reservation.expired.items").counter().count());
+        assertEquals(1, meterRegistry.get("product.reservation.sweeper.run.items").summary().count());
+    }
+
+    @Test
+    void shouldRecordEmptyRunWhenReleaseFailed() {
+        when(reservationService.releaseExpiredReservations(eq(100), eq(10))).thenReturn(Mono.error(new IllegalStateException("failed")));
+
+        reservationExpirySweeper.releaseExpiredReservations();
+
+        assertEquals(0, meterRegistry.get("product.reservation.expired.items").counter().count());
+        assertEquals(1, meterRegistry.get("product.reservation.sweeper.run.items").summary().count());
+    }
+}
@@ -0,0 +1,138 @@
+package com.serkowski.productservice.search;
+
+import com.serkowski.productservice.config.ProductSearchProperties;
+import com.serkowski.productservice.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex productSearchIndex = new ProductSearchIndex(new ProductSearchProperties());
+
+    @Test
+    void shouldRankProductsByFieldOfMatchedWords() {
+        productSearchIndex.index(product("1", "Red shirt", List.of("cotton"), "Classic shirt", Map.of("color", "red")));
+        productSearchIndex.index(product("2", "Cotton trousers", List.of("red"), "Trousers", Map.of("material", "cotton")));
+        productSearchIndex.index(product("3", "Blue shirt", List.of("cotton"), "Made of red fabric", Map.of()));
+
+        assertAll(
+                "Assert ranking",
+                () -> assertEquals(List.of("1", "2", "3"), productSearchIndex.search("red", 10)),
+                () -> assertEquals(List.of("1", "3"), productSearchIndex.search("RED, shirt!", 10)),
+                () -> assertEquals(List.of("1"), productSearchIndex.search("red", 1)),
+                () -> assertEquals(List.of(), productSearchIndex.search("green shirt", 10)),
+                () -> assertEquals(List.of(), productSearchIndex.search("  ", 10))
+        );
+    }
+
+    @Test
+    void shouldMatchLastWordAsPrefix() {
+        productSearchIndex.index(product("1", "Cotton shirt", List.of(), null, null));
+        productSearchIndex.index(product("2", "Cotton shorts", List.of(), null, null));
+        productSearchIndex.index(product("3", "Wool shirt", List.of(), null, null));
+
+        assertAll(
+                "Assert prefix search",
+                () -> assertEquals(List.of("2", "1"), productSearchIndex.search("cotton sh", 10), "Rarer word should rank higher"),
+                () -> assertEquals(List.of("1", "3"), productSearchIndex.search("shi", 10)),
+                () -> assertEquals(List.of(), productSearchIndex.search("sh cotton", 10))
+        );
+    }
+
+    @Test
+    void shouldReplaceAndRemoveIndexedProducts() {
+        productSearchIndex.index(product("1", "Red shirt", List.of(), null, null));
+        productSearchIndex.index(product("2", "Red hat", List.of(), null, null));
+        productSearchIndex.index(product("1", "Blue shirt", List.of(), null, null));
+        productSearchIndex.remove("2");
+
+        assertAll(
+                "Assert index changes",
+                () -> assertEquals(List.of(), productSearchIndex.search("red", 10)),
+                () -> assertEquals(List.of("1"), productSearchIndex.search("blue", 10)),
+                () -> assertEquals(1, productSearchIndex.size())
+        );
+    }
+
+    @Test
+    void shouldNotOverwriteWritesMadeWhileLoading() {
+        productSearchIndex.startLoading();
+        productSearchIndex.index(product("1", "Blue shirt", List.of(), null, null));
+        productSearchIndex.remove("2");
+        productSearchIndex.load(product("1", "Red shirt", List.of(), null, null));
+        productSearchIndex.load(product("2", "Red hat", List.of(), null, null));
+        productSearchIndex.load(product("3", "Red scarf", List.of(), null, null));
+        productSearchIndex.finishLoading();
+
+        assertAll(
+                "Assert loaded products",
+                () -> assertEquals(List.of("3"), productSearchIndex.search("red", 10)),
+                () -> assertEquals(List.of("1"), productSearchIndex.search("shirt", 10))
+        );
+    }
+
+    @Test
+    void shouldCompactPostingsAfterManyUpdates() {
+        for (int i = 0; i < 5000; i++) {
+            productSearchIndex.index(product(String.valueOf(i % 10), "Shirt version" + i, List.of(), null, null));
+        }
+
+        assertAll(
+                "Assert compacted index",
+                () -> assertEquals(10, productSearchIndex.size()),
+                () -> assertEquals(10, productSearchIndex.search("shirt", 100).size()),
+                () -> assertEquals(List.of("9"), productSearchIndex.search("version4999", 10)),
+                () -> assertEquals(List.of(), productSearchIndex.search("version0", 10)),
+                () -> assertTrue(productSearchIndex.docCount() <= 1034, "Document numbers should be reused after compaction")
+        );
+    }
+
+    @Test
+    void shouldKeepRankingOfRenumberedDocuments() {
+        productSearchIndex.index(product("a", "Red shirt", List.of(), null, null));
+        productSearchIndex.index(product("b", "Shirt", List.of("red"), null, null));
+        for (int i = 0; i < 2000; i++) {
+            productSearchIndex.index(product("c", "Shirt version" + i, List.of(), null, null));
+        }
+        productSearchIndex.index(product("d", "Shirt", List.of(), "red", null));
+
+        assertAll(
+                "Assert renumbered index",
+                () -> assertTrue(productSearchIndex.docCount() < 2000),
+                () -> assertEquals(List.of("a", "b", "d"), productSearchIndex.search("red", 10)),
+                () -> assertEquals(List.of("a", "b", "d"), productSearchIndex.search("red shi", 10)),
+                () -> assertEquals(List.of("c"), productSearchIndex.search("shirt version1999", 10))
+        );
+    }
+
+    @Test
+    void shouldIgnoreWritesWhenDisabled() {
+        ProductSearchProperties productSearchProperties = new ProductSearchProperties();
+        productSearchProperties.setEnabled(false);
+        ProductSearchIndex disabledIndex = new ProductSearchIndex(productSearchProperties);
+
+        disabledIndex.index(product("1", "Red shirt", List.of(), null, null));
+        disabledIndex.load(product("2", "Red hat", List.of(), null, null));
+
+        assertAll(
+                "Assert disabled index",
+                () -> assertFalse(disabledIndex.isEnabled()),
+                () -> assertEquals(0, disabledIndex.size()),
+                () -> assertEquals(List.of(), disabledIndex.search("red", 10))
+        );
+    }
+
+    private Product product(String id, String name, List<String> tags, String description, Map<String, String> specification) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .tags(tags)
+                .description(description)
+                .specification(specification)
+                .build();
+    }
+}
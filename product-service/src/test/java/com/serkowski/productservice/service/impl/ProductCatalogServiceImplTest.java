@@ -0,0 +1,236 @@
+package com.serkowski.productservice.service.impl;
+
+import com.serkowski.productservice.config.ProductCatalogProperties;
+import com.serkowski.productservice.config.ProductSearchProperties;
+import com.serkowski.productservice.dto.request.ProductCatalogRequestDto;
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.ProductCatalogSort;
+import com.serkowski.productservice.model.ProductView;
+import com.serkowski.productservice.model.error.CatalogQueryException;
+import com.serkowski.productservice.model.error.SearchUnavailableException;
+import com.serkowski.productservice.repository.product.ProductReadRepository;
+import com.serkowski.productservice.search.ProductSearchIndex;
+import com.serkowski.productservice.service.api.ProductCatalogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogServiceImplTest {
+
+    private ProductCatalogService productCatalogService;
+    @Mock
+    private ProductReadRepository productReadRepository;
+
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void init() {
+        productSearchIndex = new ProductSearchIndex(new ProductSearchProperties());
+        productCatalogService = new ProductCatalogServiceImpl(productReadRepository, new ProductCatalogProperties(), productSearchIndex, new ProductMapperImpl());
+    }
+
+    @Test
+    void shouldReturnPageWithCursorOfLastProduct() {
+        String firstId = UUID.randomUUID().toString();
+        String secondId = UUID.randomUUID().toString();
+        when(productReadRepository.findCatalogPage(argThat(query -> "category1".equals(query.getCategory())
+                && query.getSort() == ProductCatalogSort.ID
+                && query.getAfterId() == null
+                && query.getLimit() == 3)))
+                .thenReturn(Flux.just(product(firstId), product(secondId), product(UUID.randomUUID().toString())));
+
+        StepVerifier.create(productCatalogService.getCatalogPage(ProductCatalogRequestDto.builder()
+                        .category("category1")
+                        .size(2)
+                        .build()))
+                .assertNext(page -> assertAll(
+                        () -> assertEquals(2, page.getProducts().size()),
+                        () -> assertEquals(firstId, page.getProducts().get(0).getId().toString()),
+                        () -> assertEquals(cursor(secondId), page.getNextCursor())
+                ))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldContinueAfterCursorAndEndWithoutNextCursor() {
+        String lastId = UUID.randomUUID().toString();
+        when(productReadRepository.findCatalogPage(argThat(query -> "tag1".equals(query.getTag())
+                && lastId.equals(query.getAfterId())
+                && query.getLimit() == 21)))
+                .thenReturn(Flux.just(product(UUID.randomUUID().toString())));
+
+        StepVerifier.create(productCatalogService.getCatalogPage(ProductCatalogRequestDto.builder()
+                        .tag("tag1")
+                        .cursor(cursor(lastId))
+                        .build()))
+                .assertNext(page -> assertAll(
+                        () -> assertEquals(1, page.getProducts().size()),
+                        () -> assertNull(page.getNextCursor())
+                ))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldPageByPriceWithPriceInCursor() {
+        String lastId = UUID.randomUUID().toString();
+        String nextId = UUID.randomUUID().toString();
+        when(productReadRepository.findCatalogPage(argThat(query -> query.getSort() == ProductCatalogSort.PRICE_DESC
+                && new BigDecimal("12.50").compareTo(query.getAfterPrice()) == 0
+                && lastId.equals(query.getAfterId()))))
+                .thenReturn(Flux.just(
+                        product(nextId, new BigDecimal("10.00")),
+                        product(UUID.randomUUID().toString(), new BigDecimal("9.99"))));
+
+        StepVerifier.create(productCatalogService.getCatalogPage(ProductCatalogRequestDto.builder()
+                        .sort(ProductCatalogSort.PRICE_DESC)
+                        .cursor(cursor("12.50:" + lastId))
+                        .size(1)
+                        .build()))
+                .assertNext(page -> assertAll(
+                        () -> assertEquals(nextId, page.getProducts().get(0).getId().toString()),
+                        () -> assertEquals(cursor("10.00:" + nextId), page.getNextCursor())
+                ))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectWrongQuery() {
+        StepVerifier.create(productCatalogService.getCatalogPage(ProductCatalogRequestDto.builder()
+                        .size(101)
+                        .build()))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(CatalogQueryException.class, exception.getClass());
+                    assertEquals("Page size need to be between 1 and 100", exception.getMessage());
+                })
+                .verify();
+        StepVerifier.create(productCatalogService.getCatalogPage(ProductCatalogRequestDto.builder()
+                        .minPrice(BigDecimal.TEN)
+                        .maxPrice(BigDecimal.ONE)
+                        .build()))
+                .expectError(CatalogQueryException.class)
+                .verify();
+        StepVerifier.create(productCatalogService.getCatalogPage(ProductCatalogRequestDto.builder()
+                        .cursor("not a cursor")
+                        .build()))
+                .expectError(CatalogQueryException.class)
+                .verify();
+
+        StepVerifier.create(productCatalogService.getCatalogPage(ProductCatalogRequestDto.builder()
+                        .sort(ProductCatalogSort.PRICE_ASC)
+                        .cursor(cursor("withoutPrice"))
+                        .build()))
+                .expectError(CatalogQueryException.class)
+                .verify();
+
+        verify(productReadRepository, never()).findCatalogPage(any());
+    }
+
+    @Test
+    void shouldExportProductsWithoutAvailability() {
+        when(productReadRepository.streamProducts(eq(1000))).thenReturn(Flux.just(product(UUID.randomUUID().toString())));
+
+        StepVerifier.create(productCatalogService.exportProducts(false))
+                .assertNext(product -> assertAll(
+                        () -> assertNotNull(product.getId()),
+                        () -> assertNull(product.getAvailable())
+                ))
+                .verifyComplete();
+
+        verify(productReadRepository, never()).streamProductViews(anyInt());
+    }
+
+    @Test
+    void shouldExportProductsWithAvailability() {
+        when(productReadRepository.streamProductViews(eq(1000))).thenReturn(Flux.just(
+                ProductView.builder()
+                        .id(UUID.randomUUID().toString())
+                        .available(3)
+                        .reserved(1)
+                        .build(),
+                ProductView.builder()
+                        .id(UUID.randomUUID().toString())
+                        .build()));
+
+        StepVerifier.create(productCatalogService.exportProducts(true))
+                .assertNext(product -> assertAll(
+                        () -> assertEquals(3L, product.getAvailable()),
+                        () -> assertEquals(1L, product.getReserved())
+                ))
+                .assertNext(product -> assertEquals(0L, product.getAvailable()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldLoadSearchedProductsInRankOrder() {
+        String firstId = UUID.randomUUID().toString();
+        String secondId = UUID.randomUUID().toString();
+        productSearchIndex.index(Product.builder().id(firstId).name("Red shirt").build());
+        productSearchIndex.index(Product.builder().id(secondId).name("Shirt").description("red").build());
+        when(productReadRepository.findViewsByIdIn(eq(List.of(firstId, secondId))))
+                .thenReturn(Flux.just(ProductView.builder().id(secondId).build(), ProductView.builder().id(firstId).build()));
+
+        StepVerifier.create(productCatalogService.searchProducts("red shi", null))
+                .assertNext(product -> assertEquals(firstId, product.getId().toString()))
+                .assertNext(product -> assertEquals(secondId, product.getId().toString()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotQueryDatabaseWhenNothingFound() {
+        StepVerifier.create(productCatalogService.searchProducts("red", 10))
+                .verifyComplete();
+
+        verify(productReadRepository, never()).findViewsByIdIn(any());
+    }
+
+    @Test
+    void shouldRejectSearchWhenDisabled() {
+        ProductSearchProperties productSearchProperties = new ProductSearchProperties();
+        productSearchProperties.setEnabled(false);
+        productCatalogService = new ProductCatalogServiceImpl(productReadRepository, new ProductCatalogProperties(), new ProductSearchIndex(productSearchProperties), new ProductMapperImpl());
+
+        StepVerifier.create(productCatalogService.searchProducts("red", 10))
+                .expectError(SearchUnavailableException.class)
+                .verify();
+        verify(productReadRepository, never()).findViewsByIdIn(any());
+    }
+
+    private Product product(String id) {
+        return Product.builder()
+                .id(id)
+                .name("name" + id)
+                .build();
+    }
+
+    private Product product(String id, BigDecimal price) {
+        return Product.builder()
+                .id(id)
+                .name("name" + id)
+                .price(price)
+                .build();
+    }
+
+    private String cursor(String productId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(productId.getBytes(StandardCharsets.UTF_8));
+    }
+}
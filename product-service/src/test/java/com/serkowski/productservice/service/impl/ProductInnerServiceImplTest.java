@@ -9,10 +9,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
-import java.util.Optional;
-
-import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -35,8 +34,11 @@ class ProductInnerServiceImplTest {
     void shouldSaveProduct() {
         Product product = Product.builder()
                 .build();
+        when(productWriteRepository.save(eq(product))).thenReturn(Mono.just(product));
 
-        productInnerService.saveProduct(product);
+        StepVerifier.create(productInnerService.saveProduct(product))
+                .expectNext(product)
+                .verifyComplete();
 
         verify(productWriteRepository).save(eq(product));
     }
@@ -44,13 +46,13 @@ class ProductInnerServiceImplTest {
     @Test
     void shouldReturnProductById() {
         String productId = "123";
-        when(productReadRepository.findById(eq(productId))).thenReturn(Optional.of(Product.builder()
+        when(productReadRepository.findById(eq(productId))).thenReturn(Mono.just(Product.builder()
                 .build()));
 
-        Optional<Product> result = productInnerService.findById(productId);
-
-        assertTrue(result.isPresent());
+        StepVerifier.create(productInnerService.findById(productId))
+                .expectNextCount(1)
+                .verifyComplete();
     }
 
 
-}
\ No newline at end of file
+}
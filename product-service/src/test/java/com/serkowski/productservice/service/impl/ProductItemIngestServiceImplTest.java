@@ -0,0 +1,104 @@
+package com.serkowski.productservice.service.impl;
+
+import com.serkowski.productservice.config.ProductItemIngestProperties;
+import com.serkowski.productservice.dto.ProductItemDto;
+import com.serkowski.productservice.dto.ProductItemIngestResultDto;
+import com.serkowski.productservice.id.TimeOrderedIdGenerator;
+import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.error.ProductNotFound;
+import com.serkowski.productservice.repository.product.item.ProductItemWriteRepository;
+import com.serkowski.productservice.service.api.ProductInnerService;
+import com.serkowski.productservice.service.api.ProductItemIngestService;
+import com.serkowski.productservice.service.api.ProductStockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductItemIngestServiceImplTest {
+
+    private ProductItemIngestService productItemIngestService;
+    @Mock
+    private ProductInnerService productInnerService;
+    @Mock
+    private ProductStockService productStockService;
+    @Mock
+    private ProductItemWriteRepository productItemWriteRepository;
+
+    @BeforeEach
+    void init() {
+        ProductItemIngestProperties productItemIngestProperties = new ProductItemIngestProperties();
+        productItemIngestProperties.setBatchSize(2);
+        productItemIngestService = new ProductItemIngestServiceImpl(productInnerService, productStockService, productItemWriteRepository,
+                productItemIngestProperties, new TimeOrderedIdGenerator());
+    }
+
+    @Test
+    void shouldInsertItemsInBatchesAndReportEveryLine() {
+        when(productInnerService.findById(eq("123"))).thenReturn(Mono.just(Product.builder().id("123").build()));
+        when(productItemWriteRepository.insertItems(anyList()))
+                .thenReturn(Mono.just(Set.of(1)))
+                .thenReturn(Mono.just(Set.of()));
+        when(productStockService.addAvailable(eq("123"), eq(1))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productItemIngestService.ingestItems("123", Flux.just(
+                        item("serialNumber1"), item("serialNumber1"), item(""), item("serialNumber2"))))
+                .assertNext(result -> assertAll(
+                        () -> assertEquals(1, result.getLine()),
+                        () -> assertEquals(ProductItemIngestResultDto.Status.CREATED, result.getStatus()),
+                        () -> assertNotNull(result.getId())
+                ))
+                .assertNext(result -> assertAll(
+                        () -> assertEquals(2, result.getLine()),
+                        () -> assertEquals(ProductItemIngestResultDto.Status.DUPLICATE, result.getStatus()),
+                        () -> assertNull(result.getId()),
+                        () -> assertEquals("Product with serial number: serialNumber1 already exist", result.getMessage())
+                ))
+                .assertNext(result -> assertAll(
+                        () -> assertEquals(3, result.getLine()),
+                        () -> assertEquals(ProductItemIngestResultDto.Status.INVALID, result.getStatus())
+                ))
+                .assertNext(result -> assertAll(
+                        () -> assertEquals(4, result.getLine()),
+                        () -> assertEquals(ProductItemIngestResultDto.Status.CREATED, result.getStatus())
+                ))
+                .verifyComplete();
+
+        verify(productStockService, times(2)).addAvailable(eq("123"), eq(1));
+    }
+
+    @Test
+    void shouldNotReadUploadWhenProductNotExist() {
+        when(productInnerService.findById(eq("123"))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productItemIngestService.ingestItems("123", Flux.just(item("serialNumber1"))))
+                .expectError(ProductNotFound.class)
+                .verify();
+
+        verify(productItemWriteRepository, never()).insertItems(anyList());
+        verify(productStockService, never()).addAvailable(any(), anyInt());
+    }
+
+    private ProductItemDto item(String serialNumber) {
+        return ProductItemDto.builder()
+                .serialNumber(serialNumber)
+                .build();
+    }
+}
@@ -1,7 +1,9 @@
 package com.serkowski.productservice.service.impl;
 
+import com.serkowski.productservice.coalescer.ItemClaimCoalescer;
 import com.serkowski.productservice.dto.ProductItemDto;
 import com.serkowski.productservice.dto.request.ReserveItemDto;
+import com.serkowski.productservice.id.TimeOrderedIdGenerator;
 import com.serkowski.productservice.model.Availability;
 import com.serkowski.productservice.model.Product;
 import com.serkowski.productservice.model.ProductItem;
@@ -12,30 +14,33 @@ import com.serkowski.productservice.repository.product.item.ProductItemReadRepos
 import com.serkowski.productservice.repository.product.item.ProductItemWriteRepository;
 import com.serkowski.productservice.service.api.ProductInnerService;
 import com.serkowski.productservice.service.api.ProductItemService;
-import org.jetbrains.annotations.NotNull;
+import com.serkowski.productservice.service.api.ProductStockService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ProductItemServiceImplTest {
 
-    @Captor
-    ArgumentCaptor<List<ProductItem>> itemsCaptor;
+    private static final String RESERVATION_ID = "reservation-1";
 
     private ProductItemService productItemService;
     @Mock
@@ -44,10 +49,15 @@ class ProductItemServiceImplTest {
     private ProductItemWriteRepository productItemWriteRepository;
     @Mock
     private ProductInnerService productInnerService;
+    @Mock
+    private ProductStockService productStockService;
+    @Mock
+    private ItemClaimCoalescer itemClaimCoalescer;
 
     @BeforeEach
     void init() {
-        productItemService = new ProductItemServiceImpl(productInnerService, productItemReadRepository, productItemWriteRepository);
+        productItemService = new ProductItemServiceImpl(productInnerService, productStockService, productItemReadRepository, productItemWriteRepository,
+                itemClaimCoalescer, new TimeOrderedIdGenerator());
     }
 
     @Test
@@ -63,19 +73,20 @@ class ProductItemServiceImplTest {
                 .updateDate(time)
                 .serialNumber("serialNumber")
                 .build();
-        when(productInnerService.findById(eq("123"))).thenReturn(Optional.ofNullable(Product.builder()
+        when(productInnerService.findById(eq("123"))).thenReturn(Mono.just(Product.builder()
                 .id(uuid.toString())
                 .build()));
-        when(productItemWriteRepository.save(any())).thenReturn(ProductItem.builder()
+        when(productItemWriteRepository.save(any())).thenReturn(Mono.just(ProductItem.builder()
                 .id(uuid.toString())
                 .availability(Availability.AVAILABLE)
                 .updateDate(time)
                 .serialNumber("serialNumber")
-                .build());
-
-        ProductItemDto result = productItemService.addItem("123", productItemDto);
+                .build()));
+        when(productStockService.addAvailable(eq(uuid.toString()), eq(1))).thenReturn(Mono.empty());
 
-        assertEquals(expectedResult, result);
+        StepVerifier.create(productItemService.addItem("123", productItemDto))
+                .expectNext(expectedResult)
+                .verifyComplete();
     }
 
     @Test
@@ -91,20 +102,20 @@ class ProductItemServiceImplTest {
                 .updateDate(time)
                 .serialNumber("serialNumber")
                 .build();
-        when(productInnerService.findById(eq("123"))).thenReturn(Optional.ofNullable(Product.builder()
+        when(productInnerService.findById(eq("123"))).thenReturn(Mono.just(Product.builder()
                 .id(uuid.toString())
-                .items(getProductItems())
                 .build()));
-        when(productItemWriteRepository.save(any())).thenReturn(ProductItem.builder()
+        when(productItemWriteRepository.save(any())).thenReturn(Mono.just(ProductItem.builder()
                 .id(uuid.toString())
                 .availability(Availability.AVAILABLE)
                 .updateDate(time)
                 .serialNumber("serialNumber")
-                .build());
-
-        ProductItemDto result = productItemService.addItem("123", productItemDto);
+                .build()));
+        when(productStockService.addAvailable(eq(uuid.toString()), eq(1))).thenReturn(Mono.empty());
 
-        assertEquals(expectedResult, result);
+        StepVerifier.create(productItemService.addItem("123", productItemDto))
+                .expectNext(expectedResult)
+                .verifyComplete();
     }
 
     @Test
@@ -112,12 +123,14 @@ class ProductItemServiceImplTest {
         ProductItemDto productItemDto = ProductItemDto.builder()
                 .serialNumber("serialNumber")
                 .build();
-        when(productInnerService.findById(eq("123"))).thenReturn(Optional.empty());
-
-        ProductNotFound exception = assertThrows(ProductNotFound.class, () ->
-                productItemService.addItem("123", productItemDto)
-        );
-        assertEquals("Product which id: 123 not exist", exception.getMessage());
+        when(productInnerService.findById(eq("123"))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productItemService.addItem("123", productItemDto))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ProductNotFound.class, exception.getClass());
+                    assertEquals("Product which id: 123 not exist", exception.getMessage());
+                })
+                .verify();
     }
 
     @Test
@@ -127,132 +140,290 @@ class ProductItemServiceImplTest {
                 .serialNumber("serialNumber123")
                 .build();
 
-        when(productInnerService.findById(eq("123"))).thenReturn(Optional.ofNullable(Product.builder()
+        when(productInnerService.findById(eq("123"))).thenReturn(Mono.just(Product.builder()
                 .id(uuid.toString())
                 .build()));
-        when(productItemWriteRepository.save(any())).thenThrow(DuplicateKeyException.class);
-
-        AddItemIndexException exception = assertThrows(AddItemIndexException.class, () ->
-                productItemService.addItem("123", productItemDto)
-        );
-        assertEquals("Product with serial number: serialNumber123 already exist", exception.getMessage());
+        when(productItemWriteRepository.save(any())).thenReturn(Mono.error(new DuplicateKeyException("duplicate")));
+
+        StepVerifier.create(productItemService.addItem("123", productItemDto))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(AddItemIndexException.class, exception.getClass());
+                    assertEquals("Product with serial number: serialNumber123 already exist", exception.getMessage());
+                })
+                .verify();
+        verify(productStockService, never()).addAvailable(any(), anyInt());
     }
 
     @Test
     void shouldGetProductItem() {
-        when(productItemReadRepository.findById(eq("123"))).thenReturn(Optional.ofNullable(ProductItem.builder()
+        when(productItemReadRepository.findById(eq("123"))).thenReturn(Mono.just(ProductItem.builder()
                 .id(UUID.randomUUID().toString())
                 .availability(Availability.AVAILABLE)
                 .build()));
 
-        ProductItemDto result = productItemService.getItemById("123");
-
-        assertNotNull(result);
+        StepVerifier.create(productItemService.getItemById("123"))
+                .expectNextCount(1)
+                .verifyComplete();
     }
 
     @Test
     void shouldThrowExceptionDuringGetProductItemBecauseProductItemWasNotFound() {
-        when(productItemReadRepository.findById(eq("123"))).thenReturn(Optional.empty());
-
-        ProductNotFound exception = assertThrows(ProductNotFound.class, () ->
-                productItemService.getItemById("123")
-        );
-        assertEquals("Product item which id: 123 not exist", exception.getMessage());
+        when(productItemReadRepository.findById(eq("123"))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productItemService.getItemById("123"))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ProductNotFound.class, exception.getClass());
+                    assertEquals("Product item which id: 123 not exist", exception.getMessage());
+                })
+                .verify();
     }
 
     @Test
     void shouldReserveProductsByIds() {
-        ProductItem item1 = ProductItem.builder()
-                .id(UUID.randomUUID().toString())
-                .availability(Availability.AVAILABLE)
-                .build();
-        ProductItem item2 = ProductItem.builder()
-                .id(UUID.randomUUID().toString())
-                .availability(Availability.AVAILABLE)
-                .build();
-        ProductItem item3 = ProductItem.builder()
-                .id(UUID.randomUUID().toString())
-                .availability(Availability.AVAILABLE)
-                .build();
-        when(productInnerService.findById(eq("123"))).thenReturn(Optional.ofNullable(Product.builder().items(List.of(item1, item2)).build()));
-        when(productInnerService.findById(eq("321"))).thenReturn(Optional.ofNullable(Product.builder().items(List.of(item3)).build()));
-        when(productItemWriteRepository.saveAll(itemsCaptor.capture())).thenReturn(Collections.emptyList());
+        ProductItem item1 = item("123");
+        ProductItem item2 = item("123");
+        ProductItem item3 = item("321");
+        when(productInnerService.findExistingIds(anyCollection())).thenReturn(Flux.just("123", "321"));
+        when(productStockService.reserve(any(), anyInt())).thenReturn(Mono.just(true));
+        when(productItemReadRepository.findAvailableItems(eq(Map.of("123", 2, "321", 1)))).thenReturn(Flux.just(item1, item2, item3));
+        when(productItemWriteRepository.claimItems(eq(RESERVATION_ID), eq(List.of(item1.getId(), item2.getId(), item3.getId())), any())).thenReturn(Mono.just(3L));
+        when(productItemReadRepository.findByReservationId(eq(RESERVATION_ID))).thenReturn(Flux.just(item1, item2, item3));
+
+        StepVerifier.create(productItemService.reserveItems(RESERVATION_ID, List.of(ReserveItemDto.builder()
+                                .itemRef("123")
+                                .count(2)
+                                .build(),
+                        ReserveItemDto.builder()
+                                .itemRef("321")
+                                .count(1)
+                                .build()
+                )))
+                .expectNext(List.of(item1.getId(), item2.getId(), item3.getId()))
+                .verifyComplete();
+
+        verify(productItemWriteRepository, never()).reserveAvailableItems(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void shouldMergeLinesOfTheSameProduct() {
+        ProductItem item1 = item("123");
+        ProductItem item2 = item("123");
+        when(productInnerService.findExistingIds(anyCollection())).thenReturn(Flux.just("123"));
+        when(productStockService.reserve(eq("123"), eq(2))).thenReturn(Mono.just(true));
+        when(productItemReadRepository.findAvailableItems(eq(Map.of("123", 2)))).thenReturn(Flux.just(item1, item2));
+        when(productItemWriteRepository.claimItems(eq(RESERVATION_ID), eq(List.of(item1.getId(), item2.getId())), any())).thenReturn(Mono.just(2L));
+        when(productItemReadRepository.findByReservationId(eq(RESERVATION_ID))).thenReturn(Flux.just(item1, item2));
+
+        StepVerifier.create(productItemService.reserveItems(RESERVATION_ID, List.of(ReserveItemDto.builder()
+                                .itemRef("123")
+                                .count(1)
+                                .build(),
+                        ReserveItemDto.builder()
+                                .itemRef("123")
+                                .count(1)
+                                .build()
+                )))
+                .expectNext(List.of(item1.getId(), item2.getId()))
+                .verifyComplete();
+    }
 
-        productItemService.reserveItems(List.of(ReserveItemDto.builder()
+    @Test
+    void shouldClaimItemsOfSingleProductThroughCoalescer() {
+        String item1 = UUID.randomUUID().toString();
+        String item2 = UUID.randomUUID().toString();
+        when(productInnerService.findExistingIds(anyCollection())).thenReturn(Flux.just("123"));
+        when(productStockService.reserve(eq("123"), eq(2))).thenReturn(Mono.just(true));
+        when(itemClaimCoalescer.isEnabled()).thenReturn(true);
+        when(itemClaimCoalescer.claim(eq(RESERVATION_ID), eq("123"), eq(2), any())).thenReturn(Mono.just(List.of(item1, item2)));
+
+        StepVerifier.create(productItemService.reserveItems(RESERVATION_ID, List.of(ReserveItemDto.builder()
                         .itemRef("123")
                         .count(2)
-                        .build(),
-                ReserveItemDto.builder()
-                        .itemRef("321")
-                        .count(1)
-                        .build()
-        ));
-
-        itemsCaptor.getValue()
-                .forEach(item -> assertEquals(Availability.RESERVED, item.getAvailability()));
+                        .build())))
+                .expectNext(List.of(item1, item2))
+                .verifyComplete();
+
+        verify(productItemReadRepository, never()).findAvailableItems(any());
     }
 
     @Test
-    void shouldThrowExceptionDuringReserveBecauseProductWasNotFound() {
-        when(productInnerService.findById(eq("123"))).thenReturn(Optional.empty());
+    void shouldMakeUpItemsClaimedByConcurrentReservation() {
+        ProductItem item1 = item("123");
+        ProductItem item2 = item("123");
+        String item3 = UUID.randomUUID().toString();
+        when(productInnerService.findExistingIds(anyCollection())).thenReturn(Flux.just("123"));
+        when(productStockService.reserve(eq("123"), eq(2))).thenReturn(Mono.just(true));
+        when(productItemReadRepository.findAvailableItems(eq(Map.of("123", 2)))).thenReturn(Flux.just(item1, item2));
+        when(productItemWriteRepository.claimItems(eq(RESERVATION_ID), eq(List.of(item1.getId(), item2.getId())), any())).thenReturn(Mono.just(1L));
+        when(productItemReadRepository.findByReservationId(eq(RESERVATION_ID))).thenReturn(Flux.just(item1));
+        when(productItemWriteRepository.reserveAvailableItems(eq(RESERVATION_ID), eq("123"), eq(1), any())).thenReturn(Flux.just(item3));
+
+        StepVerifier.create(productItemService.reserveItems(RESERVATION_ID, List.of(ReserveItemDto.builder()
+                        .itemRef("123")
+                        .count(2)
+                        .build())))
+                .expectNext(List.of(item1.getId(), item3))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReleaseClaimedItemsWhenItemWasReservedConcurrently() {
+        ProductItem item1 = item("123");
+        when(productInnerService.findExistingIds(anyCollection())).thenReturn(Flux.just("123"));
+        when(productStockService.reserve(eq("123"), eq(2))).thenReturn(Mono.just(true));
+        when(productItemReadRepository.findAvailableItems(eq(Map.of("123", 2)))).thenReturn(Flux.just(item1));
+        when(productItemWriteRepository.claimItems(eq(RESERVATION_ID), eq(List.of(item1.getId())), any())).thenReturn(Mono.just(1L));
+        when(productItemReadRepository.findByReservationId(eq(RESERVATION_ID))).thenReturn(Flux.just(item1));
+        when(productItemWriteRepository.reserveAvailableItems(eq(RESERVATION_ID), eq("123"), eq(1), any())).thenReturn(Flux.empty());
+        when(productItemWriteRepository.releaseReservedItems(eq(List.of(RESERVATION_ID)))).thenReturn(Mono.just(1L));
+        when(productStockService.release(eq("123"), eq(2))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productItemService.reserveItems(RESERVATION_ID, List.of(ReserveItemDto.builder()
+                        .itemRef("123")
+                        .count(2)
+                        .build())))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ReservationItemsException.class, exception.getClass());
+                    assertEquals("The amount of the available products is not enough to make a full reservation", exception.getMessage());
+                })
+                .verify();
+
+        verify(productItemWriteRepository).releaseReservedItems(eq(List.of(RESERVATION_ID)));
+        verify(productStockService).release(eq("123"), eq(2));
+    }
 
-        ReservationItemsException exception = assertThrows(ReservationItemsException.class, () ->
-                productItemService.reserveItems(List.of(ReserveItemDto.builder()
+    @Test
+    void shouldReleaseReservedStockWhenOtherProductCanNotBeReserved() {
+        when(productInnerService.findExistingIds(anyCollection())).thenReturn(Flux.just("123", "321"));
+        when(productStockService.reserve(eq("123"), eq(1))).thenReturn(Mono.just(true));
+        when(productStockService.reserve(eq("321"), eq(1))).thenReturn(Mono.just(false));
+        when(productStockService.release(eq("123"), eq(1))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productItemService.reserveItems(RESERVATION_ID, List.of(ReserveItemDto.builder()
+                                .itemRef("123")
+                                .count(1)
+                                .build(),
+                        ReserveItemDto.builder()
+                                .itemRef("321")
+                                .count(1)
+                                .build())))
+                .expectError(ReservationItemsException.class)
+                .verify();
+
+        verify(productStockService).release(eq("123"), eq(1));
+        verify(productItemWriteRepository, never()).claimItems(any(), any(), any());
+    }
+
+    @Test
+    void shouldReleaseReservedStockWhenOtherProductFailsToBeReserved() {
+        when(productInnerService.findExistingIds(anyCollection())).thenReturn(Flux.just("123", "321"));
+        when(productStockService.reserve(eq("123"), eq(1))).thenReturn(Mono.just(true));
+        when(productStockService.reserve(eq("321"), eq(1))).thenReturn(Mono.error(new IllegalStateException("database failure")));
+        when(productStockService.release(eq("123"), eq(1))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productItemService.reserveItems(RESERVATION_ID, List.of(ReserveItemDto.builder()
+                                .itemRef("123")
+                                .count(1)
+                                .build(),
+                        ReserveItemDto.builder()
+                                .itemRef("321")
+                                .count(1)
+                                .build())))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(productStockService).release(eq("123"), eq(1));
+        verify(productStockService, never()).release(eq("321"), anyInt());
+        verify(productItemWriteRepository, never()).claimItems(any(), any(), any());
+    }
+
+    @Test
+    void shouldReleaseItemsAndStockWhenClaimingFailed() {
+        ProductItem item1 = item("123");
+        when(productInnerService.findExistingIds(anyCollection())).thenReturn(Flux.just("123"));
+        when(productStockService.reserve(eq("123"), eq(2))).thenReturn(Mono.just(true));
+        when(productItemReadRepository.findAvailableItems(eq(Map.of("123", 2)))).thenReturn(Flux.just(item1));
+        when(productItemWriteRepository.claimItems(eq(RESERVATION_ID), eq(List.of(item1.getId())), any())).thenReturn(Mono.just(1L));
+        when(productItemReadRepository.findByReservationId(eq(RESERVATION_ID))).thenReturn(Flux.error(new IllegalStateException("database failure")));
+        when(productItemWriteRepository.releaseReservedItems(eq(List.of(RESERVATION_ID)))).thenReturn(Mono.just(1L));
+        when(productStockService.release(eq("123"), eq(2))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productItemService.reserveItems(RESERVATION_ID, List.of(ReserveItemDto.builder()
                         .itemRef("123")
                         .count(2)
-                        .build()))
-        );
-        assertEquals("Reservation list is empty because of product not found or empty items list", exception.getMessage());
+                        .build())))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(productItemWriteRepository).releaseReservedItems(eq(List.of(RESERVATION_ID)));
+        verify(productStockService).release(eq("123"), eq(2));
     }
 
     @Test
     void shouldThrowExceptionDuringReserveBecauseOneOfTheProductItemsIsAlreadyReserved() {
-        ProductItem item1 = ProductItem.builder()
-                .serialNumber("serial1")
-                .availability(Availability.RESERVED)
-                .build();
-        ProductItem item2 = ProductItem.builder()
-                .serialNumber("serial2")
-                .availability(Availability.AVAILABLE)
-                .build();
-        when(productInnerService.findById(eq("123"))).thenReturn(Optional.ofNullable(Product.builder().items(List.of(item1, item2)).build()));
+        when(productInnerService.findExistingIds(anyCollection())).thenReturn(Flux.just("123"));
+        when(productStockService.reserve(eq("123"), eq(2))).thenReturn(Mono.just(false));
 
-        ReservationItemsException exception = assertThrows(ReservationItemsException.class, () ->
-                productItemService.reserveItems(List.of(ReserveItemDto.builder()
+        StepVerifier.create(productItemService.reserveItems(RESERVATION_ID, List.of(ReserveItemDto.builder()
                         .itemRef("123")
                         .count(2)
-                        .build()
-                ))
-        );
-        assertEquals("The amount of the available products is not enough to make a full reservation", exception.getMessage());
+                        .build())))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ReservationItemsException.class, exception.getClass());
+                    assertEquals("The amount of the available products is not enough to make a full reservation", exception.getMessage());
+                })
+                .verify();
+
+        verify(productItemReadRepository, never()).findAvailableItems(any());
     }
 
     @Test
-    public void shouldUnlockItems() {
-        List<String> itemsToUnlock = List.of("1111", "22222");
-        ProductItem item = ProductItem.builder()
-                .availability(Availability.RESERVED)
-                .reservationTimeDate(LocalDateTime.now())
-                .build();
+    void shouldThrowExceptionDuringReserveBecauseProductWasNotFound() {
+        when(productInnerService.findExistingIds(anyCollection())).thenReturn(Flux.empty());
 
-        when(productItemReadRepository.findByIds(eq(itemsToUnlock)))
-                .thenReturn(List.of(item, ProductItem.builder().build()));
+        StepVerifier.create(productItemService.reserveItems(RESERVATION_ID, List.of(ReserveItemDto.builder()
+                        .itemRef("123")
+                        .count(2)
+                        .build())))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ReservationItemsException.class, exception.getClass());
+                    assertEquals("Reservation list is empty because of product not found or empty items list", exception.getMessage());
+                })
+                .verify();
+    }
 
-        productItemService.unlockReservedItems(itemsToUnlock);
+    @Test
+    public void shouldUnlockItems() {
+        List<String> reservationIds = List.of(RESERVATION_ID);
+        when(productItemReadRepository.countReservedItems(eq(reservationIds))).thenReturn(Mono.just(Map.of("123", 2L, "321", 1L)));
+        when(productItemWriteRepository.releaseReservedItems(eq(reservationIds))).thenReturn(Mono.just(3L));
+        when(productStockService.release(any(), anyInt())).thenReturn(Mono.empty());
 
-        verify(productItemWriteRepository).saveAll(any());
-        assertAll(
-                "Assert result",
-                () -> assertNull(item.getReservationTimeDate()),
-                () -> assertEquals(Availability.AVAILABLE, item.getAvailability())
-        );
+        StepVerifier.create(productItemService.unlockReservedItems(reservationIds))
+                .expectNext(3L)
+                .verifyComplete();
+
+        verify(productStockService).release(eq("123"), eq(2));
+        verify(productStockService).release(eq("321"), eq(1));
     }
 
-    @NotNull
-    private List<ProductItem> getProductItems() {
-        List<ProductItem> items = new ArrayList<>();
-        items.add(ProductItem.builder().build());
-        return items;
+    @Test
+    public void shouldNotReleaseStockWhenNoItemIsReserved() {
+        List<String> reservationIds = List.of(RESERVATION_ID);
+        when(productItemReadRepository.countReservedItems(eq(reservationIds))).thenReturn(Mono.just(Map.of()));
+        when(productItemWriteRepository.releaseReservedItems(eq(reservationIds))).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(productItemService.unlockReservedItems(reservationIds))
+                .expectNext(0L)
+                .verifyComplete();
+
+        verify(productStockService, never()).release(any(), anyInt());
     }
 
-}
\ No newline at end of file
+    private ProductItem item(String productId) {
+        return ProductItem.builder()
+                .id(UUID.randomUUID().toString())
+                .productId(productId)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.serkowski.productservice.service.impl;
+
+import com.serkowski.productservice.dto.ProductDto;
+import com.serkowski.productservice.dto.ProductExportDto;
+import com.serkowski.productservice.model.ProductAttribute;
+import com.serkowski.productservice.model.ProductView;
+import com.serkowski.productservice.service.api.ProductMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductMapperTest {
+
+    private final ProductMapper productMapper = new ProductMapperImpl();
+
+    @Test
+    void shouldMapProductViewToProductDto() {
+        ProductView productView = productView();
+
+        ProductDto result = productMapper.map(productView);
+
+        assertAll(
+                "Map view to dto",
+                () -> assertEquals(productView.getId(), result.getId().toString(), "Id should be kept"),
+                () -> assertEquals("name1", result.getName(), "Name is \"name1\""),
+                () -> assertEquals(BigDecimal.TEN, result.getPrice(), "Price is 10"),
+                () -> assertEquals(Map.of("color", "red"), result.getSpecification(), "Attributes should become specification")
+        );
+    }
+
+    @Test
+    void shouldMapProductViewToExportWithCounters() {
+        ProductExportDto result = productMapper.mapToExport(productView());
+
+        assertAll(
+                "Map view to export",
+                () -> assertEquals(Map.of("color", "red"), result.getSpecification(), "Attributes should become specification"),
+                () -> assertEquals(3L, result.getAvailable(), "Available counter is 3"),
+                () -> assertEquals(2L, result.getReserved(), "Reserved counter is 2")
+        );
+    }
+
+    private ProductView productView() {
+        return ProductView.builder()
+                .id(UUID.randomUUID().toString())
+                .name("name1")
+                .price(BigDecimal.TEN)
+                .attributes(List.of(new ProductAttribute("color", "red")))
+                .available(3)
+                .reserved(2)
+                .build();
+    }
+}
@@ -1,28 +1,41 @@
 package com.serkowski.productservice.service.impl;
 
+import com.serkowski.productservice.cache.ProductCache;
+import com.serkowski.productservice.config.ProductCacheProperties;
+import com.serkowski.productservice.config.ProductSearchProperties;
 import com.serkowski.productservice.dto.ProductDto;
+import com.serkowski.productservice.id.TimeOrderedIdGenerator;
 import com.serkowski.productservice.model.Product;
+import com.serkowski.productservice.model.ProductView;
 import com.serkowski.productservice.model.error.ProductNotFound;
 import com.serkowski.productservice.repository.product.ProductReadRepository;
 import com.serkowski.productservice.repository.product.ProductWriteRepository;
 import com.serkowski.productservice.repository.product.item.ProductItemWriteRepository;
+import com.serkowski.productservice.repository.product.view.ProductViewWriteRepository;
+import com.serkowski.productservice.search.ProductSearchIndex;
 import com.serkowski.productservice.service.api.ProductService;
+import com.serkowski.productservice.service.api.ProductStockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,13 +47,22 @@ public class ProductServiceImplTest {
     private ProductReadRepository productReadRepository;
     @Mock
     private ProductWriteRepository productWriteRepository;
+    @Mock
+    private ProductViewWriteRepository productViewWriteRepository;
 
     @Mock
     private ProductItemWriteRepository productItemWriteRepository;
+    @Mock
+    private ProductStockService productStockService;
+
+    private ProductSearchIndex productSearchIndex;
 
     @BeforeEach
     void init() {
-        productService = new ProductServiceImpl(productReadRepository, productWriteRepository, productItemWriteRepository);
+        productSearchIndex = new ProductSearchIndex(new ProductSearchProperties());
+        productService = new ProductServiceImpl(productReadRepository, productWriteRepository, productViewWriteRepository, productItemWriteRepository, productStockService,
+                new ProductCache(new ProductCacheProperties(), new SimpleMeterRegistry()), productSearchIndex,
+                new TimeOrderedIdGenerator(), new ProductMapperImpl());
     }
 
     @Test
@@ -53,13 +75,19 @@ public class ProductServiceImplTest {
                 .description("desc")
                 .specification(Map.of("test1", "test2"))
                 .build();
-        when(productWriteRepository.save(any())).thenReturn(Product.builder()
+        when(productWriteRepository.save(any())).thenReturn(Mono.just(Product.builder()
                 .id(UUID.randomUUID().toString())
-                .build());
+                .build()));
+        when(productStockService.createStock(any())).thenReturn(Mono.empty());
+        when(productViewWriteRepository.saveDetails(any())).thenReturn(Mono.empty());
 
-        productService.placeProduct(productRequest);
+        StepVerifier.create(productService.placeProduct(productRequest))
+                .expectNextCount(1)
+                .verifyComplete();
 
         verify(productWriteRepository).save(any(Product.class));
+        verify(productStockService).createStock(any());
+        verify(productViewWriteRepository).saveDetails(any(Product.class));
     }
 
     @Test
@@ -73,16 +101,17 @@ public class ProductServiceImplTest {
                 .description("desc")
                 .specification(Map.of("test1", "test2"))
                 .build();
-        when(productReadRepository.findById(eq(productRequest.getId().toString()))).thenReturn(Optional.ofNullable(Product.builder()
-                .id(UUID.randomUUID().toString())
-                .build()));
-        when(productWriteRepository.save(any())).thenReturn(Product.builder()
-                .id(UUID.randomUUID().toString())
-                .build());
+        when(productWriteRepository.updateDetails(any())).thenReturn(Mono.just(true));
+        when(productViewWriteRepository.saveDetails(any())).thenReturn(Mono.empty());
 
-        productService.updateProduct(productRequest);
+        StepVerifier.create(productService.updateProduct(productRequest))
+                .assertNext(result -> assertEquals(productRequest.getName(), result.getName()))
+                .verifyComplete();
 
-        verify(productWriteRepository).save(any(Product.class));
+        verify(productWriteRepository).updateDetails(argThat(product -> productRequest.getId().toString().equals(product.getId())
+                && productRequest.getPrice().equals(product.getPrice())));
+        verify(productViewWriteRepository).saveDetails(argThat(product -> productRequest.getId().toString().equals(product.getId())));
+        verify(productReadRepository, never()).findById(anyString());
     }
 
     @Test
@@ -90,12 +119,15 @@ public class ProductServiceImplTest {
         ProductDto productRequest = ProductDto.builder()
                 .id(UUID.randomUUID())
                 .build();
-        when(productReadRepository.findById(eq(productRequest.getId().toString()))).thenReturn(Optional.empty());
-
-        ProductNotFound exception = assertThrows(ProductNotFound.class, () ->
-                productService.updateProduct(productRequest)
-        );
-        assertEquals("Product which id: " + productRequest.getId().toString() + " not exist, so can't be updated", exception.getMessage());
+        when(productWriteRepository.updateDetails(any())).thenReturn(Mono.just(false));
+
+        StepVerifier.create(productService.updateProduct(productRequest))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ProductNotFound.class, exception.getClass());
+                    assertEquals("Product which id: " + productRequest.getId().toString() + " not exist, so can't be updated", exception.getMessage());
+                })
+                .verify();
+        verify(productViewWriteRepository, never()).saveDetails(any());
     }
 
     @Test
@@ -103,53 +135,110 @@ public class ProductServiceImplTest {
         ProductDto productRequest = ProductDto.builder()
                 .build();
 
-        ProductNotFound exception = assertThrows(ProductNotFound.class, () ->
-                productService.updateProduct(productRequest)
-        );
-        assertEquals("Product can't be update because id field is empty", exception.getMessage());
+        StepVerifier.create(productService.updateProduct(productRequest))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ProductNotFound.class, exception.getClass());
+                    assertEquals("Product can't be update because id field is empty", exception.getMessage());
+                })
+                .verify();
     }
 
     @Test
     void shouldThrowExceptionDuringGetProduct() {
-        when(productReadRepository.findById(eq("testNumber123"))).thenReturn(Optional.empty());
-
-        ProductNotFound exception = assertThrows(ProductNotFound.class, () ->
-                productService.getProductById("testNumber123")
-        );
-        assertEquals("Product which id: testNumber123 not exist", exception.getMessage());
+        when(productReadRepository.findViewById(eq("testNumber123"))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productService.getProductById("testNumber123"))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ProductNotFound.class, exception.getClass());
+                    assertEquals("Product which id: testNumber123 not exist", exception.getMessage());
+                })
+                .verify();
     }
 
     @Test
     void shouldGetProductById() {
         String id = UUID.randomUUID().toString();
-        when(productReadRepository.findById(eq("testNumber123"))).thenReturn(Optional.ofNullable(Product.builder()
+        when(productReadRepository.findViewById(eq("testNumber123"))).thenReturn(Mono.just(ProductView.builder()
                 .id(id)
                 .build()));
 
-        ProductDto result = productService.getProductById("testNumber123");
+        StepVerifier.create(productService.getProductById("testNumber123"))
+                .assertNext(result -> assertEquals(id, result.getId().toString()))
+                .verifyComplete();
+    }
 
-        assertEquals(id, result.getId().toString());
+    @Test
+    void shouldServeProductFromCacheUntilItIsUpdated() {
+        String id = UUID.randomUUID().toString();
+        when(productReadRepository.findViewById(eq(id)))
+                .thenReturn(Mono.just(ProductView.builder().id(id).name("name").build()))
+                .thenReturn(Mono.just(ProductView.builder().id(id).name("name2").build()));
+        when(productWriteRepository.updateDetails(any())).thenReturn(Mono.just(true));
+        when(productViewWriteRepository.saveDetails(any())).thenReturn(Mono.empty());
+
+        productService.getProductById(id).block();
+        productService.getProductById(id).block();
+        productService.updateProduct(ProductDto.builder()
+                .id(UUID.fromString(id))
+                .name("name2")
+                .build()).block();
+
+        StepVerifier.create(productService.getProductById(id))
+                .assertNext(result -> assertEquals("name2", result.getName()))
+                .verifyComplete();
+        verify(productReadRepository, times(2)).findViewById(eq(id));
     }
 
     @Test
     void shouldDeleteProductById() {
-        when(productReadRepository.findById(eq("testNumber123"))).thenReturn(Optional.ofNullable(Product.builder()
-                .id(UUID.randomUUID().toString())
-                .build()));
-
-        productService.deleteProductById("testNumber123");
+        when(productReadRepository.existsById(eq("testNumber123"))).thenReturn(Mono.just(true));
+        when(productItemWriteRepository.deleteByProductId(eq("testNumber123"))).thenReturn(Mono.empty());
+        when(productWriteRepository.deleteById(eq("testNumber123"))).thenReturn(Mono.empty());
+        when(productStockService.deleteStock(eq("testNumber123"))).thenReturn(Mono.empty());
+        when(productViewWriteRepository.deleteById(eq("testNumber123"))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productService.deleteProductById("testNumber123"))
+                .verifyComplete();
+
+        verify(productWriteRepository).deleteById(eq("testNumber123"));
+        verify(productViewWriteRepository).deleteById(eq("testNumber123"));
+        verify(productReadRepository, never()).findById(anyString());
+    }
 
-        verify(productWriteRepository).delete(any());
+    @Test
+    void shouldKeepSearchIndexCurrent() {
+        String id = UUID.randomUUID().toString();
+        when(productWriteRepository.save(any())).thenReturn(Mono.just(Product.builder().id(id).name("Red shirt").build()));
+        when(productStockService.createStock(any())).thenReturn(Mono.empty());
+        when(productWriteRepository.updateDetails(any())).thenReturn(Mono.just(true));
+        when(productReadRepository.existsById(eq(id))).thenReturn(Mono.just(true));
+        when(productItemWriteRepository.deleteByProductId(eq(id))).thenReturn(Mono.empty());
+        when(productWriteRepository.deleteById(eq(id))).thenReturn(Mono.empty());
+        when(productStockService.deleteStock(eq(id))).thenReturn(Mono.empty());
+        when(productViewWriteRepository.saveDetails(any())).thenReturn(Mono.empty());
+        when(productViewWriteRepository.deleteById(eq(id))).thenReturn(Mono.empty());
+
+        productService.placeProduct(ProductDto.builder().name("Red shirt").build()).block();
+        assertEquals(List.of(id), productSearchIndex.search("red", 10));
+
+        productService.updateProduct(ProductDto.builder().id(UUID.fromString(id)).name("Blue shirt").build()).block();
+        assertEquals(List.of(), productSearchIndex.search("red", 10));
+        assertEquals(List.of(id), productSearchIndex.search("blue", 10));
+
+        productService.deleteProductById(id).block();
+        assertEquals(List.of(), productSearchIndex.search("shirt", 10));
     }
 
     @Test
     void shouldThrowExceptionDuringDeleteProduct() {
-        when(productReadRepository.findById(eq("testNumber123"))).thenReturn(Optional.empty());
-
-        ProductNotFound exception = assertThrows(ProductNotFound.class, () ->
-                productService.deleteProductById("testNumber123")
-        );
-        assertEquals("Product which id: testNumber123 not exist, so can't be deleted", exception.getMessage());
+        when(productReadRepository.existsById(eq("testNumber123"))).thenReturn(Mono.just(false));
+
+        StepVerifier.create(productService.deleteProductById("testNumber123"))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ProductNotFound.class, exception.getClass());
+                    assertEquals("Product which id: testNumber123 not exist, so can't be deleted", exception.getMessage());
+                })
+                .verify();
     }
 
-}
\ No newline at end of file
+}
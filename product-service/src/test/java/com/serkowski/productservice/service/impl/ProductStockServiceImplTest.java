@@ -0,0 +1,136 @@
+package com.serkowski.productservice.service.impl;
+
+import com.serkowski.productservice.model.Availability;
+import com.serkowski.productservice.model.ProductStock;
+import com.serkowski.productservice.repository.product.item.ProductItemReadRepository;
+import com.serkowski.productservice.repository.product.stock.ProductStockReadRepository;
+import com.serkowski.productservice.repository.product.stock.ProductStockWriteRepository;
+import com.serkowski.productservice.repository.product.view.ProductViewWriteRepository;
+import com.serkowski.productservice.service.api.ProductStockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductStockServiceImplTest {
+
+    @Captor
+    private ArgumentCaptor<ProductStock> stockCaptor;
+
+    private ProductStockService productStockService;
+    @Mock
+    private ProductStockReadRepository productStockReadRepository;
+    @Mock
+    private ProductStockWriteRepository productStockWriteRepository;
+    @Mock
+    private ProductItemReadRepository productItemReadRepository;
+    @Mock
+    private ProductViewWriteRepository productViewWriteRepository;
+
+    @BeforeEach
+    void init() {
+        productStockService = new ProductStockServiceImpl(productStockReadRepository, productStockWriteRepository, productItemReadRepository,
+                productViewWriteRepository);
+    }
+
+    @Test
+    void shouldReserveAvailableItems() {
+        when(productStockWriteRepository.moveItems(eq("123"), eq(Availability.AVAILABLE), eq(Availability.RESERVED), eq(2L))).thenReturn(Mono.just(true));
+        when(productViewWriteRepository.addCounters(eq("123"), eq(-2L), eq(2L))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productStockService.reserve("123", 2))
+                .expectNext(true)
+                .verifyComplete();
+        verify(productStockReadRepository, never()).existsById(eq("123"));
+        verify(productViewWriteRepository).addCounters(eq("123"), eq(-2L), eq(2L));
+    }
+
+    @Test
+    void shouldRejectReservationWhenStockIsNotEnough() {
+        when(productStockWriteRepository.moveItems(eq("123"), eq(Availability.AVAILABLE), eq(Availability.RESERVED), eq(2L))).thenReturn(Mono.just(false));
+        when(productStockReadRepository.existsById(eq("123"))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(productStockService.reserve("123", 2))
+                .expectNext(false)
+                .verifyComplete();
+        verify(productViewWriteRepository, never()).addCounters(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldInitializeMissingStockFromProductItems() {
+        when(productItemReadRepository.countByProductIdAndAvailability(eq("123"), any())).thenReturn(Mono.just(0L));
+        when(productItemReadRepository.countByProductIdAndAvailability(eq("123"), eq(Availability.AVAILABLE))).thenReturn(Mono.just(2L));
+        when(productItemReadRepository.countByProductIdAndAvailability(eq("123"), eq(Availability.RESERVED))).thenReturn(Mono.just(1L));
+        when(productStockWriteRepository.moveItems(eq("123"), eq(Availability.AVAILABLE), eq(Availability.RESERVED), eq(2L)))
+                .thenReturn(Mono.just(false))
+                .thenReturn(Mono.just(true));
+        when(productStockReadRepository.existsById(eq("123"))).thenReturn(Mono.just(false));
+        when(productStockWriteRepository.insert(any(ProductStock.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(productViewWriteRepository.setCounters(eq("123"), eq(2L), eq(1L))).thenReturn(Mono.empty());
+        when(productViewWriteRepository.addCounters(eq("123"), eq(-2L), eq(2L))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productStockService.reserve("123", 2))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(productStockWriteRepository).insert(stockCaptor.capture());
+        ProductStock stock = stockCaptor.getValue();
+        assertAll(
+                "Assert initialized stock",
+                () -> assertEquals("123", stock.getProductId()),
+                () -> assertEquals(2, stock.getAvailable()),
+                () -> assertEquals(1, stock.getReserved())
+        );
+    }
+
+    @Test
+    void shouldAddAvailableItems() {
+        when(productStockWriteRepository.addItems(eq("123"), eq(Availability.AVAILABLE), eq(1L))).thenReturn(Mono.just(true));
+        when(productViewWriteRepository.addCounters(eq("123"), eq(1L), eq(0L))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productStockService.addAvailable("123", 1))
+                .verifyComplete();
+
+        verify(productStockWriteRepository, never()).insert(any(ProductStock.class));
+    }
+
+    @Test
+    void shouldRebuildStockFromProductItems() {
+        when(productItemReadRepository.countByProductIdAndAvailability(eq("123"), any())).thenReturn(Mono.just(3L));
+        when(productStockWriteRepository.save(any(ProductStock.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(productViewWriteRepository.setCounters(eq("123"), eq(3L), eq(3L))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productStockService.rebuildStock("123"))
+                .verifyComplete();
+
+        verify(productStockWriteRepository).save(stockCaptor.capture());
+        assertEquals(3, stockCaptor.getValue().getDelivered());
+        verify(productViewWriteRepository).setCounters(eq("123"), eq(3L), eq(3L));
+    }
+
+    @Test
+    void shouldReleaseReservedItems() {
+        when(productStockWriteRepository.moveItems(eq("123"), eq(Availability.RESERVED), eq(Availability.AVAILABLE), eq(3L))).thenReturn(Mono.just(true));
+        when(productViewWriteRepository.addCounters(eq("123"), eq(3L), eq(-3L))).thenReturn(Mono.empty());
+
+        StepVerifier.create(productStockService.release("123", 3))
+                .verifyComplete();
+
+        verify(productStockWriteRepository).moveItems(eq("123"), eq(Availability.RESERVED), eq(Availability.AVAILABLE), eq(3L));
+        verify(productViewWriteRepository).addCounters(eq("123"), eq(3L), eq(-3L));
+    }
+}
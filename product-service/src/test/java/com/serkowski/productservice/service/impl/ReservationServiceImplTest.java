@@ -1,8 +1,12 @@
 package com.serkowski.productservice.service.impl;
 
+import com.serkowski.productservice.config.ReservationProperties;
 import com.serkowski.productservice.dto.request.ReservationRequestDto;
 import com.serkowski.productservice.dto.request.ReserveItemDto;
+import com.serkowski.productservice.id.TimeOrderedIdGenerator;
 import com.serkowski.productservice.model.Reservation;
+import com.serkowski.productservice.model.ReservationStatus;
+import com.serkowski.productservice.model.error.ReservationItemsException;
 import com.serkowski.productservice.repository.reservation.ReservationReadRepository;
 import com.serkowski.productservice.repository.reservation.ReservationWriteRepository;
 import com.serkowski.productservice.service.api.ProductItemService;
@@ -14,14 +18,21 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,9 +51,13 @@ class ReservationServiceImplTest {
     @Mock
     private ProductItemService productItemService;
 
+    private final ReservationProperties reservationProperties = new ReservationProperties();
+
     @BeforeEach
     void init() {
-        reservationService = new ReservationServiceImpl(reservationReadRepository, reservationWriteRepository, productItemService);
+        reservationProperties.setTtl(Duration.ofMinutes(5));
+        reservationService = new ReservationServiceImpl(reservationReadRepository, reservationWriteRepository, productItemService, reservationProperties,
+                new TimeOrderedIdGenerator());
     }
 
     @Test
@@ -55,35 +70,220 @@ class ReservationServiceImplTest {
                         .build()))
                 .build();
 
-        when(productItemService.reserveItems(eq(requestDto.getItems()))).thenReturn(List.of("1111"));
+        when(reservationReadRepository.findByOrderNumber(eq("123"))).thenReturn(Mono.empty());
+        when(reservationWriteRepository.insert(any(Reservation.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(productItemService.reserveItems(any(), eq(requestDto.getItems()))).thenReturn(Mono.just(List.of("1111")));
+        when(reservationWriteRepository.setProductItems(any(), eq(List.of("1111"))))
+                .thenReturn(Mono.just(Reservation.builder().productItems(List.of("1111")).build()));
 
-        reservationService.reserve(requestDto);
+        StepVerifier.create(reservationService.reserve(requestDto))
+                .expectNext(List.of("1111"))
+                .verifyComplete();
 
-        verify(reservationWriteRepository).save(reservationArgumentCaptor.capture());
+        verify(reservationWriteRepository).insert(reservationArgumentCaptor.capture());
         Reservation value = reservationArgumentCaptor.getValue();
-        assertEquals("123", value.getOrderNumber());
         assertAll(
                 "Assert result",
                 () -> assertNotNull(value.getId()),
                 () -> assertEquals("123", value.getOrderNumber()),
-                () -> assertEquals("1111", value.getProductItems().get(0))
+                () -> assertNull(value.getProductItems(), "Items should be reserved after the reservation is stored"),
+                () -> assertEquals(ReservationStatus.ACTIVE, value.getReservationStatus()),
+                () -> assertEquals(value.getDate().plusMinutes(5), value.getExpiresAt())
         );
+        verify(productItemService).reserveItems(eq(value.getId()), eq(requestDto.getItems()));
+        verify(reservationWriteRepository).setProductItems(eq(value.getId()), eq(List.of("1111")));
     }
 
     @Test
-    public void shouldUnlockReservation() {
-        String orderNumber = "123";
+    public void shouldCancelReservationWhenItemsCanNotBeReserved() {
+        ReservationRequestDto requestDto = reservationRequest("123");
+        when(reservationReadRepository.findByOrderNumber(eq("123"))).thenReturn(Mono.empty());
+        when(reservationWriteRepository.insert(any(Reservation.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(productItemService.reserveItems(any(), eq(requestDto.getItems()))).thenReturn(Mono.error(new ReservationItemsException("not enough")));
+        when(reservationWriteRepository.cancelReservation(eq("123"))).thenReturn(Mono.just(Reservation.builder().build()));
+
+        StepVerifier.create(reservationService.reserve(requestDto))
+                .expectErrorMessage("not enough")
+                .verify();
+
+        verify(reservationWriteRepository).cancelReservation(eq("123"));
+        verify(reservationWriteRepository, never()).setProductItems(any(), any());
+    }
+
+    @Test
+    public void shouldUnlockItemsWhenReservationEndedWhileReserving() {
+        ReservationRequestDto requestDto = reservationRequest("123");
+        when(reservationReadRepository.findByOrderNumber(eq("123"))).thenReturn(Mono.empty());
+        when(reservationWriteRepository.insert(any(Reservation.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(productItemService.reserveItems(any(), eq(requestDto.getItems()))).thenReturn(Mono.just(List.of("1111")));
+        when(reservationWriteRepository.setProductItems(any(), eq(List.of("1111")))).thenReturn(Mono.empty());
+        when(productItemService.unlockReservedItems(anyCollection())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(reservationService.reserve(requestDto))
+                .expectError(ReservationItemsException.class)
+                .verify();
+
+        ArgumentCaptor<String> reservationId = ArgumentCaptor.forClass(String.class);
+        verify(productItemService).reserveItems(reservationId.capture(), eq(requestDto.getItems()));
+        verify(productItemService).unlockReservedItems(eq(List.of(reservationId.getValue())));
+    }
+
+    @Test
+    public void shouldReplayReservationOfTheSameOrder() {
+        ReservationRequestDto requestDto = reservationRequest("123");
+        when(reservationReadRepository.findByOrderNumber(eq("123"))).thenReturn(Mono.just(Reservation.builder()
+                .id(UUID.randomUUID().toString())
+                .orderNumber("123")
+                .productItems(List.of("1111", "2222"))
+                .reservationStatus(ReservationStatus.ACTIVE)
+                .build()));
+
+        StepVerifier.create(reservationService.reserve(requestDto))
+                .expectNext(List.of("1111", "2222"))
+                .verifyComplete();
+
+        verify(productItemService, never()).reserveItems(any(), any());
+        verify(reservationWriteRepository, never()).insert(any(Reservation.class));
+    }
 
-        when(reservationReadRepository.findByOrderNumber(eq(orderNumber)))
-                .thenReturn(Optional.of(Reservation.builder()
+    @Test
+    public void shouldReplayWhenTheSameOrderWasReservedConcurrently() {
+        ReservationRequestDto requestDto = reservationRequest("123");
+        when(reservationReadRepository.findByOrderNumber(eq("123")))
+                .thenReturn(Mono.empty())
+                .thenReturn(Mono.just(Reservation.builder()
                         .id(UUID.randomUUID().toString())
-                        .orderNumber(orderNumber)
+                        .orderNumber("123")
                         .productItems(List.of("1111"))
+                        .reservationStatus(ReservationStatus.ACTIVE)
                         .build()));
+        when(reservationWriteRepository.insert(any(Reservation.class))).thenReturn(Mono.error(new DuplicateKeyException("duplicate")));
+
+        StepVerifier.create(reservationService.reserve(requestDto))
+                .expectNext(List.of("1111"))
+                .verifyComplete();
+
+        verify(productItemService, never()).reserveItems(any(), any());
+    }
+
+    @Test
+    public void shouldRejectReplayOfReservationInProgress() {
+        ReservationRequestDto requestDto = reservationRequest("123");
+        when(reservationReadRepository.findByOrderNumber(eq("123"))).thenReturn(Mono.just(Reservation.builder()
+                .id(UUID.randomUUID().toString())
+                .orderNumber("123")
+                .reservationStatus(ReservationStatus.ACTIVE)
+                .build()));
+
+        StepVerifier.create(reservationService.reserve(requestDto))
+                .expectErrorMessage("Reservation of order: 123 is still in progress")
+                .verify();
+
+        verify(productItemService, never()).reserveItems(any(), any());
+    }
+
+    @Test
+    public void shouldRejectReservationOfAlreadyCanceledOrder() {
+        ReservationRequestDto requestDto = reservationRequest("123");
+        when(reservationReadRepository.findByOrderNumber(eq("123"))).thenReturn(Mono.just(Reservation.builder()
+                .id(UUID.randomUUID().toString())
+                .orderNumber("123")
+                .productItems(List.of("1111"))
+                .reservationStatus(ReservationStatus.CANCELED)
+                .build()));
+
+        StepVerifier.create(reservationService.reserve(requestDto))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ReservationItemsException.class, exception.getClass());
+                    assertEquals("Reservation of order: 123 is already CANCELED", exception.getMessage());
+                })
+                .verify();
+
+        verify(productItemService, never()).reserveItems(any(), any());
+    }
+
+    @Test
+    public void shouldUnlockReservation() {
+        String orderNumber = "123";
+
+        Reservation reservation = Reservation.builder()
+                .id(UUID.randomUUID().toString())
+                .orderNumber(orderNumber)
+                .productItems(List.of("1111"))
+                .reservationStatus(ReservationStatus.CANCELED)
+                .build();
+        when(reservationWriteRepository.cancelReservation(eq(orderNumber))).thenReturn(Mono.just(reservation));
+        when(productItemService.unlockReservedItems(eq(List.of(reservation.getId())))).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(reservationService.unlockReservation(orderNumber))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    public void shouldNotUnlockExpiredReservation() {
+        String orderNumber = "123";
+
+        when(reservationWriteRepository.cancelReservation(eq(orderNumber))).thenReturn(Mono.empty());
+
+        StepVerifier.create(reservationService.unlockReservation(orderNumber))
+                .expectNext(0L)
+                .verifyComplete();
+
+        verify(productItemService, never()).unlockReservedItems(any());
+    }
 
-        reservationService.unlockReservation(orderNumber);
+    @Test
+    public void shouldReleaseItemsOfExpiredReservationsInBatches() {
+        Reservation first = expiredReservation("1111", "2222");
+        Reservation second = expiredReservation("3333");
+        Reservation third = expiredReservation("4444");
+        when(reservationReadRepository.findByReservationStatusAndExpiresAtBeforeOrderByExpiresAtAsc(eq(ReservationStatus.ACTIVE), any(), any()))
+                .thenReturn(Flux.just(first, second))
+                .thenReturn(Flux.just(third));
+        when(reservationWriteRepository.expireReservation(eq(first.getId()), any())).thenReturn(Mono.just(first));
+        when(reservationWriteRepository.expireReservation(eq(second.getId()), any())).thenReturn(Mono.empty());
+        when(reservationWriteRepository.expireReservation(eq(third.getId()), any())).thenReturn(Mono.just(third));
+        when(productItemService.unlockReservedItems(eq(List.of(first.getId())))).thenReturn(Mono.just(2L));
+        when(productItemService.unlockReservedItems(eq(List.of(third.getId())))).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(reservationService.releaseExpiredReservations(2, 10))
+                .expectNext(3L)
+                .verifyComplete();
+
+        verify(productItemService, never()).unlockReservedItems(eq(List.of(second.getId())));
+    }
+
+    @Test
+    public void shouldSkipUnlockWhenNoReservationExpired() {
+        when(reservationReadRepository.findByReservationStatusAndExpiresAtBeforeOrderByExpiresAtAsc(eq(ReservationStatus.ACTIVE), any(), any()))
+                .thenReturn(Flux.empty());
+
+        StepVerifier.create(reservationService.releaseExpiredReservations(2, 10))
+                .expectNext(0L)
+                .verifyComplete();
+
+        verify(productItemService, never()).unlockReservedItems(anyCollection());
+    }
+
+    private ReservationRequestDto reservationRequest(String orderNumber) {
+        return ReservationRequestDto.builder()
+                .orderNumber(orderNumber)
+                .items(List.of(ReserveItemDto.builder()
+                        .count(1)
+                        .itemRef("123123")
+                        .build()))
+                .build();
+    }
 
-        verify(productItemService).unlockReservedItems(any());
+    private Reservation expiredReservation(String... productItems) {
+        return Reservation.builder()
+                .id(UUID.randomUUID().toString())
+                .orderNumber(UUID.randomUUID().toString())
+                .productItems(List.of(productItems))
+                .reservationStatus(ReservationStatus.ACTIVE)
+                .expiresAt(LocalDateTime.now().minusMinutes(1))
+                .build();
     }
 
-}
\ No newline at end of file
+}